@@ -0,0 +1,142 @@
+package com.example.srp.algorithms.arcflags;
+
+import com.example.srp.algorithms.overlay.Partition;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+import com.example.srp.algorithms.pathfinding.PathFinder;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.*;
+
+/**
+ * Dijkstra that only relaxes arcs flagged for the target's region.
+ * Flags are preprocessed per traffic hour on first use, over one partition shared by all hours.
+ * Only preprocessing is locked; each thread searches with its own arrays.
+ */
+public class ArcFlagPathFinder implements PathFinder {
+    private final IndexedGraph graph;
+    private final TrafficStore ts;
+    private final Partition partition;
+    private final Map<Integer, ArcFlags> flags = new HashMap<>();
+    private final Map<Integer, double[]> weights = new HashMap<>();
+
+    // Search state is per thread, reset after every query
+    private final ThreadLocal<Search> searches;
+
+    public ArcFlagPathFinder(Graph graph, TrafficStore ts) {
+        this(IndexedGraph.of(graph), ts);
+    }
+
+    public ArcFlagPathFinder(IndexedGraph graph, TrafficStore ts) {
+        this(graph, ts, ArcFlags.defaultPartition(graph));
+    }
+
+    public ArcFlagPathFinder(IndexedGraph graph, TrafficStore ts, Partition partition) {
+        this.graph = graph;
+        this.ts = ts;
+        this.partition = partition;
+        this.searches = ThreadLocal.withInitial(() -> new Search(graph.size()));
+    }
+
+    /**
+     * Returns the flags for the hour, preprocessing them on first use
+     */
+    public synchronized ArcFlags getFlags(int hour) {
+        return flags.computeIfAbsent(hour, h -> ArcFlags.build(graph, weightsFor(h), partition));
+    }
+
+    /**
+     * Vertices settled by the calling thread's most recent query, for comparing search effort
+     * between engines
+     */
+    public int lastSettled() {
+        return searches.get().lastSettled;
+    }
+
+    @Override
+    public Path findShortestPath(String sourceId, String targetId, int hour) {
+        int source = graph.indexOf(sourceId);
+        int target = graph.indexOf(targetId);
+        if (source < 0 || target < 0) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+        ArcFlags arcFlags = getFlags(hour);
+        return searches.get().run(source, target, arcFlags, weightsFor(hour));
+    }
+
+    private synchronized double[] weightsFor(int hour) {
+        return weights.computeIfAbsent(hour, h -> graph.weights(ts, h));
+    }
+
+    private class Search {
+        final double[] dist;
+        final int[] parent;
+        final int[] touched;
+        int touchedCount;
+        final IndexedMinHeap heap;
+        int lastSettled;
+
+        Search(int n) {
+            dist = new double[n];
+            parent = new int[n];
+            touched = new int[n];
+            heap = new IndexedMinHeap(n);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        Path run(int source, int target, ArcFlags arcFlags, double[] w) {
+            int region = arcFlags.regionOf(target);
+            relax(source, -1, 0.0);
+            lastSettled = 0;
+            boolean found = false;
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                lastSettled++;
+                if (u == target) {
+                    found = true;
+                    break;
+                }
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    if (arcFlags.isSet(a, region)) {
+                        relax(graph.head(a), u, dist[u] + w[a]);
+                    }
+                }
+            }
+
+            Path path;
+            if (found) {
+                List<Integer> vertices = new ArrayList<>();
+                for (int v = target; v >= 0; v = parent[v]) {
+                    vertices.add(v);
+                }
+                Collections.reverse(vertices);
+                path = graph.toPath(vertices, dist[target]);
+            } else {
+                path = new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+            }
+            reset();
+            return path;
+        }
+
+        void relax(int v, int from, double d) {
+            if (d < dist[v]) {
+                if (dist[v] == Double.POSITIVE_INFINITY) {
+                    touched[touchedCount++] = v;
+                }
+                dist[v] = d;
+                parent[v] = from;
+                heap.update(v, d);
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.srp.algorithms.arcflags;
+
+import com.example.srp.algorithms.overlay.Partition;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Arc-flags for one weight vector (one traffic hour) over a single-level map partition.
+ *
+ * Arc a carries the flag of region r if it starts some shortest path into r. A query towards a
+ * target in region r may then skip every arc without flag r. Flags are found with one reverse
+ * search per boundary vertex of each region; regions are independent and processed in parallel.
+ *
+ * Preprocessing only needs a partition by coordinates, so a topology change costs a rebuild of
+ * the flags but no hierarchy.
+ */
+public class ArcFlags {
+    private static final double EPSILON = 1e-9;
+
+    private final IndexedGraph graph;
+    private final Partition partition;
+    private final int words;       // longs per arc
+    private final long[] flags;    // flags[arc * words + r / 64] bit r % 64
+
+    private ArcFlags(IndexedGraph graph, Partition partition, long[] flags) {
+        this.graph = graph;
+        this.partition = partition;
+        this.words = wordsFor(partition.cellCount(0));
+        this.flags = flags;
+    }
+
+    /**
+     * Default partition: about 64 regions, so every arc's flags fit in one long
+     */
+    public static Partition defaultPartition(IndexedGraph graph) {
+        return Partition.build(graph, new int[]{Math.max(16, (graph.size() + 63) / 64)});
+    }
+
+    /**
+     * @param partition only its level 0 cells are used as regions
+     */
+    public static ArcFlags build(IndexedGraph graph, double[] weights, Partition partition) {
+        int regions = partition.cellCount(0);
+        BitSet[] perRegion = new BitSet[regions];
+        IntStream.range(0, regions).parallel()
+                .forEach(r -> perRegion[r] = flagsForRegion(graph, weights, partition, r));
+
+        int words = wordsFor(regions);
+        long[] flags = new long[graph.arcCount() * words];
+        for (int r = 0; r < regions; r++) {
+            BitSet set = perRegion[r];
+            for (int a = set.nextSetBit(0); a >= 0; a = set.nextSetBit(a + 1)) {
+                flags[a * words + (r >>> 6)] |= 1L << (r & 63);
+            }
+        }
+        return new ArcFlags(graph, partition, flags);
+    }
+
+    // Arcs flagged for region r: all arcs inside r, plus every arc tight in a reverse search from a boundary vertex
+    private static BitSet flagsForRegion(IndexedGraph graph, double[] weights, Partition partition, int region) {
+        int[] cellOf = partition.cellOfLevel(0);
+        int[] members = partition.cellVertices(0);
+        BitSet flagged = new BitSet(graph.arcCount());
+
+        int n = graph.size();
+        double[] dist = new double[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        for (int i = partition.cellFirst(0, region); i < partition.cellFirst(0, region + 1); i++) {
+            int v = members[i];
+            boolean boundary = false;
+            for (int a = graph.firstOut(v); a < graph.endOut(v); a++) {
+                if (cellOf[graph.head(a)] == region) {
+                    flagged.set(a);
+                } else {
+                    boundary = true;
+                }
+            }
+            if (!boundary) {
+                continue;
+            }
+
+            // Roads are two-way with equal weights, so a forward search gives distances to v
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            dist[v] = 0.0;
+            heap.update(v, 0.0);
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    int w = graph.head(a);
+                    double candidate = dist[u] + weights[a];
+                    if (candidate < dist[w]) {
+                        dist[w] = candidate;
+                        heap.update(w, candidate);
+                    }
+                }
+            }
+            for (int u = 0; u < n; u++) {
+                if (dist[u] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    if (dist[u] >= weights[a] + dist[graph.head(a)] - EPSILON) {
+                        flagged.set(a);
+                    }
+                }
+            }
+        }
+        return flagged;
+    }
+
+    private static int wordsFor(int regions) {
+        return Math.max(1, (regions + 63) >>> 6);
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+
+    public Partition getPartition() {
+        return partition;
+    }
+
+    public int regionCount() {
+        return partition.cellCount(0);
+    }
+
+    public int regionOf(int v) {
+        return partition.cellOf(0, v);
+    }
+
+    public boolean isSet(int arc, int region) {
+        return (flags[arc * words + (region >>> 6)] & (1L << (region & 63))) != 0;
+    }
+
+    /**
+     * Average share of regions flagged per arc; lower means more pruning
+     */
+    public double flagDensity() {
+        long set = 0;
+        for (long word : flags) {
+            set += Long.bitCount(word);
+        }
+        return graph.arcCount() == 0 ? 0.0 : (double) set / ((long) graph.arcCount() * regionCount());
+    }
+}
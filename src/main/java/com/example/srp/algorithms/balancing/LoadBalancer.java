@@ -1,7 +1,7 @@
 package com.example.srp.algorithms.balancing;
 
 import com.example.srp.algorithms.clustering.ClusterAssigner;
-import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.algorithms.pathfinding.PathLookup;
 import com.example.srp.algorithms.routing.TSPSolver;
 import com.example.srp.models.NodeCluster;
 import com.example.srp.models.RouteInfo;
@@ -12,13 +12,13 @@ import java.util.List;
 import java.util.Map;
 
 public class LoadBalancer {
-    PathCache pathCache;
+    PathLookup pathCache;
     ClusterAssigner clusterAssigner;
     TSPSolver tspSolver;
     RouteEvaluator evaluator;
     double imbalanceThreshold;
 
-    public LoadBalancer(PathCache pathCache, ClusterAssigner clusterAssigner, TSPSolver tspSolver, RouteEvaluator evaluator, double imbalanceThreshold) {
+    public LoadBalancer(PathLookup pathCache, ClusterAssigner clusterAssigner, TSPSolver tspSolver, RouteEvaluator evaluator, double imbalanceThreshold) {
         this.pathCache=pathCache;
         this.clusterAssigner=clusterAssigner;
         this.tspSolver=tspSolver;
@@ -26,7 +26,7 @@ public class LoadBalancer {
         this.imbalanceThreshold=imbalanceThreshold;
     }
 
-    public LoadBalancer(PathCache pathCache, ClusterAssigner clusterAssigner, TSPSolver tspSolver, RouteEvaluator evaluator) {
+    public LoadBalancer(PathLookup pathCache, ClusterAssigner clusterAssigner, TSPSolver tspSolver, RouteEvaluator evaluator) {
         this(pathCache, clusterAssigner, tspSolver, evaluator, 1.3);
     }
 
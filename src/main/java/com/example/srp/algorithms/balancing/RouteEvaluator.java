@@ -1,15 +1,14 @@
 package com.example.srp.algorithms.balancing;
 
-import com.example.srp.algorithms.pathfinding.PathCache;
-import com.example.srp.models.Path;
+import com.example.srp.algorithms.pathfinding.PathLookup;
 import com.example.srp.models.RouteInfo;
 
 import java.util.List;
 
 public class RouteEvaluator {
-    PathCache pathCache;
+    PathLookup pathCache;
 
-    public RouteEvaluator(PathCache pathCache) {
+    public RouteEvaluator(PathLookup pathCache) {
         this.pathCache=pathCache;
     }
 
@@ -27,11 +26,11 @@ public class RouteEvaluator {
         for(int i=0; i<tour.size()-1; i++) {
             String from=tour.get(i);
             String to=tour.get(i+1);
-            Path path=pathCache.get(from, to);
-            if(path==null) {
+            double leg=pathCache.getDistance(from, to);
+            if(Double.isNaN(leg)) {
                 throw new IllegalStateException("No path found from " + from + " to " + to);
             }
-            totalDistance+=path.getTotalDistance();
+            totalDistance+=leg;
         }
         return totalDistance;
     }
@@ -1,29 +1,39 @@
 package com.example.srp.algorithms.clustering;
 
-import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.algorithms.pathfinding.DistanceOracle;
+import com.example.srp.algorithms.pathfinding.PathLookup;
 import com.example.srp.models.NodeCluster;
-import com.example.srp.models.Path;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
 public class GreedyBalancedAssigner implements ClusterAssigner {
-    PathCache pathCache;
+    PathLookup pathCache;
+    DistanceOracle oracle;   // used instead of pathCache when set
     /*
     * Turn left (0.0) → Optimize for shortest total distance
     * Turn right (1.0) → Optimize for equal workload
     * Middle (0.5) → Balance both goals
     */
     double totalPenaltyWeight;
-    public GreedyBalancedAssigner(PathCache cache, double penalty) {
+    public GreedyBalancedAssigner(PathLookup cache, double penalty) {
         pathCache=cache;
         totalPenaltyWeight=penalty;
     }
-    public GreedyBalancedAssigner(PathCache cache) {
+    public GreedyBalancedAssigner(PathLookup cache) {
         this(cache, 0.5); // by default value
     }
 
+    /**
+     * Assigns on (possibly approximate) oracle distances, so no all-pairs PathCache is needed
+     * before clustering; build exact distances per cluster afterwards.
+     */
+    public GreedyBalancedAssigner(DistanceOracle oracle, double penalty) {
+        this.oracle=oracle;
+        totalPenaltyWeight=penalty;
+    }
+
     @Override
     public List<NodeCluster> assignNodes(List<String> mandatoryNodes, String startNode, int k) {
         if (k <= 0) {
@@ -44,11 +54,11 @@ public class GreedyBalancedAssigner implements ClusterAssigner {
 
         List<NodeWithDistance> sortedNodes=new ArrayList<>();
         for(String node: mandatoryNodes) {
-            Path path=pathCache.get(startNode, node);
-            if (path == null) {
+            Double distance=distance(startNode, node);
+            if (distance == null) {
                 throw new IllegalStateException("No path found from " + startNode + " to " + node);
             }
-            sortedNodes.add(new NodeWithDistance(node, path.getTotalDistance()));
+            sortedNodes.add(new NodeWithDistance(node, distance));
         }
         sortedNodes.sort(Comparator.comparingDouble(n -> n.distance));
 
@@ -86,9 +96,9 @@ public class GreedyBalancedAssigner implements ClusterAssigner {
         int count = 0;
 
         for(String eNode: existingNodes) {
-            Path path=pathCache.get(eNode, nodeId);
-            if (path != null) {
-                totalDist += path.getTotalDistance();
+            Double distance=distance(eNode, nodeId);
+            if (distance != null) {
+                totalDist += distance;
                 count++;
             }
         }
@@ -107,15 +117,22 @@ public class GreedyBalancedAssigner implements ClusterAssigner {
         for(NodeCluster cluster: clusters) {
             double totalDist=0.0;
             for(String node: cluster.getAssignedNodes()) {
-                Path path=pathCache.get(cluster.getStartNode(), node);
-                if (path != null) {
-                    totalDist += path.getTotalDistance();
+                Double distance=distance(cluster.getStartNode(), node);
+                if (distance != null) {
+                    totalDist += distance;
                 }
             }
             cluster.setTotalDistance(totalDist);
         }
     }
 
+    // Distance from the oracle or the cache; null when the pair is unknown (NaN) or unreachable
+    // (infinity), whichever source it came from
+    private Double distance(String from, String to) {
+        double d=(oracle != null)? oracle.distance(from, to) : pathCache.getDistance(from, to);
+        return (Double.isNaN(d) || Double.isInfinite(d))? null : d;
+    }
+
     public static class NodeWithDistance {
         String nodeId;
         double distance;
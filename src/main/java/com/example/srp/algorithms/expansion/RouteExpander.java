@@ -1,6 +1,6 @@
 package com.example.srp.algorithms.expansion;
 
-import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.algorithms.pathfinding.PathLookup;
 import com.example.srp.models.DetailedRoute;
 import com.example.srp.models.Path;
 import com.example.srp.models.RouteInfo;
@@ -9,9 +9,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class RouteExpander {
-    private final PathCache pathCache;
+    private final PathLookup pathCache;
 
-    public RouteExpander(PathCache pathCache) {
+    public RouteExpander(PathLookup pathCache) {
         this.pathCache = pathCache;
     }
 
@@ -0,0 +1,230 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+import com.example.srp.models.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bucket-based many-to-many distances on a Contraction Hierarchy.
+ *
+ * One upward search per target leaves a bucket entry (target, distance) at every vertex it
+ * settles. An upward search from a source then only has to scan the buckets of the vertices it
+ * settles; the best meeting per target is the shortest distance. The buckets also remember the
+ * target-side search trees, so full paths can be unpacked afterwards.
+ *
+ * Buckets are read-only once built; rows for different sources can be computed in parallel.
+ */
+public class BucketManyToMany {
+    private final ContractionHierarchy ch;
+    private final int[] targets;
+
+    // Bucket of v is entries bucketFirst[v] .. bucketFirst[v+1]-1, ordered by target index
+    private final int[] bucketFirst;
+    private final int[] entryTarget;
+    private final double[] entryDist;
+    private final int[] entryParent;   // next vertex towards the target in its upward tree, -1 at the target
+
+    private final ThreadLocal<Workspace> workspaces;
+
+    public BucketManyToMany(ContractionHierarchy ch, int[] targets) {
+        this.ch = ch;
+        this.targets = targets.clone();
+        int n = ch.size();
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(n));
+
+        // Backward searches, collected per target and then regrouped per vertex
+        Workspace ws = workspaces.get();
+        int[] counts = new int[n + 1];
+        List<int[]> vertexLists = new ArrayList<>();
+        List<double[]> distLists = new ArrayList<>();
+        List<int[]> parentLists = new ArrayList<>();
+        for (int target : this.targets) {
+            ws.upwardSearch(ch, target);
+            int[] vertices = Arrays.copyOf(ws.touched, ws.touchedCount);
+            double[] dists = new double[vertices.length];
+            int[] parents = new int[vertices.length];
+            for (int i = 0; i < vertices.length; i++) {
+                dists[i] = ws.dist[vertices[i]];
+                parents[i] = ws.parent[vertices[i]];
+                counts[vertices[i] + 1]++;
+            }
+            vertexLists.add(vertices);
+            distLists.add(dists);
+            parentLists.add(parents);
+            ws.reset();
+        }
+
+        for (int v = 0; v < n; v++) {
+            counts[v + 1] += counts[v];
+        }
+        this.bucketFirst = counts;
+        int entries = counts[n];
+        this.entryTarget = new int[entries];
+        this.entryDist = new double[entries];
+        this.entryParent = new int[entries];
+        int[] fill = Arrays.copyOf(counts, n);
+        for (int t = 0; t < this.targets.length; t++) {
+            int[] vertices = vertexLists.get(t);
+            for (int i = 0; i < vertices.length; i++) {
+                int e = fill[vertices[i]]++;
+                entryTarget[e] = t;
+                entryDist[e] = distLists.get(t)[i];
+                entryParent[e] = parentLists.get(t)[i];
+            }
+        }
+    }
+
+    public int[] getTargets() {
+        return targets.clone();
+    }
+
+    public int bucketEntries() {
+        return entryTarget.length;
+    }
+
+    /**
+     * Shortest distance from source to every target, in target order
+     */
+    public double[] distances(int source) {
+        Workspace ws = workspaces.get();
+        double[] best = new double[targets.length];
+        scanBuckets(ws, source, best, null);
+        ws.reset();
+        return best;
+    }
+
+    /**
+     * Shortest path from source to every target, in target order; unreachable targets get an
+     * empty path with infinite distance.
+     */
+    public Path[] paths(int source) {
+        return paths(source, 0);
+    }
+
+    /**
+     * Like paths(source), but only unpacks targets from index firstTarget on; earlier entries are null.
+     * Lets a symmetric matrix skip the half it already has.
+     */
+    public Path[] paths(int source, int firstTarget) {
+        Workspace ws = workspaces.get();
+        double[] best = new double[targets.length];
+        int[] meeting = new int[targets.length];
+        scanBuckets(ws, source, best, meeting);
+
+        IndexedGraph graph = ch.getGraph();
+        Path[] paths = new Path[targets.length];
+        for (int t = firstTarget; t < targets.length; t++) {
+            if (best[t] == Double.POSITIVE_INFINITY) {
+                paths[t] = new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+                continue;
+            }
+            // Hierarchy path: source ... meeting from the forward tree, meeting ... target from the buckets
+            List<Integer> up = new ArrayList<>();
+            for (int v = meeting[t]; v >= 0; v = ws.parent[v]) {
+                up.add(v);
+            }
+            Collections.reverse(up);
+            for (int v = entryParent[findEntry(meeting[t], t)]; v >= 0; v = entryParent[findEntry(v, t)]) {
+                up.add(v);
+            }
+
+            List<Integer> vertices = new ArrayList<>();
+            vertices.add(source);
+            for (int i = 0; i < up.size() - 1; i++) {
+                ch.unpack(up.get(i), up.get(i + 1), vertices);
+            }
+            paths[t] = graph.toPath(vertices, best[t]);
+        }
+        ws.reset();
+        return paths;
+    }
+
+    private void scanBuckets(Workspace ws, int source, double[] best, int[] meeting) {
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        ws.upwardSearch(ch, source);
+        for (int i = 0; i < ws.touchedCount; i++) {
+            int v = ws.touched[i];
+            double dv = ws.dist[v];
+            for (int e = bucketFirst[v]; e < bucketFirst[v + 1]; e++) {
+                int t = entryTarget[e];
+                double d = dv + entryDist[e];
+                if (d < best[t]) {
+                    best[t] = d;
+                    if (meeting != null) {
+                        meeting[t] = v;
+                    }
+                }
+            }
+        }
+    }
+
+    // Binary search within v's bucket, which is sorted by target index
+    private int findEntry(int v, int t) {
+        int low = bucketFirst[v];
+        int high = bucketFirst[v + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (entryTarget[mid] < t) {
+                low = mid + 1;
+            } else if (entryTarget[mid] > t) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IllegalStateException("Vertex " + v + " is not in the search space of target " + targets[t]);
+    }
+
+    // Per-thread upward search state
+    private static class Workspace {
+        final double[] dist;
+        final int[] parent;
+        final int[] touched;
+        int touchedCount;
+        final IndexedMinHeap heap;
+
+        Workspace(int n) {
+            dist = new double[n];
+            parent = new int[n];
+            touched = new int[n];
+            heap = new IndexedMinHeap(n);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        // Exhaustive upward Dijkstra; the settled vertices are touched[0 .. touchedCount-1]
+        void upwardSearch(ContractionHierarchy ch, int root) {
+            dist[root] = 0.0;
+            parent[root] = -1;
+            touched[touchedCount++] = root;
+            heap.update(root, 0.0);
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                for (int arc = ch.upFirst(u); arc < ch.upEnd(u); arc++) {
+                    int v = ch.upHead(arc);
+                    double candidate = dist[u] + ch.upWeight(arc);
+                    if (candidate < dist[v]) {
+                        if (dist[v] == Double.POSITIVE_INFINITY) {
+                            touched[touchedCount++] = v;
+                        }
+                        dist[v] = candidate;
+                        parent[v] = u;
+                        heap.update(v, candidate);
+                    }
+                }
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+}
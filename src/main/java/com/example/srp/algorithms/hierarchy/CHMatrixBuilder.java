@@ -0,0 +1,62 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Drop-in replacement for DistanceMatrixBuilder that fills the same PathCache with bucket-based
+ * many-to-many searches on a Contraction Hierarchy instead of one query per pair.
+ */
+public class CHMatrixBuilder {
+    private final CHPathFinder pathFinder;
+    private final int hour;
+
+    public CHMatrixBuilder(Graph graph, TrafficStore ts, int hour) {
+        this(new CHPathFinder(IndexedGraph.of(graph), ts), hour);
+    }
+
+    /**
+     * Reuses (or contracts on first use) the hierarchy the path finder holds for the hour
+     */
+    public CHMatrixBuilder(CHPathFinder pathFinder, int hour) {
+        this.pathFinder = pathFinder;
+        this.hour = hour;
+    }
+
+    public PathCache build(List<Vertex> nodes) {
+        ContractionHierarchy ch = pathFinder.getHierarchy(hour);
+        IndexedGraph graph = ch.getGraph();
+        int[] stops = new int[nodes.size()];
+        for (int i = 0; i < stops.length; i++) {
+            stops[i] = graph.indexOf(nodes.get(i).getId());
+            if (stops[i] < 0) {
+                throw new IllegalArgumentException("Vertex " + nodes.get(i).getId() + " is not in the graph");
+            }
+        }
+
+        BucketManyToMany buckets = new BucketManyToMany(ch, stops);
+        // Rows are independent; PathCache is not thread-safe, so only the searches run in parallel
+        Path[][] rows = new Path[stops.length][];
+        IntStream.range(0, stops.length).parallel()
+                .forEach(i -> rows[i] = buckets.paths(stops[i], i + 1));
+
+        PathCache cache = new PathCache();
+        for (Vertex v : nodes) {
+            cache.put(v.getId(), v.getId(), new Path(Collections.singletonList(v.getId()), 0.0));
+        }
+        for (int i = 0; i < stops.length; i++) {
+            for (int j = i + 1; j < stops.length; j++) {
+                cache.put(nodes.get(i).getId(), nodes.get(j).getId(), rows[i][j]);
+            }
+        }
+        return cache;
+    }
+}
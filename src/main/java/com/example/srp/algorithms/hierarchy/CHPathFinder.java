@@ -0,0 +1,133 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.PathFinder;
+import com.example.srp.memory.MemoryBudget;
+import com.example.srp.memory.MemoryConsumer;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PathFinder backed by one Contraction Hierarchy per traffic hour.
+ * Each hour is contracted the first time it is queried and kept afterwards, unless a MemoryBudget
+ * it is attached to releases it; the least recently used hour goes first and is contracted again
+ * when next queried.
+ *
+ * Only contraction is locked. Each thread queries with its own CHQuery, so concurrent queries on
+ * a contracted hour run in parallel.
+ */
+public class CHPathFinder implements PathFinder, MemoryConsumer {
+    private final IndexedGraph graph;
+    private final TrafficStore ts;
+    // Access-ordered, so release() drops the least recently queried hour first
+    private final Map<Integer, ContractionHierarchy> hierarchies = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, HubLabels> labels = new HashMap<>();
+    // Search arrays of the hierarchy this thread queried last
+    private final ThreadLocal<CHQuery> queries = new ThreadLocal<>();
+
+    private long contractionNanos;
+    private long contractedBytes;
+    private volatile MemoryBudget.Registration registration;
+
+    public CHPathFinder(Graph graph, TrafficStore ts) {
+        this(IndexedGraph.of(graph), ts);
+    }
+
+    public CHPathFinder(IndexedGraph graph, TrafficStore ts) {
+        this.graph = graph;
+        this.ts = ts;
+    }
+
+    /**
+     * Returns the hierarchy for the hour, contracting it on first use
+     */
+    public synchronized ContractionHierarchy getHierarchy(int hour) {
+        ContractionHierarchy ch = hierarchies.get(hour);
+        if (ch == null) {
+            long start = System.nanoTime();
+            ch = ContractionHierarchy.build(graph, graph.weights(ts, hour));
+            long bytes = ch.sizeInBytes();
+            contractionNanos += System.nanoTime() - start;
+            contractedBytes += bytes;
+            hierarchies.put(hour, ch);
+            MemoryBudget.Registration attached = registration;
+            if (attached != null) {
+                attached.grew(bytes);
+            }
+        }
+        return ch;
+    }
+
+    /**
+     * Returns hub labels for the hour, derived from its hierarchy on first use
+     */
+    public synchronized HubLabels getHubLabels(int hour) {
+        return labels.computeIfAbsent(hour, h -> HubLabels.build(getHierarchy(h)));
+    }
+
+    @Override
+    public Path findShortestPath(String sourceId, String targetId, int hour) {
+        ContractionHierarchy ch = getHierarchy(hour);
+        CHQuery query = queries.get();
+        if (query == null || query.getHierarchy() != ch) {
+            query = ch.newQuery();
+            queries.set(query);
+        }
+        return query.findShortestPath(sourceId, targetId);
+    }
+
+    /**
+     * Registers the per-hour hierarchies with the budget
+     * @return the registration, close it to detach
+     */
+    public MemoryBudget.Registration attachTo(MemoryBudget budget, String name) {
+        MemoryBudget.Registration attached = budget.register(name, this);
+        registration = attached;
+        return attached;
+    }
+
+    /**
+     * Hierarchies plus the off-heap hub labels; per-thread query arrays are not counted
+     */
+    @Override
+    public synchronized long usedBytes() {
+        long bytes = 0;
+        for (ContractionHierarchy ch : hierarchies.values()) {
+            bytes += ch.sizeInBytes();
+        }
+        for (HubLabels hubLabels : labels.values()) {
+            bytes += hubLabels.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Drops whole hours, least recently queried first; hub labels handed out stay valid
+     */
+    @Override
+    public synchronized long release(long bytes) {
+        long freed = 0;
+        Iterator<Map.Entry<Integer, ContractionHierarchy>> eldest = hierarchies.entrySet().iterator();
+        while (freed < bytes && eldest.hasNext()) {
+            Map.Entry<Integer, ContractionHierarchy> hour = eldest.next();
+            freed += hour.getValue().sizeInBytes();
+            HubLabels hubLabels = labels.remove(hour.getKey());
+            if (hubLabels != null) {
+                freed += hubLabels.sizeInBytes();
+            }
+            eldest.remove();
+        }
+        return freed;
+    }
+
+    @Override
+    public synchronized double reloadCostPerByte() {
+        return (contractedBytes == 0) ? 0.0 : (double) contractionNanos / contractedBytes;
+    }
+}
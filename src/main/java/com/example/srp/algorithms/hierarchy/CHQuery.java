@@ -0,0 +1,167 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+import com.example.srp.models.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bidirectional upward query on a ContractionHierarchy.
+ * Holds reusable search arrays, so one instance must not be shared between threads.
+ */
+public class CHQuery {
+    private final ContractionHierarchy ch;
+    private final Side forward;
+    private final Side backward;
+    private int meeting;
+
+    CHQuery(ContractionHierarchy ch) {
+        this.ch = ch;
+        this.forward = new Side(ch.size());
+        this.backward = new Side(ch.size());
+    }
+
+    public ContractionHierarchy getHierarchy() {
+        return ch;
+    }
+
+    /**
+     * Bytes of the search arrays of both directions, excluding the hierarchy
+     */
+    public long workingSetBytes() {
+        // dist, parent, touched and the heap's heap, pos and keys, per vertex and direction
+        return 2L * ch.size() * (Double.BYTES + Integer.BYTES + Integer.BYTES + Integer.BYTES + Integer.BYTES + Double.BYTES);
+    }
+
+    /**
+     * Shortest distance between two vertex indices, or infinity if unreachable
+     */
+    public double distance(int source, int target) {
+        double best = search(source, target);
+        forward.reset();
+        backward.reset();
+        return best;
+    }
+
+    public Path findShortestPath(String sourceId, String targetId) {
+        IndexedGraph graph = ch.getGraph();
+        int source = graph.indexOf(sourceId);
+        int target = graph.indexOf(targetId);
+        if (source < 0 || target < 0) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+
+        double best = search(source, target);
+        if (best == Double.POSITIVE_INFINITY) {
+            forward.reset();
+            backward.reset();
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+
+        // Hierarchy path: source ... meeting ... target, then unpack every shortcut
+        List<Integer> up = new ArrayList<>();
+        for (int v = meeting; v != source; v = forward.parent[v]) {
+            up.add(v);
+        }
+        up.add(source);
+        Collections.reverse(up);
+        for (int v = backward.parent[meeting]; v >= 0; v = backward.parent[v]) {
+            up.add(v);
+        }
+        forward.reset();
+        backward.reset();
+
+        List<Integer> vertices = new ArrayList<>();
+        vertices.add(source);
+        for (int i = 0; i < up.size() - 1; i++) {
+            ch.unpack(up.get(i), up.get(i + 1), vertices);
+        }
+        return graph.toPath(vertices, best);
+    }
+
+    private double search(int source, int target) {
+        forward.start(source);
+        backward.start(target);
+        double best = (source == target) ? 0.0 : Double.POSITIVE_INFINITY;
+        meeting = source;
+
+        while (!forward.heap.isEmpty() || !backward.heap.isEmpty()) {
+            // A side is finished once its frontier cannot improve the best meeting
+            boolean forwardDone = forward.heap.isEmpty() || forward.heap.peekKey() >= best;
+            boolean backwardDone = backward.heap.isEmpty() || backward.heap.peekKey() >= best;
+            if (forwardDone && backwardDone) {
+                break;
+            }
+
+            Side side;
+            Side other;
+            if (backwardDone || (!forwardDone && forward.heap.peekKey() <= backward.heap.peekKey())) {
+                side = forward;
+                other = backward;
+            } else {
+                side = backward;
+                other = forward;
+            }
+
+            int u = side.heap.poll();
+            double du = side.dist[u];
+            if (other.dist[u] != Double.POSITIVE_INFINITY && du + other.dist[u] < best) {
+                best = du + other.dist[u];
+                meeting = u;
+            }
+
+            for (int arc = ch.upFirst(u); arc < ch.upEnd(u); arc++) {
+                int v = ch.upHead(arc);
+                double candidate = du + ch.upWeight(arc);
+                if (candidate < side.dist[v]) {
+                    side.relax(v, u, candidate);
+                }
+            }
+        }
+        return best;
+    }
+
+    // One direction of the query
+    private static class Side {
+        final double[] dist;
+        final int[] parent;
+        final IndexedMinHeap heap;
+        final int[] touched;
+        int touchedCount;
+
+        Side(int n) {
+            dist = new double[n];
+            parent = new int[n];
+            heap = new IndexedMinHeap(n);
+            touched = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(parent, -1);
+        }
+
+        void start(int root) {
+            relax(root, -1, 0.0);
+        }
+
+        void relax(int v, int from, double d) {
+            if (dist[v] == Double.POSITIVE_INFINITY) {
+                touched[touchedCount++] = v;
+            }
+            dist[v] = d;
+            parent[v] = from;
+            heap.update(v, d);
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+                parent[touched[i]] = -1;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+}
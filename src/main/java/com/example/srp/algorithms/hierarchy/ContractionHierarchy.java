@@ -0,0 +1,369 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+
+import java.util.*;
+
+/**
+ * Contraction Hierarchy for one weight vector (one traffic hour).
+ *
+ * Vertices are contracted one by one in order of importance; whenever removing a vertex
+ * would lengthen a shortest path between two of its neighbours a shortcut is inserted.
+ * Afterwards every shortest path can be found by two searches that only go "up" in rank.
+ *
+ * Roads are undirected in this planner, so a single upward graph serves both query directions.
+ */
+public class ContractionHierarchy {
+    // Witness searches are bounded; a missed witness only costs a superfluous shortcut
+    private static final int SIMULATION_SETTLE_LIMIT = 20;
+    private static final int CONTRACTION_SETTLE_LIMIT = 200;
+
+    private final IndexedGraph graph;
+    private final int[] rank;
+
+    // Upward arcs of v are upFirst[v] .. upFirst[v+1]-1, all pointing to higher ranked vertices
+    private final int[] upFirst;
+    private final int[] upHead;
+    private final double[] upWeight;
+    private final int[] upMiddle;   // contracted vertex a shortcut bypasses, -1 for original roads
+
+    private ContractionHierarchy(IndexedGraph graph, int[] rank, int[] upFirst, int[] upHead, double[] upWeight, int[] upMiddle) {
+        this.graph = graph;
+        this.rank = rank;
+        this.upFirst = upFirst;
+        this.upHead = upHead;
+        this.upWeight = upWeight;
+        this.upMiddle = upMiddle;
+    }
+
+    /**
+     * Contracts the whole graph under the given per-arc weights (see IndexedGraph.weights)
+     */
+    public static ContractionHierarchy build(IndexedGraph graph, double[] weights) {
+        return new Contractor(graph, weights).run();
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+
+    public int size() {
+        return rank.length;
+    }
+
+    public int rank(int v) {
+        return rank[v];
+    }
+
+    public int upFirst(int v) {
+        return upFirst[v];
+    }
+
+    public int upEnd(int v) {
+        return upFirst[v + 1];
+    }
+
+    public int upHead(int arc) {
+        return upHead[arc];
+    }
+
+    public double upWeight(int arc) {
+        return upWeight[arc];
+    }
+
+    public int upArcCount() {
+        return upHead.length;
+    }
+
+    public CHQuery newQuery() {
+        return new CHQuery(this);
+    }
+
+    /**
+     * Bytes held by the ranks and upward arcs
+     */
+    public long sizeInBytes() {
+        return (long) Integer.BYTES * (rank.length + upFirst.length + upHead.length + upMiddle.length)
+                + (long) Double.BYTES * upWeight.length;
+    }
+
+    /**
+     * Expands the hierarchy arc between a and b into original vertices, appending
+     * everything after a (up to and including b) to out.
+     */
+    void unpack(int a, int b, List<Integer> out) {
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{a, b});
+        while (!stack.isEmpty()) {
+            int[] seg = stack.pop();
+            int middle = upMiddle[findArc(seg[0], seg[1])];
+            if (middle < 0) {
+                out.add(seg[1]);
+            } else {
+                // Push second half first so the first half is expanded first
+                stack.push(new int[]{middle, seg[1]});
+                stack.push(new int[]{seg[0], middle});
+            }
+        }
+    }
+
+    private int findArc(int a, int b) {
+        int low = rank[a] < rank[b] ? a : b;
+        int high = (low == a) ? b : a;
+        for (int arc = upFirst[low]; arc < upFirst[low + 1]; arc++) {
+            if (upHead[arc] == high) {
+                return arc;
+            }
+        }
+        throw new IllegalStateException("No hierarchy arc between " + graph.idOf(a) + " and " + graph.idOf(b));
+    }
+
+    // Mutable arc used while contracting; shared by both endpoint maps
+    private static class Arc {
+        double weight;
+        int middle;
+
+        Arc(double weight, int middle) {
+            this.weight = weight;
+            this.middle = middle;
+        }
+    }
+
+    private static class Contractor {
+        private final IndexedGraph graph;
+        private final int n;
+
+        // Remaining (uncontracted) graph: neighbours of v are nbr[v][0 .. degree[v]-1]
+        private final int[][] nbr;
+        private final Arc[][] arcs;
+        private final int[] degree;
+
+        private final int[] deletedNeighbors;
+        private final int[] depth;
+        private final int[] rank;
+
+        // Witness search state, reused between searches
+        private final double[] witnessDist;
+        private final int[] touched;
+        private int touchedCount;
+        private final IndexedMinHeap witnessHeap;
+        private final boolean[] isTarget;
+
+        Contractor(IndexedGraph graph, double[] weights) {
+            this.graph = graph;
+            this.n = graph.size();
+            this.nbr = new int[n][];
+            this.arcs = new Arc[n][];
+            this.degree = new int[n];
+            for (int v = 0; v < n; v++) {
+                int outDegree = Math.max(4, graph.endOut(v) - graph.firstOut(v));
+                nbr[v] = new int[outDegree];
+                arcs[v] = new Arc[outDegree];
+            }
+            // Collapse parallel roads to the cheapest one and drop self loops
+            for (int u = 0; u < n; u++) {
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    int v = graph.head(a);
+                    if (u != v) {
+                        addOrImprove(u, v, weights[a], -1);
+                    }
+                }
+            }
+            this.deletedNeighbors = new int[n];
+            this.depth = new int[n];
+            this.rank = new int[n];
+            this.witnessDist = new double[n];
+            Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+            this.touched = new int[n];
+            this.witnessHeap = new IndexedMinHeap(n);
+            this.isTarget = new boolean[n];
+        }
+
+        ContractionHierarchy run() {
+            IndexedMinHeap order = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                order.update(v, priority(v));
+            }
+
+            int[][] upHeads = new int[n][];
+            Arc[][] upArcs = new Arc[n][];
+
+            int nextRank = 0;
+            while (!order.isEmpty()) {
+                int v = order.poll();
+
+                // Lazy update: the stored priority may be outdated
+                double current = priority(v);
+                if (!order.isEmpty() && current > order.peekKey()) {
+                    order.update(v, current);
+                    continue;
+                }
+
+                contract(v, true);
+                rank[v] = nextRank++;
+
+                // Everything still adjacent to v is contracted later, i.e. ranked higher
+                upHeads[v] = Arrays.copyOf(nbr[v], degree[v]);
+                upArcs[v] = Arrays.copyOf(arcs[v], degree[v]);
+                for (int u : upHeads[v]) {
+                    remove(u, v);
+                    deletedNeighbors[u]++;
+                    depth[u] = Math.max(depth[u], depth[v] + 1);
+                }
+                nbr[v] = null;
+                arcs[v] = null;
+                degree[v] = 0;
+
+                for (int u : upHeads[v]) {
+                    order.update(u, priority(u));
+                }
+            }
+
+            // Flatten upward arcs into arrays
+            int[] upFirst = new int[n + 1];
+            int total = 0;
+            for (int v = 0; v < n; v++) {
+                upFirst[v] = total;
+                total += upHeads[v].length;
+            }
+            upFirst[n] = total;
+            int[] upHead = new int[total];
+            double[] upWeight = new double[total];
+            int[] upMiddle = new int[total];
+            for (int v = 0; v < n; v++) {
+                int arc = upFirst[v];
+                for (int i = 0; i < upHeads[v].length; i++, arc++) {
+                    upHead[arc] = upHeads[v][i];
+                    upWeight[arc] = upArcs[v][i].weight;
+                    upMiddle[arc] = upArcs[v][i].middle;
+                }
+            }
+            return new ContractionHierarchy(graph, rank, upFirst, upHead, upWeight, upMiddle);
+        }
+
+        private double priority(int v) {
+            int shortcuts = contract(v, false);
+            int edgeDifference = shortcuts - degree[v];
+            // Prefer cheap contractions, spread evenly over the map, keeping the hierarchy shallow
+            return 2.0 * edgeDifference + deletedNeighbors[v] + depth[v];
+        }
+
+        /**
+         * Simulates (apply=false) or performs (apply=true) the contraction of v.
+         * @return number of shortcuts needed
+         */
+        private int contract(int v, boolean apply) {
+            int k = degree[v];
+            int[] nb = Arrays.copyOf(nbr[v], k);
+            double[] w = new double[k];
+            for (int i = 0; i < k; i++) {
+                w[i] = arcs[v][i].weight;
+            }
+
+            int shortcuts = 0;
+            for (int i = 0; i < k - 1; i++) {
+                double maxVia = 0;
+                for (int j = i + 1; j < k; j++) {
+                    maxVia = Math.max(maxVia, w[i] + w[j]);
+                    isTarget[nb[j]] = true;
+                }
+                witnessSearch(nb[i], v, maxVia, k - 1 - i, apply ? CONTRACTION_SETTLE_LIMIT : SIMULATION_SETTLE_LIMIT);
+                for (int j = i + 1; j < k; j++) {
+                    double via = w[i] + w[j];
+                    isTarget[nb[j]] = false;
+                    if (witnessDist[nb[j]] > via) {
+                        shortcuts++;
+                        if (apply) {
+                            addOrImprove(nb[i], nb[j], via, v);
+                        }
+                    }
+                }
+                resetWitness();
+            }
+            return shortcuts;
+        }
+
+        // Bounded Dijkstra from source in the remaining graph, avoiding the vertex being contracted
+        private void witnessSearch(int source, int avoid, double maxDist, int targets, int settleLimit) {
+            witnessDist[source] = 0.0;
+            touched[touchedCount++] = source;
+            witnessHeap.update(source, 0.0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < settleLimit) {
+                if (witnessHeap.peekKey() > maxDist) {
+                    break;
+                }
+                int u = witnessHeap.poll();
+                settled++;
+                if (isTarget[u] && --targets == 0) {
+                    break;
+                }
+                double du = witnessDist[u];
+                int[] uNbr = nbr[u];
+                Arc[] uArcs = arcs[u];
+                for (int i = 0; i < degree[u]; i++) {
+                    int x = uNbr[i];
+                    if (x == avoid) {
+                        continue;
+                    }
+                    double candidate = du + uArcs[i].weight;
+                    if (candidate < witnessDist[x]) {
+                        if (witnessDist[x] == Double.POSITIVE_INFINITY) {
+                            touched[touchedCount++] = x;
+                        }
+                        witnessDist[x] = candidate;
+                        witnessHeap.update(x, candidate);
+                    }
+                }
+            }
+        }
+
+        private void resetWitness() {
+            for (int i = 0; i < touchedCount; i++) {
+                witnessDist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            witnessHeap.clear();
+        }
+
+        private void addOrImprove(int u, int v, double weight, int middle) {
+            int i = find(u, v);
+            if (i < 0) {
+                Arc arc = new Arc(weight, middle);
+                append(u, v, arc);
+                append(v, u, arc);
+            } else if (weight < arcs[u][i].weight) {
+                arcs[u][i].weight = weight;
+                arcs[u][i].middle = middle;
+            }
+        }
+
+        private int find(int u, int v) {
+            for (int i = 0; i < degree[u]; i++) {
+                if (nbr[u][i] == v) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void append(int u, int v, Arc arc) {
+            if (degree[u] == nbr[u].length) {
+                nbr[u] = Arrays.copyOf(nbr[u], degree[u] * 2);
+                arcs[u] = Arrays.copyOf(arcs[u], degree[u] * 2);
+            }
+            nbr[u][degree[u]] = v;
+            arcs[u][degree[u]] = arc;
+            degree[u]++;
+        }
+
+        private void remove(int u, int v) {
+            int i = find(u, v);
+            int last = --degree[u];
+            nbr[u][i] = nbr[u][last];
+            arcs[u][i] = arcs[u][last];
+            arcs[u][last] = null;
+        }
+    }
+}
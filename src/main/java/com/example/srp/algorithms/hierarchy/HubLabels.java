@@ -0,0 +1,294 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.DistanceOracle;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.traffic.TrafficStore;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Hub labels derived from a Contraction Hierarchy: every vertex stores the higher ranked
+ * vertices (hubs) it reaches upwards together with the exact distance to them. The distance
+ * between two vertices is the best common hub, found by merging two rank-sorted labels.
+ *
+ * Labels live outside the Java heap, either in a direct buffer or memory-mapped from a file,
+ * and are immutable, so one instance can be shared by any number of threads.
+ */
+public class HubLabels implements DistanceOracle {
+    private static final int MAGIC = 0x5352484C;   // "SRHL"
+    private static final int VERSION = 1;
+
+    private final IndexedGraph graph;
+    private final IntBuffer firstEntry;   // label of v is entries firstEntry[v] .. firstEntry[v+1]-1
+    private final IntBuffer hubs;         // hub ranks, ascending within each label
+    private final DoubleBuffer dists;
+    private final ByteBuffer data;
+
+    private HubLabels(IndexedGraph graph, ByteBuffer data) {
+        this.graph = graph;
+        this.data = data;
+        int n = graph.size();
+        int entries = data.getInt(n * Integer.BYTES);
+        this.firstEntry = slice(data, 0, (n + 1) * Integer.BYTES).asIntBuffer();
+        this.hubs = slice(data, intRegion(n + 1), entries * Integer.BYTES).asIntBuffer();
+        this.dists = slice(data, intRegion(n + 1) + intRegion(entries), entries * Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * Builds labels top-down: a vertex's label is the union of its upward neighbours' labels,
+     * then every entry that some other hub already beats is pruned.
+     */
+    public static HubLabels build(ContractionHierarchy ch) {
+        int n = ch.size();
+        int[] vertexAt = new int[n];
+        for (int v = 0; v < n; v++) {
+            vertexAt[ch.rank(v)] = v;
+        }
+
+        int[][] labelHubs = new int[n][];
+        double[][] labelDists = new double[n][];
+        double[] tentative = new double[n];
+        Arrays.fill(tentative, Double.POSITIVE_INFINITY);
+        int[] touched = new int[n];
+
+        for (int r = n - 1; r >= 0; r--) {
+            int v = vertexAt[r];
+            int count = 0;
+            tentative[r] = 0.0;
+            touched[count++] = r;
+            for (int arc = ch.upFirst(v); arc < ch.upEnd(v); arc++) {
+                int u = ch.upHead(arc);
+                double w = ch.upWeight(arc);
+                int[] uh = labelHubs[u];
+                double[] ud = labelDists[u];
+                for (int i = 0; i < uh.length; i++) {
+                    double d = w + ud[i];
+                    if (tentative[uh[i]] == Double.POSITIVE_INFINITY) {
+                        touched[count++] = uh[i];
+                    }
+                    if (d < tentative[uh[i]]) {
+                        tentative[uh[i]] = d;
+                    }
+                }
+            }
+
+            int[] candidateHubs = Arrays.copyOf(touched, count);
+            Arrays.sort(candidateHubs);
+            double[] candidateDists = new double[count];
+            for (int i = 0; i < count; i++) {
+                candidateDists[i] = tentative[candidateHubs[i]];
+                tentative[candidateHubs[i]] = Double.POSITIVE_INFINITY;
+            }
+
+            // Keep (h, d) only if no other hub shows a shorter way from v to h. Kept entries go to
+            // separate arrays: merge needs every candidate, still sorted.
+            int[] keptHubs = new int[count];
+            double[] keptDists = new double[count];
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int h = candidateHubs[i];
+                double d = candidateDists[i];
+                int hv = vertexAt[h];
+                if (h == r || merge(candidateHubs, candidateDists, count, labelHubs[hv], labelDists[hv]) >= d) {
+                    keptHubs[kept] = h;
+                    keptDists[kept] = d;
+                    kept++;
+                }
+            }
+            labelHubs[v] = Arrays.copyOf(keptHubs, kept);
+            labelDists[v] = Arrays.copyOf(keptDists, kept);
+        }
+
+        int entries = 0;
+        for (int[] label : labelHubs) {
+            entries += label.length;
+        }
+        ByteBuffer data = ByteBuffer.allocateDirect(dataSize(n, entries)).order(ByteOrder.LITTLE_ENDIAN);
+        HubLabels labels = new HubLabels(ch.getGraph(), writeEntryCount(data, n, entries));
+        int e = 0;
+        for (int v = 0; v < n; v++) {
+            labels.firstEntry.put(v, e);
+            for (int i = 0; i < labelHubs[v].length; i++) {
+                labels.hubs.put(e, labelHubs[v][i]);
+                labels.dists.put(e, labelDists[v][i]);
+                e++;
+            }
+        }
+        return labels;
+    }
+
+    // Same merge as distance(), on heap arrays during construction
+    private static double merge(int[] aHubs, double[] aDists, int aCount, int[] bHubs, double[] bDists) {
+        double best = Double.POSITIVE_INFINITY;
+        int i = 0;
+        int j = 0;
+        while (i < aCount && j < bHubs.length) {
+            if (aHubs[i] < bHubs[j]) {
+                i++;
+            } else if (aHubs[i] > bHubs[j]) {
+                j++;
+            } else {
+                best = Math.min(best, aDists[i++] + bDists[j++]);
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public double distance(String sourceId, String targetId) {
+        int source = graph.indexOf(sourceId);
+        int target = graph.indexOf(targetId);
+        if (source < 0 || target < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return distance(source, target);
+    }
+
+    /**
+     * Shortest distance between two vertex indices, or infinity if unreachable
+     */
+    public double distance(int source, int target) {
+        int i = firstEntry.get(source);
+        int iEnd = firstEntry.get(source + 1);
+        int j = firstEntry.get(target);
+        int jEnd = firstEntry.get(target + 1);
+        double best = Double.POSITIVE_INFINITY;
+        while (i < iEnd && j < jEnd) {
+            int a = hubs.get(i);
+            int b = hubs.get(j);
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                best = Math.min(best, dists.get(i++) + dists.get(j++));
+            }
+        }
+        return best;
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+
+    public int labelSize(int v) {
+        return firstEntry.get(v + 1) - firstEntry.get(v);
+    }
+
+    // Rank of the i-th hub in v's label and the distance to it, for tests
+    int hubRank(int v, int i) {
+        return hubs.get(firstEntry.get(v) + i);
+    }
+
+    double hubDistance(int v, int i) {
+        return dists.get(firstEntry.get(v) + i);
+    }
+
+    public double averageLabelSize() {
+        return graph.size() == 0 ? 0.0 : (double) firstEntry.get(graph.size()) / graph.size();
+    }
+
+    /**
+     * Bytes held outside the heap by the labels
+     */
+    public long sizeInBytes() {
+        return data.capacity();
+    }
+
+    /**
+     * Writes the labels for the given hour, tagged with the map and traffic hashes
+     */
+    public void save(Path file, TrafficStore ts, int hour) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        byte[] header = header(graph.contentHash(), graph.trafficHash(ts), hour, graph.size());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(header));
+            ByteBuffer body = data.duplicate();
+            body.clear();
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+
+    /**
+     * Memory-maps labels written by save; the OS pages them in on demand.
+     * @throws IOException if the file was written for another map, traffic version or hour
+     */
+    public static HubLabels map(Path file, IndexedGraph graph, TrafficStore ts, int hour) throws IOException {
+        int headerLength;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            headerLength = in.readInt();
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a hub label file");
+            }
+            if (!in.readUTF().equals(graph.contentHash())) {
+                throw new IOException("Hub labels were built for a different map");
+            }
+            if (!in.readUTF().equals(graph.trafficHash(ts))) {
+                throw new IOException("Hub labels were built for different traffic data");
+            }
+            if (in.readInt() != hour) {
+                throw new IOException("Hub labels were built for another hour");
+            }
+            if (in.readInt() != graph.size()) {
+                throw new IOException("Hub labels have a different vertex count");
+            }
+        }
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, headerLength, channel.size() - headerLength)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            return new HubLabels(graph, data);
+        }
+    }
+
+    // Header padded to 8 bytes so the mapped doubles stay aligned
+    private static byte[] header(String contentHash, String trafficHash, int hour, int n) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(contentHash);
+        out.writeUTF(trafficHash);
+        out.writeInt(hour);
+        out.writeInt(n);
+        while (out.size() % Double.BYTES != 0) {
+            out.writeByte(0);
+        }
+        byte[] header = bytes.toByteArray();
+        ByteBuffer.wrap(header).putInt(0, header.length);
+        return header;
+    }
+
+    // Layout: firstEntry int[n+1] | hubs int[entries] | dists double[entries], each region 8-byte aligned
+    private static int dataSize(int n, int entries) {
+        return intRegion(n + 1) + intRegion(entries) + entries * Double.BYTES;
+    }
+
+    private static int intRegion(int count) {
+        return (count * Integer.BYTES + 7) & ~7;
+    }
+
+    private static ByteBuffer writeEntryCount(ByteBuffer data, int n, int entries) {
+        data.putInt(n * Integer.BYTES, entries);
+        return data;
+    }
+
+    private static ByteBuffer slice(ByteBuffer data, int offset, int length) {
+        return data.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * One-to-all shortest distances on a Contraction Hierarchy (PHAST).
+ *
+ * A query is an upward Dijkstra from the source followed by one linear sweep over all vertices
+ * in descending level order, where every vertex pulls its distance from its upward neighbours.
+ * The sweep touches each arc exactly once in memory order, so its cost is bandwidth, not heap work.
+ *
+ * Holds reusable search arrays, so one instance must not be shared between threads.
+ */
+public class Phast {
+    private final ContractionHierarchy ch;
+
+    // Sweep order: position i holds vertex[i]; its upward arcs are arcFirst[i] .. arcFirst[i+1]-1
+    private final int[] vertex;
+    private final int[] position;   // inverse of vertex, -1 for vertices outside a restriction
+    private final int[] arcFirst;
+    private final int[] arcHead;    // sweep position of the arc's upper endpoint
+    private final double[] arcWeight;
+
+    private final double[] upDist;
+    private final int[] touched;
+    private int touchedCount;
+    private final IndexedMinHeap heap;
+    private final double[] sweepDist;
+
+    public Phast(ContractionHierarchy ch) {
+        this(ch, allVertices(ch.size()));
+    }
+
+    private Phast(ContractionHierarchy ch, boolean[] included) {
+        this.ch = ch;
+        int n = ch.size();
+        int[] level = levels(ch);
+
+        int count = 0;
+        for (boolean in : included) {
+            if (in) {
+                count++;
+            }
+        }
+        Integer[] order = new Integer[count];
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            if (included[v]) {
+                order[k++] = v;
+            }
+        }
+        // Higher levels first, so every upward neighbour is final before it is read
+        Arrays.sort(order, (a, b) -> level[a] != level[b] ? level[b] - level[a] : ch.rank(b) - ch.rank(a));
+
+        this.vertex = new int[count];
+        this.position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < count; i++) {
+            vertex[i] = order[i];
+            position[order[i]] = i;
+        }
+
+        this.arcFirst = new int[count + 1];
+        int arcs = 0;
+        for (int i = 0; i < count; i++) {
+            arcFirst[i] = arcs;
+            arcs += ch.upEnd(vertex[i]) - ch.upFirst(vertex[i]);
+        }
+        arcFirst[count] = arcs;
+        this.arcHead = new int[arcs];
+        this.arcWeight = new double[arcs];
+        for (int i = 0; i < count; i++) {
+            int a = arcFirst[i];
+            for (int arc = ch.upFirst(vertex[i]); arc < ch.upEnd(vertex[i]); arc++) {
+                arcHead[a] = position[ch.upHead(arc)];
+                arcWeight[a] = ch.upWeight(arc);
+                a++;
+            }
+        }
+
+        this.upDist = new double[n];
+        Arrays.fill(upDist, Double.POSITIVE_INFINITY);
+        this.touched = new int[n];
+        this.heap = new IndexedMinHeap(n);
+        this.sweepDist = new double[count];
+    }
+
+    /**
+     * Restricted PHAST: the sweep only covers the targets and everything above them in the
+     * hierarchy, so its cost shrinks with the target set instead of the map.
+     */
+    public static Phast restrictedTo(ContractionHierarchy ch, Collection<Integer> targets) {
+        boolean[] included = new boolean[ch.size()];
+        int[] stack = new int[ch.size()];
+        int top = 0;
+        for (int t : targets) {
+            if (!included[t]) {
+                included[t] = true;
+                stack[top++] = t;
+            }
+        }
+        while (top > 0) {
+            int v = stack[--top];
+            for (int arc = ch.upFirst(v); arc < ch.upEnd(v); arc++) {
+                int u = ch.upHead(arc);
+                if (!included[u]) {
+                    included[u] = true;
+                    stack[top++] = u;
+                }
+            }
+        }
+        return new Phast(ch, included);
+    }
+
+    public ContractionHierarchy getHierarchy() {
+        return ch;
+    }
+
+    /**
+     * Number of vertices the sweep covers
+     */
+    public int sweepSize() {
+        return vertex.length;
+    }
+
+    /**
+     * Distances from source to every vertex, indexed by vertex; vertices outside a restriction
+     * are left at infinity.
+     */
+    public double[] distancesFrom(int source) {
+        double[] out = new double[ch.size()];
+        Arrays.fill(out, Double.POSITIVE_INFINITY);
+        sweep(source);
+        for (int i = 0; i < vertex.length; i++) {
+            out[vertex[i]] = sweepDist[i];
+        }
+        return out;
+    }
+
+    /**
+     * Distances from source to each of the given targets, which must lie inside the restriction
+     */
+    public double[] distancesFrom(int source, int[] targets) {
+        sweep(source);
+        double[] out = new double[targets.length];
+        for (int j = 0; j < targets.length; j++) {
+            out[j] = sweepDist[position[targets[j]]];
+        }
+        return out;
+    }
+
+    private void sweep(int source) {
+        upwardSearch(source);
+
+        Arrays.fill(sweepDist, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            if (position[v] >= 0) {
+                sweepDist[position[v]] = upDist[v];
+            }
+            upDist[v] = Double.POSITIVE_INFINITY;
+        }
+        touchedCount = 0;
+
+        for (int i = 0; i < vertex.length; i++) {
+            double d = sweepDist[i];
+            for (int a = arcFirst[i]; a < arcFirst[i + 1]; a++) {
+                double candidate = sweepDist[arcHead[a]] + arcWeight[a];
+                if (candidate < d) {
+                    d = candidate;
+                }
+            }
+            sweepDist[i] = d;
+        }
+    }
+
+    // Plain Dijkstra on the upward graph, run to exhaustion
+    private void upwardSearch(int source) {
+        upDist[source] = 0.0;
+        touched[touchedCount++] = source;
+        heap.update(source, 0.0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            for (int arc = ch.upFirst(u); arc < ch.upEnd(u); arc++) {
+                int v = ch.upHead(arc);
+                double candidate = upDist[u] + ch.upWeight(arc);
+                if (candidate < upDist[v]) {
+                    if (upDist[v] == Double.POSITIVE_INFINITY) {
+                        touched[touchedCount++] = v;
+                    }
+                    upDist[v] = candidate;
+                    heap.update(v, candidate);
+                }
+            }
+        }
+    }
+
+    // level(v) = 1 + highest level among the lower-ranked vertices pointing up to v
+    private static int[] levels(ContractionHierarchy ch) {
+        int n = ch.size();
+        int[] byRank = new int[n];
+        for (int v = 0; v < n; v++) {
+            byRank[ch.rank(v)] = v;
+        }
+        int[] level = new int[n];
+        for (int r = 0; r < n; r++) {
+            int v = byRank[r];
+            for (int arc = ch.upFirst(v); arc < ch.upEnd(v); arc++) {
+                int u = ch.upHead(arc);
+                level[u] = Math.max(level[u], level[v] + 1);
+            }
+        }
+        return level;
+    }
+
+    private static boolean[] allVertices(int n) {
+        boolean[] all = new boolean[n];
+        Arrays.fill(all, true);
+        return all;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.srp.algorithms.landmarks;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+import com.example.srp.algorithms.pathfinding.PathFinder;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.*;
+
+/**
+ * A* search with landmark lower bounds (ALT).
+ *
+ * Unlike a straight-line heuristic, the bounds come from precomputed road distances, so they
+ * stay valid whatever units the vertex coordinates are in. Tables are built on first use and,
+ * when a table directory is given, saved there and reloaded on the next start.
+ *
+ * Only table building is locked; each thread searches with its own arrays, so concurrent queries
+ * run in parallel.
+ */
+public class ALTPathFinder implements PathFinder {
+    public static final int DEFAULT_LANDMARKS = 16;
+
+    private final IndexedGraph graph;
+    private final TrafficStore ts;
+    private final int landmarkCount;
+    private final boolean perHourTables;
+    private final java.nio.file.Path tableDirectory;
+
+    private final Map<Integer, LandmarkTable> tables = new HashMap<>();
+    private final Map<Integer, double[]> weights = new HashMap<>();
+
+    // Search state is per thread, reset after every query
+    private final ThreadLocal<Search> searches;
+
+    public ALTPathFinder(Graph graph, TrafficStore ts) {
+        this(IndexedGraph.of(graph), ts, DEFAULT_LANDMARKS, false, null);
+    }
+
+    /**
+     * @param perHourTables true for one table per hour (tighter bounds), false for a single
+     *                      table on minimum multipliers shared by all hours
+     * @param tableDirectory where tables are persisted, or null to keep them in memory only
+     */
+    public ALTPathFinder(IndexedGraph graph, TrafficStore ts, int landmarkCount, boolean perHourTables,
+                         java.nio.file.Path tableDirectory) {
+        this.graph = graph;
+        this.ts = ts;
+        this.landmarkCount = landmarkCount;
+        this.perHourTables = perHourTables;
+        this.tableDirectory = tableDirectory;
+        this.searches = ThreadLocal.withInitial(() -> new Search(graph.size()));
+    }
+
+    /**
+     * Returns the table used for the hour, building or loading it on first use
+     */
+    public synchronized LandmarkTable getTable(int hour) {
+        int key = perHourTables ? hour : LandmarkTable.ALL_HOURS;
+        return tables.computeIfAbsent(key, h -> {
+            if (tableDirectory == null) {
+                return LandmarkTable.build(graph, ts, h, LandmarkSelector.Strategy.AVOID, landmarkCount);
+            }
+            String name = "landmarks-" + (h == LandmarkTable.ALL_HOURS ? "all" : "h" + h) + ".bin";
+            return LandmarkTable.loadOrBuild(tableDirectory.resolve(name), graph, ts, h,
+                    LandmarkSelector.Strategy.AVOID, landmarkCount);
+        });
+    }
+
+    @Override
+    public Path findShortestPath(String sourceId, String targetId, int hour) {
+        int source = graph.indexOf(sourceId);
+        int target = graph.indexOf(targetId);
+        if (source < 0 || target < 0) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+        LandmarkTable table = getTable(hour);
+        double[] w = weightsFor(hour);
+        if (table.lowerBound(source, target) == Double.POSITIVE_INFINITY) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+        return searches.get().run(source, target, w, table);
+    }
+
+    private synchronized double[] weightsFor(int hour) {
+        return weights.computeIfAbsent(hour, h -> graph.weights(ts, h));
+    }
+
+    private class Search {
+        final double[] dist;
+        final int[] parent;
+        final int[] touched;
+        int touchedCount;
+        final IndexedMinHeap heap;
+
+        Search(int n) {
+            dist = new double[n];
+            parent = new int[n];
+            touched = new int[n];
+            heap = new IndexedMinHeap(n);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        Path run(int source, int target, double[] w, LandmarkTable table) {
+            relax(source, -1, 0.0, table, target);
+            boolean found = false;
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                if (u == target) {
+                    found = true;
+                    break;
+                }
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    relax(graph.head(a), u, dist[u] + w[a], table, target);
+                }
+            }
+
+            Path path;
+            if (found) {
+                List<Integer> vertices = new ArrayList<>();
+                for (int v = target; v >= 0; v = parent[v]) {
+                    vertices.add(v);
+                }
+                Collections.reverse(vertices);
+                path = graph.toPath(vertices, dist[target]);
+            } else {
+                path = new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+            }
+            reset();
+            return path;
+        }
+
+        // The landmark potential is consistent, so a vertex is never improved after it is polled
+        void relax(int v, int from, double d, LandmarkTable table, int target) {
+            if (d < dist[v]) {
+                if (dist[v] == Double.POSITIVE_INFINITY) {
+                    touched[touchedCount++] = v;
+                }
+                dist[v] = d;
+                parent[v] = from;
+                heap.update(v, d + table.lowerBound(v, target));
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.srp.algorithms.landmarks;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Landmark selection strategies for ALT.
+ */
+public class LandmarkSelector {
+
+    public enum Strategy {
+        /** Repeatedly take the vertex farthest from all landmarks chosen so far */
+        FARTHEST,
+        /** Goldberg-Werneck "avoid": place landmarks where current bounds are weakest */
+        AVOID
+    }
+
+    private final IndexedGraph graph;
+    private final double[] weights;
+    private final Random random;
+
+    public LandmarkSelector(IndexedGraph graph, double[] weights, long seed) {
+        this.graph = graph;
+        this.weights = weights;
+        this.random = new Random(seed);
+    }
+
+    public int[] select(Strategy strategy, int count) {
+        count = Math.min(count, graph.size());
+        return strategy == Strategy.FARTHEST ? farthest(count) : avoid(count);
+    }
+
+    private int[] farthest(int count) {
+        int[] landmarks = new int[count];
+        if (count == 0) {
+            return landmarks;
+        }
+        // Start from the vertex farthest from a random one, not the random one itself
+        double[] dist = shortestDistances(graph, weights, new int[]{random.nextInt(graph.size())}, null);
+        landmarks[0] = argMax(dist);
+        for (int i = 1; i < count; i++) {
+            dist = shortestDistances(graph, weights, Arrays.copyOf(landmarks, i), null);
+            landmarks[i] = argMax(dist);
+        }
+        return landmarks;
+    }
+
+    private int[] avoid(int count) {
+        int n = graph.size();
+        List<double[]> tables = new ArrayList<>();
+        int[] landmarks = new int[count];
+        int[] parent = new int[n];
+
+        for (int i = 0; i < count; i++) {
+            int root = random.nextInt(n);
+            double[] dist = shortestDistances(graph, weights, new int[]{root}, parent);
+
+            // weight(v): how much the current landmarks underestimate d(root, v)
+            double[] size = new double[n];
+            for (int v = 0; v < n; v++) {
+                if (dist[v] != Double.POSITIVE_INFINITY) {
+                    size[v] = dist[v] - LandmarkTable.lowerBound(tables, root, v);
+                }
+            }
+
+            // Subtree sums, children before parents; subtrees containing a landmark count as zero
+            Integer[] order = reachableByDistanceDesc(dist);
+            boolean[] hasLandmark = new boolean[n];
+            for (int j = 0; j < i; j++) {
+                hasLandmark[landmarks[j]] = true;
+            }
+            int[] bestChild = new int[n];
+            Arrays.fill(bestChild, -1);
+            for (int v : order) {
+                if (hasLandmark[v]) {
+                    size[v] = 0;
+                }
+                int p = parent[v];
+                if (p >= 0) {
+                    if (size[v] == 0) {
+                        hasLandmark[p] |= hasLandmark[v];
+                    }
+                    size[p] += size[v];
+                    if (bestChild[p] < 0 || size[v] > size[bestChild[p]]) {
+                        bestChild[p] = v;
+                    }
+                }
+            }
+
+            // Follow the heaviest subtree down to a leaf
+            int leaf = root;
+            while (bestChild[leaf] >= 0 && size[bestChild[leaf]] > 0) {
+                leaf = bestChild[leaf];
+            }
+            landmarks[i] = leaf;
+            tables.add(shortestDistances(graph, weights, new int[]{leaf}, null));
+        }
+        return landmarks;
+    }
+
+    private Integer[] reachableByDistanceDesc(double[] dist) {
+        List<Integer> reachable = new ArrayList<>();
+        for (int v = 0; v < dist.length; v++) {
+            if (dist[v] != Double.POSITIVE_INFINITY) {
+                reachable.add(v);
+            }
+        }
+        reachable.sort((a, b) -> Double.compare(dist[b], dist[a]));
+        return reachable.toArray(new Integer[0]);
+    }
+
+    // Unreachable vertices count as farthest, so every component receives a landmark
+    private static int argMax(double[] dist) {
+        int best = 0;
+        for (int v = 1; v < dist.length; v++) {
+            if (dist[v] > dist[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Multi-source Dijkstra over the whole graph.
+     * @param parent if not null, receives the shortest path tree (-1 for roots and unreachable vertices)
+     */
+    static double[] shortestDistances(IndexedGraph graph, double[] weights, int[] sources, int[] parent) {
+        int n = graph.size();
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        if (parent != null) {
+            Arrays.fill(parent, -1);
+        }
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        for (int s : sources) {
+            dist[s] = 0.0;
+            heap.update(s, 0.0);
+        }
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                int v = graph.head(a);
+                double candidate = dist[u] + weights[a];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    if (parent != null) {
+                        parent[v] = u;
+                    }
+                    heap.update(v, candidate);
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.srp.algorithms.landmarks;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.traffic.TrafficStore;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Distances from each landmark to every vertex, used as ALT lower bounds.
+ *
+ * A table is built either for one traffic hour or for ALL_HOURS, in which case every road is
+ * weighted with its smallest multiplier of the day so the bounds stay admissible at any hour.
+ * Roads are two-way (Graph.addEdge adds both directions), so d(l, v) = d(v, l).
+ */
+public class LandmarkTable {
+    public static final int ALL_HOURS = -1;
+
+    private static final int MAGIC = 0x53524C54;   // "SRLT"
+    private static final int VERSION = 1;
+
+    private final int hour;
+    private final int[] landmarks;
+    private final double[][] distances;   // distances[i][v] = d(landmarks[i], v)
+
+    private LandmarkTable(int hour, int[] landmarks, double[][] distances) {
+        this.hour = hour;
+        this.landmarks = landmarks;
+        this.distances = distances;
+    }
+
+    public static LandmarkTable build(IndexedGraph graph, TrafficStore ts, int hour,
+                                      LandmarkSelector.Strategy strategy, int count) {
+        double[] weights = weightsFor(graph, ts, hour);
+        int[] landmarks = new LandmarkSelector(graph, weights, 42).select(strategy, count);
+        double[][] distances = new double[landmarks.length][];
+        for (int i = 0; i < landmarks.length; i++) {
+            distances[i] = LandmarkSelector.shortestDistances(graph, weights, new int[]{landmarks[i]}, null);
+        }
+        return new LandmarkTable(hour, landmarks, distances);
+    }
+
+    /**
+     * Loads the table from file if it exists and matches the map and traffic; otherwise builds it
+     * and writes it to the file for the next start.
+     */
+    public static LandmarkTable loadOrBuild(Path file, IndexedGraph graph, TrafficStore ts, int hour,
+                                            LandmarkSelector.Strategy strategy, int count) {
+        if (Files.exists(file)) {
+            try {
+                LandmarkTable table = load(file, graph, ts);
+                if (table.hour == hour && table.landmarks.length == Math.min(count, graph.size())) {
+                    return table;
+                }
+            } catch (IOException e) {
+                System.err.println("Rebuilding landmark table " + file + ": " + e.getMessage());
+            }
+        }
+        LandmarkTable table = build(graph, ts, hour, strategy, count);
+        try {
+            table.save(file, graph, ts);
+        } catch (IOException e) {
+            System.err.println("Could not save landmark table " + file + ": " + e.getMessage());
+        }
+        return table;
+    }
+
+    /**
+     * Arc weights the table is built on: the hour's weights, or the minimum over the day for ALL_HOURS
+     */
+    static double[] weightsFor(IndexedGraph graph, TrafficStore ts, int hour) {
+        if (hour != ALL_HOURS) {
+            return graph.weights(ts, hour);
+        }
+        double[] weights = graph.weights(ts, 0);
+        for (int h = 1; h < 24; h++) {
+            double[] hourly = graph.weights(ts, h);
+            for (int a = 0; a < weights.length; a++) {
+                weights[a] = Math.min(weights[a], hourly[a]);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Lower bound on d(v, t) from the triangle inequality over all landmarks
+     */
+    public double lowerBound(int v, int t) {
+        double bound = 0.0;
+        for (double[] d : distances) {
+            bound = Math.max(bound, bound(d[v], d[t]));
+        }
+        return bound;
+    }
+
+    static double lowerBound(List<double[]> tables, int v, int t) {
+        double bound = 0.0;
+        for (double[] d : tables) {
+            bound = Math.max(bound, bound(d[v], d[t]));
+        }
+        return bound;
+    }
+
+    // |d(l,t) - d(l,v)|; if only one of them is reachable from l, v and t are disconnected
+    private static double bound(double dv, double dt) {
+        if (dv == Double.POSITIVE_INFINITY || dt == Double.POSITIVE_INFINITY) {
+            return (dv == dt) ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return Math.abs(dt - dv);
+    }
+
+    public boolean coversHour(int hour) {
+        return this.hour == ALL_HOURS || this.hour == hour;
+    }
+
+    public int getHour() {
+        return hour;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Writes the table together with the map and traffic hashes it was built from
+     */
+    public void save(Path file, IndexedGraph graph, TrafficStore ts) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(graph.contentHash());
+            out.writeUTF(graph.trafficHash(ts));
+            out.writeInt(hour);
+            out.writeInt(graph.size());
+            out.writeInt(landmarks.length);
+            for (int i = 0; i < landmarks.length; i++) {
+                out.writeInt(landmarks[i]);
+                for (double d : distances[i]) {
+                    out.writeDouble(d);
+                }
+            }
+        }
+    }
+
+    /**
+     * @throws IOException if the file is unreadable or was built for a different map or traffic version
+     */
+    public static LandmarkTable load(Path file, IndexedGraph graph, TrafficStore ts) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a landmark table");
+            }
+            if (!in.readUTF().equals(graph.contentHash())) {
+                throw new IOException("Landmark table was built for a different map");
+            }
+            if (!in.readUTF().equals(graph.trafficHash(ts))) {
+                throw new IOException("Landmark table was built for different traffic data");
+            }
+            int hour = in.readInt();
+            int n = in.readInt();
+            if (n != graph.size()) {
+                throw new IOException("Landmark table has " + n + " vertices, map has " + graph.size());
+            }
+            int count = in.readInt();
+            int[] landmarks = new int[count];
+            double[][] distances = new double[count][n];
+            for (int i = 0; i < count; i++) {
+                landmarks[i] = in.readInt();
+                for (int v = 0; v < n; v++) {
+                    distances[i][v] = in.readDouble();
+                }
+            }
+            return new LandmarkTable(hour, landmarks, distances);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.srp.algorithms.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Full row-major matrix for direction-dependent distances (one-way roads, asymmetric traffic).
+ * Rows are laid out with a capacity stride, so growing only re-lays the matrix when the
+ * capacity is exceeded.
+ */
+public final class AsymmetricDistanceMatrix implements DistanceMatrix {
+    private double[] entries;
+    private int stride;
+    private int size;
+
+    public AsymmetricDistanceMatrix(int size) {
+        this.entries = new double[0];
+        ensureSize(size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        return entries[from * stride + to];
+    }
+
+    @Override
+    public void set(int from, int to, double distance) {
+        entries[from * stride + to] = distance;
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return false;
+    }
+
+    @Override
+    public void ensureSize(int size) {
+        if (size <= this.size) {
+            return;
+        }
+        if (size > stride) {
+            int newStride = Math.max(size, stride + (stride >> 1));
+            if ((long) newStride * newStride > Integer.MAX_VALUE - 8) {
+                newStride = size;
+                if ((long) newStride * newStride > Integer.MAX_VALUE - 8) {
+                    throw new IllegalArgumentException("Matrix of " + size + " stops does not fit in one array");
+                }
+            }
+            double[] grown = new double[newStride * newStride];
+            Arrays.fill(grown, Double.NaN);
+            for (int i = 0; i < this.size; i++) {
+                System.arraycopy(entries, i * stride, grown, i * newStride, this.size);
+            }
+            entries = grown;
+            stride = newStride;
+        }
+        this.size = size;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return (long) entries.length * Double.BYTES;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.srp.algorithms.matrix;
+
+/**
+ * Read side of a DistanceMatrix: what tour moves and neighbour lists need.
+ * Stops are addressed by index 0..size()-1.
+ */
+public interface DistanceLookup {
+    int size();
+
+    double get(int from, int to);
+}
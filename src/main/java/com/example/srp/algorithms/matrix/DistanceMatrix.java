@@ -0,0 +1,24 @@
+package com.example.srp.algorithms.matrix;
+
+/**
+ * Distances between stops addressed by index 0..size()-1.
+ * Entries that were never set read as NaN; unreachable pairs are stored as infinity.
+ */
+public interface DistanceMatrix extends DistanceLookup {
+    void set(int from, int to, double distance);
+
+    /**
+     * True if set(i, j) also defines get(j, i)
+     */
+    boolean isSymmetric();
+
+    /**
+     * Grows the matrix to at least the given number of stops; new entries read as NaN
+     */
+    void ensureSize(int size);
+
+    /**
+     * Bytes held by the entries
+     */
+    long sizeInBytes();
+}
@@ -0,0 +1,82 @@
+package com.example.srp.algorithms.matrix;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Floyd-Warshall min-plus closure over a dense row-major n x n matrix.
+ *
+ * Pivot k updates every row i as row_i = min(row_i, d[i][k] + row_k), a branch-free loop over
+ * contiguous doubles. When the JVM runs with --add-modules jdk.incubator.vector that loop uses
+ * SIMD lanes (VectorMinPlus); otherwise the scalar loop below is used.
+ */
+public class FloydWarshall {
+    private static final boolean VECTOR_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private FloydWarshall() {
+    }
+
+    public static boolean isVectorized() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Direct road weights between all vertices: 0 on the diagonal, the cheapest road where one
+     * exists, infinity elsewhere
+     */
+    public static double[] seed(IndexedGraph graph, double[] weights) {
+        int n = graph.size();
+        double[] d = new double[n * n];
+        Arrays.fill(d, Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) {
+            d[v * n + v] = 0.0;
+            for (int a = graph.firstOut(v); a < graph.endOut(v); a++) {
+                int w = graph.head(a);
+                d[v * n + w] = Math.min(d[v * n + w], weights[a]);
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Closes d in place into all-pairs shortest distances, vectorized when possible
+     */
+    public static void close(double[] d, int n) {
+        close(d, n, VECTOR_AVAILABLE);
+    }
+
+    /**
+     * @param vectorized false forces the scalar kernel, e.g. for benchmarking
+     */
+    public static void close(double[] d, int n, boolean vectorized) {
+        if (d.length != n * n) {
+            throw new IllegalArgumentException("Matrix has " + d.length + " entries, expected " + n * n);
+        }
+        boolean simd = vectorized && VECTOR_AVAILABLE;
+        for (int k = 0; k < n; k++) {
+            int rowK = k * n;
+            for (int i = 0; i < n; i++) {
+                double dik = d[i * n + k];
+                if (dik == Double.POSITIVE_INFINITY || i == k) {
+                    continue;
+                }
+                if (simd) {
+                    VectorMinPlus.relaxRow(d, i * n, rowK, n, dik);
+                } else {
+                    relaxRow(d, i * n, rowK, n, dik);
+                }
+            }
+        }
+    }
+
+    static void relaxRow(double[] d, int rowI, int rowK, int n, double dik) {
+        for (int j = 0; j < n; j++) {
+            double candidate = dik + d[rowK + j];
+            if (candidate < d[rowI + j]) {
+                d[rowI + j] = candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.srp.algorithms.matrix;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.OneToManyDijkstra;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.algorithms.pathfinding.ShortestPathTree;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Matrix builder on the min-plus closure, in two modes that fill the same PathCache as
+ * DistanceMatrixBuilder.
+ *
+ * buildForStops works on any map: one search per stop that ends at the first stops it meets gives
+ * the direct legs between neighbouring stops, and the closure over the k x k stop matrix combines
+ * them into all stop pairs. Searches stay local and the closure is k^3 on a few hundred stops.
+ *
+ * build closes the whole road graph instead, after which every stop pair is a lookup. That is n^2
+ * doubles and n^3 work for the whole map, so it is limited to MAX_VERTICES: on sparse road grids the
+ * SIMD closure beats one Dijkstra per vertex up to roughly 700-900 vertices and the scalar one up to
+ * roughly 450 (see the test-side MinPlusBenchmark).
+ */
+public class FloydWarshallMatrixBuilder {
+    public static final int MAX_VERTICES = 900;
+    private static final double EPSILON = 1e-9;
+
+    private final IndexedGraph graph;
+    private final TrafficStore ts;
+    private final int hour;
+    private double[] weights;
+    private double[] dist;
+
+    public FloydWarshallMatrixBuilder(Graph graph, TrafficStore ts, int hour) {
+        this(IndexedGraph.of(graph), ts, hour);
+    }
+
+    public FloydWarshallMatrixBuilder(IndexedGraph graph, TrafficStore ts, int hour) {
+        this.graph = graph;
+        this.ts = ts;
+        this.hour = hour;
+    }
+
+    /**
+     * Closes the k x k matrix of direct legs between the given stops
+     */
+    public PathCache buildForStops(List<Vertex> nodes) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(idsOf(nodes)));
+        int k = ids.size();
+        OneToManyDijkstra search = new OneToManyDijkstra(graph, ts);
+        ShortestPathTree[] legs = new ShortestPathTree[k];
+        double[] direct = new double[k * k];
+        for (int i = 0; i < k; i++) {
+            legs[i] = search.searchDirect(ids.get(i), hour, ids);
+            for (int j = 0; j < k; j++) {
+                direct[i * k + j] = (i == j) ? 0.0 : legs[i].distanceTo(ids.get(j));
+            }
+        }
+        double[] closed = direct.clone();
+        FloydWarshall.close(closed, k);
+
+        PathCache cache = new PathCache();
+        for (String id : ids) {
+            cache.put(id, id, new Path(Collections.singletonList(id), 0.0));
+        }
+        for (int i = 0; i < k; i++) {
+            for (int j = i + 1; j < k; j++) {
+                cache.put(ids.get(i), ids.get(j), stopPath(ids, legs, direct, closed, i, j));
+            }
+        }
+        return cache;
+    }
+
+    // Walks from stop s towards stop t along direct legs that keep the remaining distance exact
+    private static Path stopPath(List<String> ids, ShortestPathTree[] legs, double[] direct, double[] closed,
+                                 int s, int t) {
+        int k = ids.size();
+        double total = closed[s * k + t];
+        if (total == Double.POSITIVE_INFINITY) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+        List<String> vertices = new ArrayList<>();
+        vertices.add(ids.get(s));
+        int u = s;
+        for (int steps = 0; u != t; steps++) {
+            int next = -1;
+            for (int m = 0; m < k && next < 0; m++) {
+                if (m != u && Math.abs(direct[u * k + m] + closed[m * k + t] - closed[u * k + t])
+                        <= EPSILON * Math.max(1.0, total)) {
+                    next = m;
+                }
+            }
+            if (next < 0 || steps > k) {
+                throw new IllegalStateException("No path found from " + ids.get(s) + " to " + ids.get(t));
+            }
+            List<String> leg = legs[u].pathTo(ids.get(next)).getVertices();
+            vertices.addAll(leg.subList(1, leg.size()));
+            u = next;
+        }
+        return new Path(vertices, total);
+    }
+
+    /**
+     * Closes the whole road graph once, then reads the stop pairs from it
+     * @throws IllegalArgumentException if the map has more than MAX_VERTICES vertices
+     */
+    public PathCache build(List<Vertex> nodes) {
+        int n = graph.size();
+        if (n > MAX_VERTICES) {
+            throw new IllegalArgumentException("Floyd-Warshall over the whole map needs at most " + MAX_VERTICES
+                    + " vertices, got " + n + "; use buildForStops");
+        }
+        if (dist == null) {
+            weights = graph.weights(ts, hour);
+            dist = FloydWarshall.seed(graph, weights);
+            FloydWarshall.close(dist, n);
+        }
+
+        PathCache cache = new PathCache();
+        for (Vertex v : nodes) {
+            cache.put(v.getId(), v.getId(), new Path(Collections.singletonList(v.getId()), 0.0));
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int j = i + 1; j < nodes.size(); j++) {
+                cache.put(nodes.get(i).getId(), nodes.get(j).getId(),
+                        path(indexOf(nodes.get(i).getId()), indexOf(nodes.get(j).getId())));
+            }
+        }
+        return cache;
+    }
+
+    private static List<String> idsOf(List<Vertex> nodes) {
+        List<String> ids = new ArrayList<>(nodes.size());
+        for (Vertex v : nodes) {
+            ids.add(v.getId());
+        }
+        return ids;
+    }
+
+    private int indexOf(String id) {
+        int i = graph.indexOf(id);
+        if (i < 0) {
+            throw new IllegalArgumentException("Vertex " + id + " is not in the graph");
+        }
+        return i;
+    }
+
+    // Walks from s towards t along any road that keeps the remaining distance exact
+    private Path path(int s, int t) {
+        int n = graph.size();
+        double total = dist[s * n + t];
+        if (total == Double.POSITIVE_INFINITY) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+        List<Integer> vertices = new ArrayList<>();
+        vertices.add(s);
+        int u = s;
+        while (u != t) {
+            int next = -1;
+            for (int a = graph.firstOut(u); a < graph.endOut(u) && next < 0; a++) {
+                int v = graph.head(a);
+                if (Math.abs(weights[a] + dist[v * n + t] - dist[u * n + t]) <= EPSILON * Math.max(1.0, total)) {
+                    next = v;
+                }
+            }
+            if (next < 0 || vertices.size() > n) {
+                throw new IllegalStateException("No path found from " + graph.idOf(s) + " to " + graph.idOf(t));
+            }
+            vertices.add(next);
+            u = next;
+        }
+        return graph.toPath(vertices, total);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.srp.algorithms.matrix;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Distance matrix stored outside the Java heap in a MemorySegment, so a matrix of tens of
+ * thousands of stops costs the garbage collector nothing: the heap only holds this object.
+ *
+ * The memory belongs to the matrix's own shared Arena and is released by close(), after which
+ * every access throws IllegalStateException. The capacity (maximum number of stops) is fixed up
+ * front. Symmetric matrices use the same packed lower triangle as SymmetricDistanceMatrix,
+ * asymmetric ones are row-major with the capacity as stride. Offsets are long, so the size is
+ * limited by memory rather than by the 2^31 entries of an array.
+ *
+ * With file backing the segment is a read-write mapping of the file, so the OS can page the
+ * matrix in and out instead of holding it all in RAM; close() flushes it.
+ * Reads and writes of different entries may happen from several threads; close() must not.
+ */
+public class OffHeapDistanceMatrix implements DistanceMatrix, AutoCloseable {
+    private final Arena arena;
+    private final MemorySegment entries;
+    private final boolean symmetric;
+    private final boolean mapped;
+    private final int capacity;
+    private volatile int size;
+
+    private OffHeapDistanceMatrix(Arena arena, MemorySegment entries, boolean symmetric, boolean mapped, int capacity) {
+        this.arena = arena;
+        this.entries = entries;
+        this.symmetric = symmetric;
+        this.mapped = mapped;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Allocates an off-heap matrix for up to capacity stops; all entries read as NaN
+     */
+    public static OffHeapDistanceMatrix allocate(int capacity, boolean symmetric) {
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment entries = arena.allocate(entryCount(capacity, symmetric) * Double.BYTES, Double.BYTES);
+            OffHeapDistanceMatrix matrix = new OffHeapDistanceMatrix(arena, entries, symmetric, false, capacity);
+            matrix.fillUnset();
+            return matrix;
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Backs the matrix with the given file, which is created or overwritten
+     */
+    public static OffHeapDistanceMatrix mapFile(Path file, int capacity, boolean symmetric) throws IOException {
+        long bytes = entryCount(capacity, symmetric) * Double.BYTES;
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // The mapping stays valid after the channel is closed, until the arena is
+            MemorySegment entries = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes, arena);
+            OffHeapDistanceMatrix matrix = new OffHeapDistanceMatrix(arena, entries, symmetric, true, capacity);
+            matrix.fillUnset();
+            return matrix;
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        return entries.getAtIndex(ValueLayout.JAVA_DOUBLE, offset(from, to));
+    }
+
+    @Override
+    public void set(int from, int to, double distance) {
+        entries.setAtIndex(ValueLayout.JAVA_DOUBLE, offset(from, to), distance);
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    /**
+     * @throws IllegalArgumentException if size exceeds the capacity chosen at allocation
+     */
+    @Override
+    public void ensureSize(int size) {
+        if (size > capacity) {
+            throw new IllegalArgumentException("Off-heap matrix holds at most " + capacity + " stops, not " + size);
+        }
+        if (size > this.size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * Bytes reserved off-heap (or in the mapped file) for the full capacity
+     */
+    @Override
+    public long sizeInBytes() {
+        return entries.byteSize();
+    }
+
+    public boolean isFileBacked() {
+        return mapped;
+    }
+
+    public boolean isOpen() {
+        return arena.scope().isAlive();
+    }
+
+    /**
+     * Flushes a file-backed matrix and releases the memory. Calling it twice is harmless.
+     */
+    @Override
+    public void close() {
+        if (!isOpen()) {
+            return;
+        }
+        if (mapped) {
+            entries.force();
+        }
+        arena.close();
+    }
+
+    private void fillUnset() {
+        long bytes = entries.byteSize();
+        if (bytes == 0) {
+            return;
+        }
+        // NaN is not a repeated byte, so seed one entry and keep doubling the filled prefix
+        entries.setAtIndex(ValueLayout.JAVA_DOUBLE, 0, Double.NaN);
+        for (long filled = Double.BYTES; filled < bytes; filled *= 2) {
+            MemorySegment.copy(entries, 0, entries, filled, Math.min(filled, bytes - filled));
+        }
+    }
+
+    private long offset(int i, int j) {
+        if (!symmetric) {
+            return (long) i * capacity + j;
+        }
+        return (i >= j) ? (long) i * (i + 1) / 2 + j : (long) j * (j + 1) / 2 + i;
+    }
+
+    private static long entryCount(int capacity, boolean symmetric) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity " + capacity);
+        }
+        return symmetric ? (long) capacity * (capacity + 1) / 2 : (long) capacity * capacity;
+    }
+}
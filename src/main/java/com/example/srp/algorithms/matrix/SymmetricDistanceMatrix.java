@@ -0,0 +1,66 @@
+package com.example.srp.algorithms.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Symmetric matrix packed as a lower triangle, diagonal included: entry (i, j) with i >= j lives
+ * at i * (i + 1) / 2 + j. Adding a stop only appends a row, so the matrix grows without moving
+ * existing entries around.
+ */
+public final class SymmetricDistanceMatrix implements DistanceMatrix {
+    private double[] entries;
+    private int size;
+
+    public SymmetricDistanceMatrix(int size) {
+        this.entries = new double[0];
+        ensureSize(size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        return entries[offset(from, to)];
+    }
+
+    @Override
+    public void set(int from, int to, double distance) {
+        entries[offset(from, to)] = distance;
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return true;
+    }
+
+    @Override
+    public void ensureSize(int size) {
+        if (size <= this.size) {
+            return;
+        }
+        long needed = (long) size * (size + 1) / 2;
+        if (needed > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrix of " + size + " stops does not fit in one array");
+        }
+        if (needed > entries.length) {
+            // Grow geometrically so repeated single-stop additions stay amortized O(1) per entry
+            long capacity = Math.min(Integer.MAX_VALUE - 8, Math.max(needed, entries.length + (entries.length >> 1)));
+            int old = entries.length;
+            entries = Arrays.copyOf(entries, (int) capacity);
+            Arrays.fill(entries, old, entries.length, Double.NaN);
+        }
+        this.size = size;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return (long) entries.length * Double.BYTES;
+    }
+
+    private static int offset(int i, int j) {
+        return (i >= j) ? (int) ((long) i * (i + 1) / 2 + j) : (int) ((long) j * (j + 1) / 2 + i);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.srp.algorithms.matrix;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD min-plus row update. Only loaded when jdk.incubator.vector is in the boot layer;
+ * FloydWarshall checks that before calling in.
+ */
+final class VectorMinPlus {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorMinPlus() {
+    }
+
+    static void relaxRow(double[] d, int rowI, int rowK, int n, double dik) {
+        DoubleVector pivot = DoubleVector.broadcast(SPECIES, dik);
+        int bound = SPECIES.loopBound(n);
+        int j = 0;
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector through = DoubleVector.fromArray(SPECIES, d, rowK + j).add(pivot);
+            DoubleVector.fromArray(SPECIES, d, rowI + j).min(through).intoArray(d, rowI + j);
+        }
+        for (; j < n; j++) {
+            double candidate = dik + d[rowK + j];
+            if (candidate < d[rowI + j]) {
+                d[rowI + j] = candidate;
+            }
+        }
+    }
+}
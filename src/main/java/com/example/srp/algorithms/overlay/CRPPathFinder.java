@@ -0,0 +1,81 @@
+package com.example.srp.algorithms.overlay;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.PathFinder;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * PathFinder using customizable route planning: the partition and overlay are built once per map,
+ * and each traffic hour only costs a customization of the cell cliques, done on first use.
+ *
+ * Only customization is exclusive. Each thread queries with its own OverlayQuery, so concurrent
+ * queries run in parallel and wait only while a traffic update recustomizes the metrics.
+ */
+public class CRPPathFinder implements PathFinder {
+    private final OverlayGraph overlay;
+    private final TrafficStore ts;
+    private final Map<Integer, OverlayMetric> metrics = new HashMap<>();
+    // Search arrays for the metric this thread queried last
+    private final ThreadLocal<OverlayQuery> queries = new ThreadLocal<>();
+    // Queries read the metrics under the read lock, recustomization changes them under the write lock
+    private final ReadWriteLock metricLock = new ReentrantReadWriteLock();
+
+    public CRPPathFinder(Graph graph, TrafficStore ts) {
+        this(IndexedGraph.of(graph), ts);
+    }
+
+    public CRPPathFinder(IndexedGraph graph, TrafficStore ts) {
+        this(new OverlayGraph(graph, Partition.build(graph)), ts);
+    }
+
+    public CRPPathFinder(OverlayGraph overlay, TrafficStore ts) {
+        this.overlay = overlay;
+        this.ts = ts;
+    }
+
+    /**
+     * Returns the customized metric for the hour, customizing it on first use
+     */
+    public synchronized OverlayMetric getMetric(int hour) {
+        return metrics.computeIfAbsent(hour, h -> overlay.customize(ts, h));
+    }
+
+    /**
+     * Call after the TrafficStore changed the multipliers of some roads; every hour customized so
+     * far is recustomized for the affected cells only.
+     */
+    public synchronized void applyTrafficUpdate(Collection<String> changedEdgeIds) {
+        metricLock.writeLock().lock();
+        try {
+            for (Map.Entry<Integer, OverlayMetric> entry : metrics.entrySet()) {
+                entry.getValue().recustomize(ts, entry.getKey(), changedEdgeIds);
+            }
+        } finally {
+            metricLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Path findShortestPath(String sourceId, String targetId, int hour) {
+        OverlayMetric metric = getMetric(hour);
+        OverlayQuery query = queries.get();
+        if (query == null || query.getMetric() != metric) {
+            query = new OverlayQuery(metric);
+            queries.set(query);
+        }
+        metricLock.readLock().lock();
+        try {
+            return query.findShortestPath(sourceId, targetId);
+        } finally {
+            metricLock.readLock().unlock();
+        }
+    }
+}
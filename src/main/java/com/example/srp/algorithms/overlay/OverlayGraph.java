@@ -0,0 +1,127 @@
+package com.example.srp.algorithms.overlay;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.Arrays;
+
+/**
+ * Metric-independent overlay on top of a Partition: for every cell of every level it records the
+ * boundary vertices (endpoints of roads leaving the cell) and reserves a boundary-to-boundary clique.
+ *
+ * Built once per map. The clique weights themselves live in an OverlayMetric, one per hour.
+ */
+public class OverlayGraph {
+    private final IndexedGraph graph;
+    private final Partition partition;
+
+    // Boundary vertices of cell c at level l are boundary[l][boundaryFirst[l][c] .. boundaryFirst[l][c+1]-1]
+    private final int[][] boundaryFirst;
+    private final int[][] boundary;
+    private final int[][] boundaryIndex;   // position of v in its cell's boundary list, -1 if interior
+    private final int[][] cliqueOffset;    // start of cell c's clique matrix in the level's weight array
+    private final int[] cliqueEntries;
+
+    public OverlayGraph(IndexedGraph graph, Partition partition) {
+        this.graph = graph;
+        this.partition = partition;
+        int levels = partition.levels();
+        int n = graph.size();
+        this.boundaryFirst = new int[levels][];
+        this.boundary = new int[levels][];
+        this.boundaryIndex = new int[levels][];
+        this.cliqueOffset = new int[levels][];
+        this.cliqueEntries = new int[levels];
+
+        for (int l = 0; l < levels; l++) {
+            int[] cellOf = partition.cellOfLevel(l);
+            int cells = partition.cellCount(l);
+
+            boolean[] isBoundary = new boolean[n];
+            int[] perCell = new int[cells];
+            for (int v = 0; v < n; v++) {
+                for (int a = graph.firstOut(v); a < graph.endOut(v); a++) {
+                    if (cellOf[graph.head(a)] != cellOf[v]) {
+                        isBoundary[v] = true;
+                        break;
+                    }
+                }
+                if (isBoundary[v]) {
+                    perCell[cellOf[v]]++;
+                }
+            }
+
+            int[] first = new int[cells + 1];
+            int[] offsets = new int[cells];
+            int entries = 0;
+            for (int c = 0; c < cells; c++) {
+                first[c + 1] = first[c] + perCell[c];
+                offsets[c] = entries;
+                entries += perCell[c] * perCell[c];
+            }
+
+            int[] list = new int[first[cells]];
+            int[] index = new int[n];
+            Arrays.fill(index, -1);
+            int[] fill = Arrays.copyOf(first, cells);
+            for (int v = 0; v < n; v++) {
+                if (isBoundary[v]) {
+                    int c = cellOf[v];
+                    index[v] = fill[c] - first[c];
+                    list[fill[c]++] = v;
+                }
+            }
+
+            boundaryFirst[l] = first;
+            boundary[l] = list;
+            boundaryIndex[l] = index;
+            cliqueOffset[l] = offsets;
+            cliqueEntries[l] = entries;
+        }
+    }
+
+    /**
+     * Runs the customization phase: fills every cell clique for the hour's traffic
+     */
+    public OverlayMetric customize(TrafficStore ts, int hour) {
+        OverlayMetric metric = new OverlayMetric(this, graph.weights(ts, hour));
+        metric.customizeAll();
+        return metric;
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+
+    public Partition getPartition() {
+        return partition;
+    }
+
+    public int levels() {
+        return partition.levels();
+    }
+
+    public int boundaryFirst(int level, int cell) {
+        return boundaryFirst[level][cell];
+    }
+
+    public int boundaryCount(int level, int cell) {
+        return boundaryFirst[level][cell + 1] - boundaryFirst[level][cell];
+    }
+
+    public int boundaryVertex(int level, int i) {
+        return boundary[level][i];
+    }
+
+    public int boundaryIndex(int level, int v) {
+        return boundaryIndex[level][v];
+    }
+
+    public int cliqueOffset(int level, int cell) {
+        return cliqueOffset[level][cell];
+    }
+
+    public int cliqueEntries(int level) {
+        return cliqueEntries[level];
+    }
+}
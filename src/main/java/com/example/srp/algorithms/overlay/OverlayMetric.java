@@ -0,0 +1,175 @@
+package com.example.srp.algorithms.overlay;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Customized weights of an OverlayGraph for one traffic hour: the base arc weights plus the
+ * boundary-to-boundary clique of every cell, filled bottom-up level by level.
+ *
+ * Cells of one level are independent and are customized in parallel. A live traffic change only
+ * needs the cells containing the changed roads to be recomputed, see recustomize.
+ */
+public class OverlayMetric {
+    private final OverlayGraph overlay;
+    private final IndexedGraph graph;
+    private final Partition partition;
+    private final double[] arcWeights;
+    private final double[][] cliques;
+
+    private final ThreadLocal<Workspace> workspaces;
+
+    OverlayMetric(OverlayGraph overlay, double[] arcWeights) {
+        this.overlay = overlay;
+        this.graph = overlay.getGraph();
+        this.partition = overlay.getPartition();
+        this.arcWeights = arcWeights;
+        this.cliques = new double[overlay.levels()][];
+        for (int l = 0; l < overlay.levels(); l++) {
+            cliques[l] = new double[overlay.cliqueEntries(l)];
+        }
+        int n = graph.size();
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(n));
+    }
+
+    void customizeAll() {
+        for (int l = 0; l < overlay.levels(); l++) {
+            final int level = l;
+            IntStream.range(0, partition.cellCount(level)).parallel()
+                    .forEach(c -> customizeCell(level, c));
+        }
+    }
+
+    /**
+     * Re-reads the given roads from the TrafficStore and recomputes only the cells that contain them
+     */
+    public void recustomize(TrafficStore ts, int hour, Collection<String> changedEdgeIds) {
+        Set<String> changed = new HashSet<>(changedEdgeIds);
+        Set<Integer> endpoints = new HashSet<>();
+        for (int v = 0; v < graph.size(); v++) {
+            for (int a = graph.firstOut(v); a < graph.endOut(v); a++) {
+                if (changed.contains(graph.edgeId(a))) {
+                    arcWeights[a] = graph.length(a) * ts.getMultipliers(graph.edgeId(a), hour);
+                    endpoints.add(v);
+                    endpoints.add(graph.head(a));
+                }
+            }
+        }
+
+        for (int l = 0; l < overlay.levels(); l++) {
+            final int level = l;
+            Set<Integer> cells = new HashSet<>();
+            for (int v : endpoints) {
+                cells.add(partition.cellOf(level, v));
+            }
+            cells.parallelStream().forEach(c -> customizeCell(level, c));
+        }
+    }
+
+    public OverlayGraph getOverlay() {
+        return overlay;
+    }
+
+    public double arcWeight(int arc) {
+        return arcWeights[arc];
+    }
+
+    /**
+     * Shortest distance inside the cell between its i-th and j-th boundary vertex
+     */
+    public double clique(int level, int cell, int i, int j) {
+        return cliques[level][overlay.cliqueOffset(level, cell) + i * overlay.boundaryCount(level, cell) + j];
+    }
+
+    private void customizeCell(int level, int cell) {
+        Workspace ws = workspaces.get();
+        int first = overlay.boundaryFirst(level, cell);
+        int count = overlay.boundaryCount(level, cell);
+        int offset = overlay.cliqueOffset(level, cell);
+        double[] clique = cliques[level];
+
+        for (int i = 0; i < count; i++) {
+            searchInCell(ws, level, cell, overlay.boundaryVertex(level, first + i));
+            for (int j = 0; j < count; j++) {
+                clique[offset + i * count + j] = ws.dist[overlay.boundaryVertex(level, first + j)];
+            }
+            ws.reset();
+        }
+    }
+
+    /**
+     * Dijkstra confined to one cell. On level 0 it walks base roads; on higher levels it walks the
+     * sub-cell cliques of the level below plus the roads connecting those sub-cells.
+     */
+    private void searchInCell(Workspace ws, int level, int cell, int source) {
+        int[] cellOf = partition.cellOfLevel(level);
+        ws.relax(source, 0.0);
+        while (!ws.heap.isEmpty()) {
+            int u = ws.heap.poll();
+            double du = ws.dist[u];
+
+            if (level == 0) {
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    int w = graph.head(a);
+                    if (cellOf[w] == cell) {
+                        ws.relax(w, du + arcWeights[a]);
+                    }
+                }
+                continue;
+            }
+
+            int sub = level - 1;
+            int subCell = partition.cellOf(sub, u);
+            int bi = overlay.boundaryIndex(sub, u);
+            int subFirst = overlay.boundaryFirst(sub, subCell);
+            int subCount = overlay.boundaryCount(sub, subCell);
+            for (int k = 0; k < subCount; k++) {
+                ws.relax(overlay.boundaryVertex(sub, subFirst + k), du + clique(sub, subCell, bi, k));
+            }
+            int[] subCellOf = partition.cellOfLevel(sub);
+            for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                int w = graph.head(a);
+                if (subCellOf[w] != subCell && cellOf[w] == cell) {
+                    ws.relax(w, du + arcWeights[a]);
+                }
+            }
+        }
+    }
+
+    // Per-thread Dijkstra state
+    private static class Workspace {
+        final double[] dist;
+        final int[] touched;
+        int touchedCount;
+        final IndexedMinHeap heap;
+
+        Workspace(int n) {
+            dist = new double[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            touched = new int[n];
+            heap = new IndexedMinHeap(n);
+        }
+
+        void relax(int v, double d) {
+            if (d < dist[v]) {
+                if (dist[v] == Double.POSITIVE_INFINITY) {
+                    touched[touchedCount++] = v;
+                }
+                dist[v] = d;
+                heap.update(v, d);
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+}
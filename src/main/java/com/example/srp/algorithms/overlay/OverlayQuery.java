@@ -0,0 +1,227 @@
+package com.example.srp.algorithms.overlay;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+import com.example.srp.models.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multilevel bidirectional Dijkstra on a customized overlay.
+ *
+ * Near the source and target the search walks real roads; further away it jumps across whole
+ * cells through their cliques, using the highest level whose cell contains neither endpoint.
+ * Holds reusable search arrays, so one instance must not be shared between threads.
+ */
+public class OverlayQuery {
+    private static final int BASE_ARC = -1;
+
+    private final OverlayMetric metric;
+    private final OverlayGraph overlay;
+    private final Partition partition;
+    private final IndexedGraph graph;
+    private final Side forward;
+    private final Side backward;
+    private final Side cellSearch;
+
+    private int source;
+    private int target;
+
+    public OverlayQuery(OverlayMetric metric) {
+        this.metric = metric;
+        this.overlay = metric.getOverlay();
+        this.partition = overlay.getPartition();
+        this.graph = overlay.getGraph();
+        this.forward = new Side(graph.size());
+        this.backward = new Side(graph.size());
+        this.cellSearch = new Side(graph.size());
+    }
+
+    public OverlayMetric getMetric() {
+        return metric;
+    }
+
+    public Path findShortestPath(String sourceId, String targetId) {
+        source = graph.indexOf(sourceId);
+        target = graph.indexOf(targetId);
+        if (source < 0 || target < 0) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+        if (source == target) {
+            return new Path(Collections.singletonList(sourceId), 0.0);
+        }
+
+        forward.relax(source, -1, BASE_ARC, 0.0);
+        backward.relax(target, -1, BASE_ARC, 0.0);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+            if (forward.heap.peekKey() + backward.heap.peekKey() >= best) {
+                break;
+            }
+            Side side = forward.heap.peekKey() <= backward.heap.peekKey() ? forward : backward;
+            Side other = (side == forward) ? backward : forward;
+
+            int u = side.heap.poll();
+            double du = side.dist[u];
+            if (other.dist[u] != Double.POSITIVE_INFINITY && du + other.dist[u] < best) {
+                best = du + other.dist[u];
+                meeting = u;
+            }
+            scan(side, u, du);
+        }
+
+        Path path = (meeting < 0)
+                ? new Path(Collections.emptyList(), Double.POSITIVE_INFINITY)
+                : graph.toPath(unpack(meeting), best);
+        forward.reset();
+        backward.reset();
+        return path;
+    }
+
+    private void scan(Side side, int u, double du) {
+        int level = overlayLevel(u);
+        if (level < 0) {
+            // In the source or target cell: plain road network
+            for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                side.relax(graph.head(a), u, BASE_ARC, du + metric.arcWeight(a));
+            }
+            return;
+        }
+
+        // Cross the cell through its clique, then leave it over a cut road
+        int cell = partition.cellOf(level, u);
+        int bi = overlay.boundaryIndex(level, u);
+        int first = overlay.boundaryFirst(level, cell);
+        int count = overlay.boundaryCount(level, cell);
+        for (int k = 0; k < count; k++) {
+            if (k != bi) {
+                side.relax(overlay.boundaryVertex(level, first + k), u, level, du + metric.clique(level, cell, bi, k));
+            }
+        }
+        int[] cellOf = partition.cellOfLevel(level);
+        for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+            int w = graph.head(a);
+            if (cellOf[w] != cell) {
+                side.relax(w, u, BASE_ARC, du + metric.arcWeight(a));
+            }
+        }
+    }
+
+    /**
+     * Highest level whose cell around u contains neither endpoint and has u on its boundary,
+     * or -1 if u must be scanned on the road network.
+     */
+    private int overlayLevel(int u) {
+        int level = -1;
+        for (int l = 0; l < partition.levels(); l++) {
+            int cell = partition.cellOf(l, u);
+            if (cell == partition.cellOf(l, source) || cell == partition.cellOf(l, target)) {
+                break;
+            }
+            if (overlay.boundaryIndex(l, u) >= 0) {
+                level = l;
+            }
+        }
+        return level;
+    }
+
+    // Expands both search trees into a full vertex sequence source..target
+    private List<Integer> unpack(int meeting) {
+        List<Integer> hops = new ArrayList<>();
+        for (int v = meeting; v >= 0; v = forward.parent[v]) {
+            hops.add(v);
+        }
+        Collections.reverse(hops);
+        List<Integer> hopLevels = new ArrayList<>();
+        for (int i = 1; i < hops.size(); i++) {
+            hopLevels.add(forward.parentLevel[hops.get(i)]);
+        }
+        for (int v = meeting; backward.parent[v] >= 0; v = backward.parent[v]) {
+            hops.add(backward.parent[v]);
+            hopLevels.add(backward.parentLevel[v]);
+        }
+
+        List<Integer> vertices = new ArrayList<>();
+        vertices.add(hops.get(0));
+        for (int i = 0; i < hopLevels.size(); i++) {
+            int from = hops.get(i);
+            int to = hops.get(i + 1);
+            if (hopLevels.get(i) == BASE_ARC) {
+                vertices.add(to);
+            } else {
+                vertices.addAll(roadsInsideCell(hopLevels.get(i), from, to));
+            }
+        }
+        return vertices;
+    }
+
+    // Re-runs Dijkstra on real roads inside the clique's cell; returns the vertices after 'from'
+    private List<Integer> roadsInsideCell(int level, int from, int to) {
+        int[] cellOf = partition.cellOfLevel(level);
+        int cell = cellOf[from];
+        cellSearch.relax(from, -1, BASE_ARC, 0.0);
+        while (!cellSearch.heap.isEmpty()) {
+            int u = cellSearch.heap.poll();
+            if (u == to) {
+                break;
+            }
+            for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                int w = graph.head(a);
+                if (cellOf[w] == cell) {
+                    cellSearch.relax(w, u, BASE_ARC, cellSearch.dist[u] + metric.arcWeight(a));
+                }
+            }
+        }
+        List<Integer> segment = new ArrayList<>();
+        for (int v = to; v != from; v = cellSearch.parent[v]) {
+            segment.add(v);
+        }
+        Collections.reverse(segment);
+        cellSearch.reset();
+        return segment;
+    }
+
+    // One direction of the query
+    private static class Side {
+        final double[] dist;
+        final int[] parent;
+        final int[] parentLevel;
+        final int[] touched;
+        int touchedCount;
+        final IndexedMinHeap heap;
+
+        Side(int n) {
+            dist = new double[n];
+            parent = new int[n];
+            parentLevel = new int[n];
+            touched = new int[n];
+            heap = new IndexedMinHeap(n);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        void relax(int v, int from, int level, double d) {
+            if (d < dist[v]) {
+                if (dist[v] == Double.POSITIVE_INFINITY) {
+                    touched[touchedCount++] = v;
+                }
+                dist[v] = d;
+                parent[v] = from;
+                parentLevel[v] = level;
+                heap.update(v, d);
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+}
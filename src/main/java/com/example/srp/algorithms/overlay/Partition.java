@@ -0,0 +1,136 @@
+package com.example.srp.algorithms.overlay;
+
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Nested multilevel partition of the map into cells.
+ *
+ * Cells are found by recursive coordinate bisection, so the partition depends only on the
+ * topology and vertex positions, never on traffic. Every level-l cell is a union of level-(l-1) cells.
+ */
+public class Partition {
+    private final int[][] cellOf;        // cellOf[level][v]
+    private final int[] cellCount;
+    private final int[][] cellFirst;     // cellFirst[level][c] .. cellFirst[level][c+1]-1 index into cellVertices
+    private final int[][] cellVertices;
+
+    private Partition(int[][] cellOf, int[] cellCount) {
+        this.cellOf = cellOf;
+        this.cellCount = cellCount;
+        int levels = cellOf.length;
+        this.cellFirst = new int[levels][];
+        this.cellVertices = new int[levels][];
+        for (int l = 0; l < levels; l++) {
+            int n = cellOf[l].length;
+            int[] first = new int[cellCount[l] + 1];
+            for (int v = 0; v < n; v++) {
+                first[cellOf[l][v] + 1]++;
+            }
+            for (int c = 0; c < cellCount[l]; c++) {
+                first[c + 1] += first[c];
+            }
+            int[] fill = Arrays.copyOf(first, cellCount[l]);
+            int[] vertices = new int[n];
+            for (int v = 0; v < n; v++) {
+                vertices[fill[cellOf[l][v]]++] = v;
+            }
+            cellFirst[l] = first;
+            cellVertices[l] = vertices;
+        }
+    }
+
+    /**
+     * Default level sizes: cells of at most 32 vertices, growing 8x per level while smaller than the map
+     */
+    public static Partition build(IndexedGraph graph) {
+        List<Integer> sizes = new ArrayList<>();
+        int size = 32;
+        do {
+            sizes.add(size);
+            size *= 8;
+        } while (size < graph.size());
+        return build(graph, sizes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @param maxCellSizes maximum vertices per cell for each level, ascending
+     */
+    public static Partition build(IndexedGraph graph, int[] maxCellSizes) {
+        int levels = maxCellSizes.length;
+        int n = graph.size();
+        int[][] cellOf = new int[levels][n];
+        int[] cellCount = new int[levels];
+
+        Integer[] all = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            all[v] = v;
+        }
+        split(graph, all, levels - 1, maxCellSizes, cellOf, cellCount);
+        return new Partition(cellOf, cellCount);
+    }
+
+    private static void split(IndexedGraph graph, Integer[] vertices, int level, int[] maxCellSizes, int[][] cellOf, int[] cellCount) {
+        if (vertices.length <= maxCellSizes[level]) {
+            // This group becomes one cell at this level and is refined further below
+            int cell = cellCount[level]++;
+            for (int v : vertices) {
+                cellOf[level][v] = cell;
+            }
+            if (level > 0) {
+                split(graph, vertices, level - 1, maxCellSizes, cellOf, cellCount);
+            }
+            return;
+        }
+
+        // Bisect at the median of the wider coordinate axis
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int v : vertices) {
+            minX = Math.min(minX, graph.x(v));
+            maxX = Math.max(maxX, graph.x(v));
+            minY = Math.min(minY, graph.y(v));
+            maxY = Math.max(maxY, graph.y(v));
+        }
+        Integer[] sorted = vertices.clone();
+        if (maxX - minX >= maxY - minY) {
+            Arrays.sort(sorted, Comparator.comparingDouble(graph::x));
+        } else {
+            Arrays.sort(sorted, Comparator.comparingDouble(graph::y));
+        }
+        int mid = sorted.length / 2;
+        split(graph, Arrays.copyOfRange(sorted, 0, mid), level, maxCellSizes, cellOf, cellCount);
+        split(graph, Arrays.copyOfRange(sorted, mid, sorted.length), level, maxCellSizes, cellOf, cellCount);
+    }
+
+    public int levels() {
+        return cellOf.length;
+    }
+
+    public int cellCount(int level) {
+        return cellCount[level];
+    }
+
+    public int cellOf(int level, int v) {
+        return cellOf[level][v];
+    }
+
+    public int[] cellOfLevel(int level) {
+        return cellOf[level];
+    }
+
+    /**
+     * Vertices of a cell are cellVertices(level)[cellFirst(level, c) .. cellFirst(level, c+1)-1]
+     */
+    public int cellFirst(int level, int cell) {
+        return cellFirst[level][cell];
+    }
+
+    public int[] cellVertices(int level) {
+        return cellVertices[level];
+    }
+}
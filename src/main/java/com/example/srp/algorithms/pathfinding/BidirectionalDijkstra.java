@@ -0,0 +1,125 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Edge;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.*;
+
+/**
+ * Bidirectional Dijkstra: grows one search ball from the source and one from the target
+ * and stops once the two queue minimums together can no longer beat the best meeting point.
+ *
+ * Graph stores every road in both directions with the same edge id, so the backward search
+ * can walk the ordinary adjacency list.
+ */
+public class BidirectionalDijkstra implements PathFinder {
+    private final Graph graph;
+    private final TrafficStore ts;
+
+    public BidirectionalDijkstra(Graph graph, TrafficStore ts) {
+        this.graph = graph;
+        this.ts = ts;
+    }
+
+    double getEffectiveWeight(Edge edge, int hour) {
+        double multiplier = ts.getMultipliers(edge.getId(), hour);
+        return edge.getDistance() * multiplier;
+    }
+
+    @Override
+    public Path findShortestPath(String sourceId, String targetId, int hour) {
+        if (sourceId.equals(targetId)) {
+            return new Path(Collections.singletonList(sourceId), 0.0);
+        }
+
+        SearchSide forward = new SearchSide(sourceId);
+        SearchSide backward = new SearchSide(targetId);
+
+        double best = Double.POSITIVE_INFINITY;
+        String meeting = null;
+
+        while (!forward.pq.isEmpty() && !backward.pq.isEmpty()) {
+            // Standard stopping criterion: no undiscovered path can be shorter than best
+            if (forward.pq.peek().dist + backward.pq.peek().dist >= best) {
+                break;
+            }
+
+            // Expand the side whose frontier is closer
+            SearchSide side = forward.pq.peek().dist <= backward.pq.peek().dist ? forward : backward;
+            SearchSide other = (side == forward) ? backward : forward;
+
+            NodeDist current = side.pq.poll();
+            String u = current.node;
+            if (!side.visited.add(u)) {
+                continue;
+            }
+
+            double uw = side.distance.get(u);
+            for (Edge edge : graph.getNeighborEdge(u)) {
+                String v = edge.getTo();
+                if (side.visited.contains(v)) {
+                    continue;
+                }
+
+                double candidate = uw + getEffectiveWeight(edge, hour);
+                if (candidate < side.distance.getOrDefault(v, Double.POSITIVE_INFINITY)) {
+                    side.distance.put(v, candidate);
+                    side.parent.put(v, u);
+                    side.pq.offer(new NodeDist(v, candidate));
+                }
+
+                // Check whether the two searches meet through v
+                Double otherDist = other.distance.get(v);
+                if (otherDist != null) {
+                    double through = side.distance.get(v) + otherDist;
+                    if (through < best) {
+                        best = through;
+                        meeting = v;
+                    }
+                }
+            }
+        }
+
+        if (meeting == null) {
+            // Target unreachable
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+
+        // Reconstruct source -> meeting, then meeting -> target
+        List<String> path = new ArrayList<>();
+        for (String at = meeting; at != null; at = forward.parent.get(at)) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        for (String at = backward.parent.get(meeting); at != null; at = backward.parent.get(at)) {
+            path.add(at);
+        }
+        return new Path(path, best);
+    }
+
+    // One direction of the search
+    private static class SearchSide {
+        final Map<String, Double> distance = new HashMap<>();
+        final Map<String, String> parent = new HashMap<>();
+        final Set<String> visited = new HashSet<>();
+        final PriorityQueue<NodeDist> pq = new PriorityQueue<>(Comparator.comparingDouble(nd -> nd.dist));
+
+        SearchSide(String root) {
+            distance.put(root, 0.0);
+            pq.offer(new NodeDist(root, 0.0));
+        }
+    }
+
+    // Helper class to store node with its distance
+    private static class NodeDist {
+        String node;
+        double dist;
+
+        NodeDist(String node, double dist) {
+            this.node = node;
+            this.dist = dist;
+        }
+    }
+}
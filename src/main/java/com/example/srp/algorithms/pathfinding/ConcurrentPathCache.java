@@ -0,0 +1,421 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.memory.MemoryBudget;
+import com.example.srp.memory.MemoryConsumer;
+import com.example.srp.models.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Path store that many planning requests for the same map and hour can share.
+ *
+ * Distances sit in triangular rows of AtomicLongArray (double bits), one row per stop, created
+ * when the stop is first seen and never moved, so getDistance is a lock-free array read.
+ * Vertex sequences live in a ConcurrentHashMap keyed by pair. A missing pair is loaded at most
+ * once even if many threads miss it together: the first one registers a future for it and runs
+ * the loader outside any map lock, the others wait on that future. Loads of other pairs never
+ * wait for it.
+ *
+ * With a PathFinder attached, get and getDistance load missing pairs themselves, so a request
+ * only pays for pairs no earlier request needed. On symmetric roads a pair is stored once, in
+ * the direction of the lower stop index.
+ *
+ * Attached to a MemoryBudget, stored sequences can be released when a PathFinder is attached to
+ * reload them; distances are kept.
+ */
+public class ConcurrentPathCache implements PathLookup, MemoryConsumer {
+    private static final long UNSET = Double.doubleToRawLongBits(Double.NaN);
+
+    private final ConcurrentHashMap<String, Integer> index = new ConcurrentHashMap<>();
+    private final List<String> ids = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<Long, List<String>> geometry = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<List<String>>> loading = new ConcurrentHashMap<>();
+    private final boolean symmetric;
+    private final PathFinder pathFinder;
+    private final int hour;
+
+    // lower[i][j] holds i -> j for j <= i; upper[i][j] holds j -> i for j < i (asymmetric only).
+    // The arrays are replaced when they grow, the rows in them never are.
+    private volatile AtomicLongArray[] lower = new AtomicLongArray[16];
+    private volatile AtomicLongArray[] upper = new AtomicLongArray[16];
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder loadedBytes = new LongAdder();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private volatile long rowBytes;
+    private volatile MemoryBudget.Registration registration;
+
+    /**
+     * Cache that only holds what is put into it
+     */
+    public ConcurrentPathCache(boolean symmetric) {
+        this(null, -1, symmetric);
+    }
+
+    /**
+     * Cache that computes missing pairs with the given engine at the given hour. Loads of
+     * different pairs run in parallel only as far as the engine allows; a synchronized engine
+     * serializes them, lookups of cached pairs are never held up.
+     */
+    public ConcurrentPathCache(PathFinder pathFinder, int hour, boolean symmetric) {
+        this.pathFinder = pathFinder;
+        this.hour = hour;
+        this.symmetric = symmetric;
+    }
+
+    public void put(String from, String to, Path path) {
+        int i = indexOrAdd(from);
+        int j = indexOrAdd(to);
+        // Distance first, as in runLoader: a reader that finds the geometry also finds the distance
+        setDistance(i, j, path.getTotalDistance());
+        List<String> replaced = geometry.put(pairKey(i, j), inStoredDirection(i, j, path.getVertices()));
+        long grown = PathCache.sequenceBytes(path.getVertices().size())
+                - (replaced == null ? 0 : PathCache.sequenceBytes(replaced.size()));
+        storedBytes.addAndGet(grown);
+        reportGrowth(grown);
+    }
+
+    /**
+     * Stores only the distance; get() returns null for such a pair unless a PathFinder loads it
+     */
+    public void putDistance(String from, String to, double distance) {
+        setDistance(indexOrAdd(from), indexOrAdd(to), distance);
+    }
+
+    /**
+     * Copies every pair of the given store that this cache has no distance for yet, e.g. a matrix
+     * loaded from a MatrixDiskCache
+     * @throws IllegalArgumentException if the stores disagree on symmetry
+     */
+    public void putAll(PathLookup source) {
+        if (source.isSymmetric() != symmetric) {
+            throw new IllegalArgumentException("Cannot copy a " + (source.isSymmetric() ? "symmetric" : "one-way")
+                    + " store into a " + (symmetric ? "symmetric" : "one-way") + " cache");
+        }
+        int k = source.size();
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < (symmetric ? i + 1 : k); j++) {
+                String from = source.idOf(i);
+                String to = source.idOf(j);
+                Integer known = index.get(from);
+                Integer other = index.get(to);
+                if (known != null && other != null && !Double.isNaN(readDistance(known, other))) {
+                    continue;
+                }
+                Path path = source.get(from, to);
+                if (path != null) {
+                    put(from, to, path);
+                }
+            }
+        }
+    }
+
+    /**
+     * A PathCache over just these stops with every pair between them, loading the ones this cache
+     * is missing; what MatrixDiskCache stores for a planning request
+     */
+    public PathCache copyOf(Collection<String> stops) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(stops));
+        PathCache copy = new PathCache(symmetric);
+        for (int i = 0; i < ids.size(); i++) {
+            for (int j = symmetric ? i : 0; j < ids.size(); j++) {
+                Path path = get(ids.get(i), ids.get(j));
+                if (path != null) {
+                    copy.put(ids.get(i), ids.get(j), path);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the stored path, or runs the loader exactly once for this pair and stores its result.
+     * Concurrent callers for the same pair wait for the running load.
+     */
+    public Path computeIfAbsent(String from, String to, BiFunction<String, String, Path> loader) {
+        int i = indexOrAdd(from);
+        int j = indexOrAdd(to);
+        List<String> stored = load(i, j, loader);
+        return toPath(i, j, stored, readDistance(i, j));
+    }
+
+    /**
+     * @return the path, loading it if a PathFinder is attached; otherwise null if never stored
+     */
+    @Override
+    public Path get(String from, String to) {
+        if (pathFinder != null) {
+            return computeIfAbsent(from, to, this::find);
+        }
+        Integer i = index.get(from);
+        Integer j = index.get(to);
+        return (i == null || j == null) ? null : get(i, j);
+    }
+
+    private Path get(int i, int j) {
+        List<String> stored = (pathFinder != null) ? load(i, j, this::find) : geometry.get(pairKey(i, j));
+        return toPath(i, j, stored, readDistance(i, j));
+    }
+
+    /**
+     * @return the distance, loading it if a PathFinder is attached; otherwise NaN if never stored
+     */
+    @Override
+    public double getDistance(String from, String to) {
+        Integer i = index.get(from);
+        Integer j = index.get(to);
+        if (i == null || j == null) {
+            return (pathFinder != null) ? getDistance(indexOrAdd(from), indexOrAdd(to)) : Double.NaN;
+        }
+        return getDistance(i, j);
+    }
+
+    @Override
+    public double getDistance(int from, int to) {
+        double distance = readDistance(from, to);
+        if (Double.isNaN(distance) && pathFinder != null) {
+            load(from, to, this::find);
+            distance = readDistance(from, to);
+        }
+        return distance;
+    }
+
+    @Override
+    public int indexOf(String id) {
+        Integer i = index.get(id);
+        return (i == null) ? -1 : i;
+    }
+
+    @Override
+    public String idOf(int i) {
+        return ids.get(i);
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    /**
+     * Number of pairs with a stored path
+     */
+    public int pathCount() {
+        return geometry.size();
+    }
+
+    /**
+     * Loader runs; concurrent misses on one pair count once
+     */
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Registers this cache with the budget; from then on new entries are reported to it
+     * @return the registration, close it to detach
+     */
+    public MemoryBudget.Registration attachTo(MemoryBudget budget, String name) {
+        MemoryBudget.Registration attached = budget.register(name, this);
+        registration = attached;
+        return attached;
+    }
+
+    @Override
+    public long usedBytes() {
+        return rowBytes + storedBytes.get() + PathCache.STOP_BYTES * ids.size();
+    }
+
+    /**
+     * Drops stored sequences until about the given number of bytes is freed; nothing without a
+     * PathFinder to load them again
+     */
+    @Override
+    public long release(long bytes) {
+        if (pathFinder == null) {
+            return 0;
+        }
+        long freed = 0;
+        for (Long key : geometry.keySet()) {
+            if (freed >= bytes) {
+                break;
+            }
+            List<String> removed = geometry.remove(key);
+            if (removed != null) {
+                freed += PathCache.sequenceBytes(removed.size());
+            }
+        }
+        storedBytes.addAndGet(-freed);
+        return freed;
+    }
+
+    @Override
+    public double reloadCostPerByte() {
+        if (pathFinder == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        long bytes = loadedBytes.sum();
+        return (bytes == 0) ? 0.0 : (double) loadNanos.sum() / bytes;
+    }
+
+    private int indexOrAdd(String id) {
+        Integer i = index.get(id);
+        if (i != null) {
+            return i;
+        }
+        // New stops are rare. The rows are in place before index.put makes the stop reachable,
+        // and that put is what publishes them to readers.
+        synchronized (ids) {
+            i = index.get(id);
+            if (i != null) {
+                return i;
+            }
+            int added = ids.size();
+            if (added == lower.length) {
+                lower = Arrays.copyOf(lower, added * 2);
+                upper = Arrays.copyOf(upper, added * 2);
+            }
+            lower[added] = newRow(added + 1);
+            if (!symmetric) {
+                upper[added] = newRow(added + 1);
+            }
+            long grown = (symmetric ? 1 : 2) * (16 + (long) Long.BYTES * (added + 1));
+            rowBytes += grown;
+            ids.add(id);
+            index.put(id, added);
+            reportGrowth(grown + PathCache.STOP_BYTES);
+            return added;
+        }
+    }
+
+    private List<String> load(int i, int j, BiFunction<String, String, Path> loader) {
+        long key = pairKey(i, j);
+        List<String> stored = geometry.get(key);
+        if (stored != null) {
+            return stored;
+        }
+        CompletableFuture<List<String>> mine = new CompletableFuture<>();
+        CompletableFuture<List<String>> pending = loading.putIfAbsent(key, mine);
+        if (pending != null) {
+            return pending.join();
+        }
+        try {
+            // Another thread may have stored this pair between our miss and the putIfAbsent
+            stored = geometry.get(key);
+            if (stored == null) {
+                stored = runLoader(i, j, loader);
+                geometry.put(key, stored);
+            }
+            mine.complete(stored);
+            return stored;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private List<String> runLoader(int i, int j, BiFunction<String, String, Path> loader) {
+        loads.increment();
+        long start = System.nanoTime();
+        // Load in the stored direction so the result can be kept as it is
+        boolean flip = symmetric && i > j;
+        int from = flip ? j : i;
+        int to = flip ? i : j;
+        Path path = loader.apply(ids.get(from), ids.get(to));
+        setDistance(from, to, path.getTotalDistance());
+        long bytes = PathCache.sequenceBytes(path.getVertices().size());
+        loadNanos.add(System.nanoTime() - start);
+        loadedBytes.add(bytes);
+        storedBytes.addAndGet(bytes);
+        reportGrowth(bytes);
+        return Collections.unmodifiableList(new ArrayList<>(path.getVertices()));
+    }
+
+    private void reportGrowth(long bytes) {
+        MemoryBudget.Registration attached = registration;
+        if (attached != null && bytes > 0) {
+            attached.grew(bytes);
+        }
+    }
+
+    private double readDistance(int from, int to) {
+        if (from >= to) {
+            return Double.longBitsToDouble(lower[from].get(to));
+        }
+        return symmetric
+                ? Double.longBitsToDouble(lower[to].get(from))
+                : Double.longBitsToDouble(upper[to].get(from));
+    }
+
+    private void setDistance(int from, int to, double distance) {
+        long bits = Double.doubleToRawLongBits(distance);
+        if (from >= to) {
+            lower[from].set(to, bits);
+        } else if (symmetric) {
+            lower[to].set(from, bits);
+        } else {
+            upper[to].set(from, bits);
+        }
+    }
+
+    private Path find(String from, String to) {
+        if (from.equals(to)) {
+            return new Path(Collections.singletonList(from), 0.0);
+        }
+        return pathFinder.findShortestPath(from, to, hour);
+    }
+
+    private Path toPath(int i, int j, List<String> stored, double distance) {
+        if (stored == null || Double.isNaN(distance)) {
+            return null;
+        }
+        if (symmetric && i > j) {
+            List<String> vertices = new ArrayList<>(stored);
+            Collections.reverse(vertices);
+            return new Path(vertices, distance);
+        }
+        return new Path(stored, distance);
+    }
+
+    private List<String> inStoredDirection(int i, int j, List<String> vertices) {
+        List<String> copy = new ArrayList<>(vertices);
+        if (symmetric && i > j) {
+            Collections.reverse(copy);
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private long pairKey(int i, int j) {
+        if (symmetric && i > j) {
+            return ((long) j << 32) | (i & 0xFFFFFFFFL);
+        }
+        return ((long) i << 32) | (j & 0xFFFFFFFFL);
+    }
+
+    private static AtomicLongArray newRow(int length) {
+        AtomicLongArray row = new AtomicLongArray(length);
+        for (int k = 0; k < length; k++) {
+            row.set(k, UNSET);
+        }
+        return row;
+    }
+}
@@ -7,7 +7,7 @@ import com.example.srp.traffic.TrafficStore;
 
 import java.util.*;
 
-public class Dijkstra {
+public class Dijkstra implements PathFinder {
     private final Graph graph;
     private final TrafficStore ts;
 
@@ -21,6 +21,7 @@ public class Dijkstra {
         return edge.getDistance() * multiplier;
     }
 
+    @Override
     public Path findShortestPath(String sourceId, String targetId, int hour) {
         // Initialize distance map
         Map<String, Double> distance = new HashMap<>();
@@ -1,28 +1,46 @@
 package com.example.srp.algorithms.pathfinding;
 
 import com.example.srp.models.Graph;
+import com.example.srp.models.NodeCluster;
 import com.example.srp.models.Path;
 import com.example.srp.models.Vertex;
 import com.example.srp.traffic.TrafficStore;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public class DistanceMatrixBuilder {
     private final Graph graph;
     private final TrafficStore store;
     private final int hour;
+    private final PathFinder pathFinder;
 
+    /**
+     * Uses the engine selected by the srp.engine system property (see PathEngine)
+     */
     public DistanceMatrixBuilder(Graph graph, TrafficStore ts, int hour) {
+        this(graph, ts, hour, PathEngine.configured().create(graph, ts));
+    }
+
+    public DistanceMatrixBuilder(Graph graph, TrafficStore ts, int hour, PathFinder pathFinder) {
         this.graph = graph;
         this.store = ts;
         this.hour = hour;
+        this.pathFinder = pathFinder;
     }
 
     public PathCache build(List<Vertex> nodes) {
-        Dijkstra dstra=new Dijkstra(graph, store);
-        PathCache cache=new PathCache();
+        return build(nodes, new PathCache());
+    }
 
+    /**
+     * Fills the given empty cache, e.g. one backed by an OffHeapDistanceMatrix
+     */
+    public PathCache build(List<Vertex> nodes, PathCache cache) {
         // 1. Initialize self-loops (Distance 0)
         // This prevents "No path found from N1 to N1" errors when a bus
         // has no assigned nodes and stays at the depot.
@@ -36,10 +54,118 @@ public class DistanceMatrixBuilder {
             for(int j=i+1; j<nodes.size(); j++) {
                 Vertex from=nodes.get(i);
                 Vertex to=nodes.get(j);
-                Path path=dstra.findShortestPath(from.getId(), to.getId(), hour);
+                Path path=pathFinder.findShortestPath(from.getId(), to.getId(), hour);
                 cache.put(from.getId(), to.getId(), path);
             }
         }
         return cache;
     }
-}
\ No newline at end of file
+
+    /**
+     * Same stops as build, but with one target-bounded one-to-many search per stop instead of one
+     * query per pair. Paths are not materialized: each row keeps the search's predecessor array and
+     * PathCache.get walks it only for the legs that are asked for.
+     */
+    public PathCache buildFromTrees(List<Vertex> nodes) {
+        return buildFromTrees(nodes, new OneToManyDijkstra(IndexedGraph.of(graph), store));
+    }
+
+    private PathCache buildFromTrees(Collection<Vertex> nodes, OneToManyDijkstra search) {
+        List<String> ids=new ArrayList<>();
+        PathCache cache=new PathCache();
+        for(Vertex v: nodes) {
+            ids.add(v.getId());
+            cache.indexOrAdd(v.getId());
+        }
+        for(String id: ids) {
+            cache.putTree(search.search(id, hour, ids));
+        }
+        return cache;
+    }
+
+    /**
+     * Like build, but reuses the matrix a previous run stored for the same map, traffic, hour and
+     * stops, and stores a freshly built one for the next run.
+     */
+    public PathCache buildCached(List<Vertex> nodes, MatrixDiskCache diskCache) {
+        List<String> ids=new ArrayList<>();
+        for(Vertex v: nodes) {
+            ids.add(v.getId());
+        }
+        return diskCache.loadOrBuild(IndexedGraph.of(graph), store, hour, ids, () -> build(nodes));
+    }
+
+    /**
+     * The only vertices a plan ever looks up: the depot followed by the stops, without duplicates.
+     * @throws IllegalArgumentException if the depot or a stop is not in the graph
+     */
+    public List<Vertex> terminals(String depot, Collection<String> stops) {
+        Set<String> ids=new LinkedHashSet<>();
+        ids.add(depot);
+        ids.addAll(stops);
+        List<Vertex> nodes=new ArrayList<>();
+        for(String id: ids) {
+            Vertex v=graph.vertices.get(id);
+            if(v==null) {
+                throw new IllegalArgumentException("Unknown node " + id);
+            }
+            nodes.add(v);
+        }
+        return nodes;
+    }
+
+    /**
+     * Matrix for one planning request: k = stops + 1 terminals, one search each, instead of every
+     * map vertex. Legs are expanded from the kept search trees when RouteExpander asks for them.
+     */
+    public PathCache buildForPlan(String depot, Collection<String> stops) {
+        return buildFromTrees(terminals(depot, stops));
+    }
+
+    /**
+     * Like buildForPlan, reusing a matrix stored for the same map, traffic, hour and terminals
+     */
+    public PathCache buildForPlan(String depot, Collection<String> stops, MatrixDiskCache diskCache) {
+        List<Vertex> nodes=terminals(depot, stops);
+        List<String> ids=new ArrayList<>();
+        for(Vertex v: nodes) {
+            ids.add(v.getId());
+        }
+        return diskCache.loadOrBuild(IndexedGraph.of(graph), store, hour, ids, () -> buildFromTrees(nodes));
+    }
+
+    /**
+     * Same stops as build, but nothing is computed until a solver asks: each first lookup from a
+     * stop fills that stop's whole row with one search, within the given memory budget.
+     */
+    public LazyPathCache buildLazy(List<Vertex> nodes, long maxBytes) {
+        List<String> ids=new ArrayList<>();
+        for(Vertex v: nodes) {
+            ids.add(v.getId());
+        }
+        return new LazyPathCache(IndexedGraph.of(graph), store, hour, ids, maxBytes, true);
+    }
+
+    /**
+     * Exact paths only between nodes of the same cluster (start node included), one search per stop
+     * bounded by its own cluster. For n stops in k clusters this is about n^2/k pairs instead of n^2.
+     * Any other pair, e.g. for a stop LoadBalancer moves to another bus, is found with this builder's
+     * PathFinder on first lookup.
+     */
+    public ConcurrentPathCache buildForClusters(List<NodeCluster> clusters) {
+        ConcurrentPathCache cache=new ConcurrentPathCache(pathFinder, hour, true);
+        OneToManyDijkstra search=new OneToManyDijkstra(IndexedGraph.of(graph), store);
+        for(NodeCluster cluster: clusters) {
+            Set<Vertex> nodes=new LinkedHashSet<>();
+            for(String id: cluster.getAllNodes()) {
+                Vertex v=graph.vertices.get(id);
+                if(v==null) {
+                    throw new IllegalArgumentException("Unknown node " + id);
+                }
+                nodes.add(v);
+            }
+            cache.putAll(buildFromTrees(nodes, search));
+        }
+        return cache;
+    }
+}
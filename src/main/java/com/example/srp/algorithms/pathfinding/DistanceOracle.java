@@ -0,0 +1,9 @@
+package com.example.srp.algorithms.pathfinding;
+
+/**
+ * Distance-only lookups for one traffic hour, for callers that never need the path itself.
+ * Implementations return infinity when the target is unreachable.
+ */
+public interface DistanceOracle {
+    double distance(String sourceId, String targetId);
+}
@@ -0,0 +1,206 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Edge;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.TrafficStore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Int-indexed, array-based (CSR) view of a Graph for the speed-up engines.
+ *
+ * Vertices are numbered 0..n-1 in id order so the numbering is stable across runs.
+ * Arcs keep their edge id, so per-hour weights are always read from the TrafficStore.
+ */
+public class IndexedGraph {
+    private final String[] ids;
+    private final Map<String, Integer> index;
+    private final double[] xs;
+    private final double[] ys;
+
+    // Outgoing arcs of v are firstOut[v] .. firstOut[v+1]-1
+    private final int[] firstOut;
+    private final int[] head;
+    private final double[] length;
+    private final String[] edgeIds;
+
+    private IndexedGraph(String[] ids, double[] xs, double[] ys, int[] firstOut, int[] head, double[] length, String[] edgeIds) {
+        this.ids = ids;
+        this.xs = xs;
+        this.ys = ys;
+        this.firstOut = firstOut;
+        this.head = head;
+        this.length = length;
+        this.edgeIds = edgeIds;
+        this.index = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            index.put(ids[i], i);
+        }
+    }
+
+    public static IndexedGraph of(Graph graph) {
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+        vertices.sort(Comparator.comparing(Vertex::getId));
+
+        int n = vertices.size();
+        String[] ids = new String[n];
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Vertex v = vertices.get(i);
+            ids[i] = v.getId();
+            xs[i] = v.getX();
+            ys[i] = v.getY();
+            index.put(ids[i], i);
+        }
+
+        int arcCount = 0;
+        for (String id : ids) {
+            arcCount += graph.getNeighborEdge(id).size();
+        }
+
+        int[] firstOut = new int[n + 1];
+        int[] head = new int[arcCount];
+        double[] length = new double[arcCount];
+        String[] edgeIds = new String[arcCount];
+        int arc = 0;
+        for (int v = 0; v < n; v++) {
+            firstOut[v] = arc;
+            for (Edge edge : graph.getNeighborEdge(ids[v])) {
+                head[arc] = index.get(edge.getTo());
+                length[arc] = edge.getDistance();
+                edgeIds[arc] = edge.getId();
+                arc++;
+            }
+        }
+        firstOut[n] = arc;
+        return new IndexedGraph(ids, xs, ys, firstOut, head, length, edgeIds);
+    }
+
+    /**
+     * Effective weight (distance * traffic multiplier) of every arc at the given hour
+     */
+    public double[] weights(TrafficStore ts, int hour) {
+        double[] weights = new double[head.length];
+        for (int a = 0; a < head.length; a++) {
+            weights[a] = length[a] * ts.getMultipliers(edgeIds[a], hour);
+        }
+        return weights;
+    }
+
+    /**
+     * Content hash of the topology, positions and road lengths; changes whenever the map file does
+     */
+    public String contentHash() {
+        MessageDigest digest = sha256();
+        for (int v = 0; v < ids.length; v++) {
+            update(digest, ids[v]);
+            update(digest, xs[v]);
+            update(digest, ys[v]);
+            for (int a = firstOut[v]; a < firstOut[v + 1]; a++) {
+                update(digest, ids[head[a]]);
+                update(digest, edgeIds[a]);
+                update(digest, length[a]);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hash of all 24 traffic multipliers of every road, i.e. the traffic version
+     */
+    public String trafficHash(TrafficStore ts) {
+        MessageDigest digest = sha256();
+        for (int a = 0; a < head.length; a++) {
+            for (int h = 0; h < 24; h++) {
+                update(digest, ts.getMultipliers(edgeIds[a], h));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static void update(MessageDigest digest, double value) {
+        long bits = Double.doubleToLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            digest.update((byte) (bits >>> (8 * i)));
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int arcCount() {
+        return head.length;
+    }
+
+    /**
+     * @return the vertex index, or -1 if the id is not in the graph
+     */
+    public int indexOf(String id) {
+        Integer i = index.get(id);
+        return (i == null) ? -1 : i;
+    }
+
+    public String idOf(int v) {
+        return ids[v];
+    }
+
+    public double x(int v) {
+        return xs[v];
+    }
+
+    public double y(int v) {
+        return ys[v];
+    }
+
+    public int firstOut(int v) {
+        return firstOut[v];
+    }
+
+    public int endOut(int v) {
+        return firstOut[v + 1];
+    }
+
+    public int head(int arc) {
+        return head[arc];
+    }
+
+    public double length(int arc) {
+        return length[arc];
+    }
+
+    public String edgeId(int arc) {
+        return edgeIds[arc];
+    }
+
+    /**
+     * Converts a vertex index sequence into a Path of vertex ids
+     */
+    public Path toPath(List<Integer> vertices, double totalDistance) {
+        List<String> path = new ArrayList<>(vertices.size());
+        for (int v : vertices) {
+            path.add(ids[v]);
+        }
+        return new Path(path, totalDistance);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.srp.algorithms.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over vertex indices 0..n-1 with decrease/increase-key.
+ * Unlike a PriorityQueue of wrapper objects it never holds stale entries and never allocates per push.
+ */
+public class IndexedMinHeap {
+    private final int[] heap;
+    private final int[] pos;     // position of a vertex in heap, -1 if absent
+    private final double[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int v) {
+        return pos[v] >= 0;
+    }
+
+    public double key(int v) {
+        return keys[v];
+    }
+
+    public double peekKey() {
+        return keys[heap[0]];
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Inserts v, or moves it to the new key if it is already queued (in either direction)
+     */
+    public void update(int v, double key) {
+        if (pos[v] < 0) {
+            keys[v] = key;
+            heap[size] = v;
+            pos[v] = size;
+            siftUp(size++);
+        } else {
+            double old = keys[v];
+            keys[v] = key;
+            if (key < old) {
+                siftUp(pos[v]);
+            } else {
+                siftDown(pos[v]);
+            }
+        }
+    }
+
+    public int poll() {
+        int min = heap[0];
+        pos[min] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Empties the heap in O(size), so it can be reused across searches
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        double key = keys[v];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (keys[p] <= key) {
+                break;
+            }
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        double key = keys[v];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            int c = heap[child];
+            if (key <= keys[c]) {
+                break;
+            }
+            heap[i] = c;
+            pos[c] = i;
+            i = child;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+}
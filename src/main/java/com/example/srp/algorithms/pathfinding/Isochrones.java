@@ -0,0 +1,127 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.*;
+
+/**
+ * Service areas around a depot: for each threshold, the set of vertices reachable within it and
+ * the convex hull of their positions. All thresholds come out of one bounded search.
+ */
+public class Isochrones {
+    private final OneToManyDijkstra search;
+
+    public Isochrones(Graph graph, TrafficStore ts) {
+        this(new OneToManyDijkstra(graph, ts));
+    }
+
+    public Isochrones(OneToManyDijkstra search) {
+        this.search = search;
+    }
+
+    /**
+     * @param thresholds travel costs in the same unit as path distances, in any order
+     * @return one isochrone per threshold, in ascending threshold order
+     */
+    public List<Isochrone> compute(String depotId, int hour, double... thresholds) {
+        double[] sorted = thresholds.clone();
+        Arrays.sort(sorted);
+        if (sorted.length == 0) {
+            return Collections.emptyList();
+        }
+        ShortestPathTree tree = search.search(depotId, hour, sorted[sorted.length - 1]);
+        IndexedGraph graph = tree.getGraph();
+
+        // The tree is ordered by distance, so each band is a prefix of it
+        List<Isochrone> result = new ArrayList<>();
+        for (double threshold : sorted) {
+            int count = tree.countWithin(threshold);
+            Set<String> ids = new LinkedHashSet<>();
+            int[] members = new int[count];
+            for (int i = 0; i < count; i++) {
+                members[i] = tree.vertexAt(i);
+                ids.add(graph.idOf(members[i]));
+            }
+            result.add(new Isochrone(threshold, ids, convexHull(graph, members)));
+        }
+        return result;
+    }
+
+    // Andrew's monotone chain; returns hull vertex ids counter-clockwise
+    static List<String> convexHull(IndexedGraph graph, int[] members) {
+        Integer[] points = new Integer[members.length];
+        for (int i = 0; i < members.length; i++) {
+            points[i] = members[i];
+        }
+        Arrays.sort(points, Comparator.<Integer>comparingDouble(graph::x).thenComparingDouble(graph::y));
+        if (points.length < 3) {
+            List<String> ids = new ArrayList<>();
+            for (int p : points) {
+                ids.add(graph.idOf(p));
+            }
+            return ids;
+        }
+
+        int[] hull = new int[2 * points.length];
+        int k = 0;
+        for (int p : points) {
+            while (k >= 2 && cross(graph, hull[k - 2], hull[k - 1], p) <= 0) {
+                k--;
+            }
+            hull[k++] = p;
+        }
+        for (int i = points.length - 2, lower = k + 1; i >= 0; i--) {
+            int p = points[i];
+            while (k >= lower && cross(graph, hull[k - 2], hull[k - 1], p) <= 0) {
+                k--;
+            }
+            hull[k++] = p;
+        }
+        List<String> ids = new ArrayList<>(k - 1);
+        for (int i = 0; i < k - 1; i++) {
+            ids.add(graph.idOf(hull[i]));
+        }
+        return ids;
+    }
+
+    private static double cross(IndexedGraph graph, int o, int a, int b) {
+        return (graph.x(a) - graph.x(o)) * (graph.y(b) - graph.y(o))
+                - (graph.y(a) - graph.y(o)) * (graph.x(b) - graph.x(o));
+    }
+
+    /**
+     * Area reachable within one threshold
+     */
+    public static class Isochrone {
+        private final double threshold;
+        private final Set<String> vertices;
+        private final List<String> hull;
+
+        Isochrone(double threshold, Set<String> vertices, List<String> hull) {
+            this.threshold = threshold;
+            this.vertices = Collections.unmodifiableSet(vertices);
+            this.hull = Collections.unmodifiableList(hull);
+        }
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public Set<String> getVertices() {
+            return vertices;
+        }
+
+        /**
+         * Polygon around the reachable vertices, as vertex ids in counter-clockwise order
+         */
+        public List<String> getHull() {
+            return hull;
+        }
+
+        @Override
+        public String toString() {
+            return "Isochrone{threshold=" + threshold + ", vertices=" + vertices.size() + ", hull=" + hull.size() + "}";
+        }
+    }
+}
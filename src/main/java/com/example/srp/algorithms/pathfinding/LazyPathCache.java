@@ -0,0 +1,314 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.memory.MemoryBudget;
+import com.example.srp.memory.MemoryConsumer;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Path store over a fixed stop set that computes nothing up front.
+ *
+ * The first lookup from a stop runs one search from it that stops once every other stop is
+ * settled, and keeps that whole row: distances to all stops plus the search's predecessor array,
+ * from which a Path is walked only when get() asks for it. Rows are evicted least-recently-used
+ * once their estimated size exceeds the byte budget, so memory and cold-start time follow the
+ * rows the solvers actually touch. With symmetric roads a lookup is also answered from the
+ * target's row if that one is already loaded.
+ *
+ * Safe for concurrent readers: a missing row is loaded exactly once, other threads asking for
+ * the same row wait for that load instead of starting their own.
+ *
+ * Attached to a MemoryBudget, rows may also be released on the budget's behalf; their reload cost
+ * is the measured search time per row byte.
+ */
+public class LazyPathCache implements PathLookup, MemoryConsumer {
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private final IndexedGraph graph;
+    private final int hour;
+    private final boolean symmetric;
+    private final List<String> stops;
+    private final Map<String, Integer> stopIndex = new HashMap<>();
+    private final long maxBytes;
+
+    // Search state is per thread so rows of different sources load in parallel
+    private final ThreadLocal<OneToManyDijkstra> searches;
+
+    // Access-ordered, guarded by 'this'
+    private final LinkedHashMap<Integer, Row> rows = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long loads;
+    private long evictions;
+    private long searchNanos;
+    private long loadedBytes;
+
+    private final ConcurrentHashMap<Integer, CompletableFuture<Row>> loading = new ConcurrentHashMap<>();
+    private volatile MemoryBudget.Registration registration;
+
+    public LazyPathCache(IndexedGraph graph, TrafficStore ts, int hour, Collection<String> stopIds) {
+        this(graph, ts, hour, stopIds, DEFAULT_MAX_BYTES, true);
+    }
+
+    /**
+     * @param maxBytes  budget for loaded rows; the most recently used row is always kept
+     * @param symmetric true if a -> b and b -> a are the same road distance (two-way roads)
+     * @throws IllegalArgumentException if a stop is not in the graph
+     */
+    public LazyPathCache(IndexedGraph graph, TrafficStore ts, int hour, Collection<String> stopIds, long maxBytes, boolean symmetric) {
+        this.graph = graph;
+        this.hour = hour;
+        this.symmetric = symmetric;
+        this.maxBytes = maxBytes;
+        this.stops = new ArrayList<>();
+        for (String id : stopIds) {
+            if (graph.indexOf(id) < 0) {
+                throw new IllegalArgumentException("Unknown stop " + id);
+            }
+            if (!stopIndex.containsKey(id)) {
+                stopIndex.put(id, stops.size());
+                stops.add(id);
+            }
+        }
+        this.searches = ThreadLocal.withInitial(() -> new OneToManyDijkstra(graph, ts));
+    }
+
+    /**
+     * @return the path, computing its row if needed; null if either id is not a stop
+     */
+    @Override
+    public Path get(String from, String to) {
+        Integer i = stopIndex.get(from);
+        Integer j = stopIndex.get(to);
+        if (i == null || j == null) {
+            return null;
+        }
+        return get(i, j);
+    }
+
+    Path get(int i, int j) {
+        if (i == j) {
+            return new Path(Collections.singletonList(stops.get(i)), 0.0);
+        }
+        Row row = cachedRow(i);
+        if (row == null && symmetric) {
+            Row reverse = cachedRow(j);
+            if (reverse != null) {
+                return reverse.reversedPathTo(i);
+            }
+        }
+        if (row == null) {
+            row = loadRow(i);
+        }
+        return row.pathTo(j);
+    }
+
+    /**
+     * @return the distance, computing its row if needed; NaN if either id is not a stop
+     */
+    @Override
+    public double getDistance(String from, String to) {
+        Integer i = stopIndex.get(from);
+        Integer j = stopIndex.get(to);
+        if (i == null || j == null) {
+            return Double.NaN;
+        }
+        return getDistance(i, j);
+    }
+
+    @Override
+    public double getDistance(int from, int to) {
+        if (from == to) {
+            return 0.0;
+        }
+        Row row = cachedRow(from);
+        if (row == null && symmetric) {
+            Row reverse = cachedRow(to);
+            if (reverse != null) {
+                return reverse.distances[from];
+            }
+        }
+        if (row == null) {
+            row = loadRow(from);
+        }
+        return row.distances[to];
+    }
+
+    @Override
+    public int indexOf(String id) {
+        Integer i = stopIndex.get(id);
+        return (i == null) ? -1 : i;
+    }
+
+    @Override
+    public String idOf(int i) {
+        return stops.get(i);
+    }
+
+    @Override
+    public int size() {
+        return stops.size();
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    public int getHour() {
+        return hour;
+    }
+
+    public synchronized int loadedRows() {
+        return rows.size();
+    }
+
+    /**
+     * Estimated bytes held by the loaded rows
+     */
+    @Override
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Evicts least-recently-used rows, all of them if asked for enough
+     */
+    @Override
+    public synchronized long release(long bytes) {
+        long freed = 0;
+        Iterator<Map.Entry<Integer, Row>> eldest = rows.entrySet().iterator();
+        while (freed < bytes && eldest.hasNext()) {
+            freed += eldest.next().getValue().bytes;
+            eldest.remove();
+            evictions++;
+        }
+        usedBytes -= freed;
+        return freed;
+    }
+
+    @Override
+    public synchronized double reloadCostPerByte() {
+        return (loadedBytes == 0) ? 0.0 : (double) searchNanos / loadedBytes;
+    }
+
+    /**
+     * Registers this cache with the budget; from then on loaded rows are reported to it
+     * @return the registration, close it to detach
+     */
+    public MemoryBudget.Registration attachTo(MemoryBudget budget, String name) {
+        MemoryBudget.Registration attached = budget.register(name, this);
+        registration = attached;
+        return attached;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Number of row searches run so far; a re-load after eviction counts again
+     */
+    public synchronized long loadCount() {
+        return loads;
+    }
+
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    private synchronized Row cachedRow(int i) {
+        return rows.get(i);
+    }
+
+    private Row loadRow(int i) {
+        CompletableFuture<Row> mine = new CompletableFuture<>();
+        CompletableFuture<Row> pending = loading.putIfAbsent(i, mine);
+        if (pending != null) {
+            return pending.join();
+        }
+        try {
+            // Another thread may have finished this row between our miss and the putIfAbsent
+            Row row = cachedRow(i);
+            if (row == null) {
+                long start = System.nanoTime();
+                row = search(i);
+                store(i, row, System.nanoTime() - start);
+                MemoryBudget.Registration attached = registration;
+                if (attached != null) {
+                    attached.grew(row.bytes);
+                }
+            }
+            mine.complete(row);
+            return row;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(i, mine);
+        }
+    }
+
+    private Row search(int i) {
+        ShortestPathTree tree = searches.get().search(stops.get(i), hour, stops);
+        int k = stops.size();
+        double[] distances = new double[k];
+        for (int j = 0; j < k; j++) {
+            distances[j] = tree.distanceTo(stops.get(j));
+        }
+        return new Row(distances, tree.parents());
+    }
+
+    private synchronized void store(int i, Row row, long nanos) {
+        loads++;
+        searchNanos += nanos;
+        loadedBytes += row.bytes;
+        usedBytes += row.bytes;
+        rows.put(i, row);
+        Iterator<Map.Entry<Integer, Row>> eldest = rows.entrySet().iterator();
+        while (usedBytes > maxBytes && rows.size() > 1) {
+            Row evicted = eldest.next().getValue();
+            eldest.remove();
+            usedBytes -= evicted.bytes;
+            evictions++;
+        }
+    }
+
+    // Everything known from one source stop: distances by target stop, tree parents by map vertex
+    private class Row {
+        final double[] distances;
+        final int[] parent;
+        final long bytes;
+
+        Row(double[] distances, int[] parent) {
+            this.distances = distances;
+            this.parent = parent;
+            this.bytes = 32 + (long) Double.BYTES * distances.length + (long) Integer.BYTES * parent.length;
+        }
+
+        Path pathTo(int j) {
+            List<String> vertices = walkFrom(j);
+            Collections.reverse(vertices);
+            return new Path(vertices, distances[j]);
+        }
+
+        // The tree read from the leaf up is already the path from stop j to this row's source
+        Path reversedPathTo(int j) {
+            return new Path(walkFrom(j), distances[j]);
+        }
+
+        private List<String> walkFrom(int j) {
+            if (distances[j] == Double.POSITIVE_INFINITY) {
+                return new ArrayList<>();
+            }
+            List<String> vertices = new ArrayList<>();
+            for (int v = graph.indexOf(stops.get(j)); v >= 0; v = parent[v]) {
+                vertices.add(graph.idOf(v));
+            }
+            return vertices;
+        }
+    }
+}
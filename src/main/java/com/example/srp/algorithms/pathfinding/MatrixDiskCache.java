@@ -0,0 +1,364 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Path;
+import com.example.srp.traffic.TrafficStore;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Stop matrices persisted between runs, one file per map content, traffic version, hour and stop set.
+ *
+ * A file holds the distances and the vertex sequence of every stored pair. Warm starts memory-map
+ * the file and copy it into a PathCache without running a single search. Each file also carries
+ * the map and traffic hashes it was built from, so a changed map or traffic file never reuses it;
+ * files of the same map under an older traffic version are deleted as soon as they are noticed.
+ * The directory is kept under a byte budget by deleting the least recently used files.
+ */
+public class MatrixDiskCache {
+    public static final String DIRECTORY_PROPERTY = "srp.cacheDir";
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final int MAGIC = 0x53524D58;   // "SRMX"
+    private static final int VERSION = 1;
+    private static final String PREFIX = "matrix-";
+    private static final String SUFFIX = ".bin";
+
+    private final java.nio.file.Path directory;
+    private final long maxBytes;
+
+    public MatrixDiskCache(java.nio.file.Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Cache in the directory named by the srp.cacheDir system property, ~/.srp/matrices if unset
+     */
+    public static MatrixDiskCache configured() {
+        String dir = System.getProperty(DIRECTORY_PROPERTY);
+        java.nio.file.Path path = (dir == null || dir.isBlank())
+                ? Paths.get(System.getProperty("user.home"), ".srp", "matrices")
+                : Paths.get(dir.trim());
+        return new MatrixDiskCache(path, DEFAULT_MAX_BYTES);
+    }
+
+    public java.nio.file.Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Loads the matrix for these stops if a current file exists; otherwise builds it and stores it.
+     * Disk problems are reported and never stop the planner: it then just uses the built matrix.
+     */
+    public PathCache loadOrBuild(IndexedGraph graph, TrafficStore ts, int hour, Collection<String> stopIds,
+                                 Supplier<PathCache> builder) {
+        Key key = new Key(graph, ts, hour, stopIds);
+        try {
+            PathCache cached = load(key);
+            if (cached != null) {
+                return cached;
+            }
+        } catch (IOException e) {
+            System.err.println("Rebuilding matrix " + key.file + ": " + e.getMessage());
+        }
+        PathCache cache = builder.get();
+        try {
+            save(key, cache);
+        } catch (IOException e) {
+            System.err.println("Could not save matrix " + key.file + ": " + e.getMessage());
+        }
+        return cache;
+    }
+
+    /**
+     * @return the stored matrix, or null if there is none for this map, traffic, hour and stop set
+     * @throws IOException if the file exists but cannot be read
+     */
+    public PathCache load(IndexedGraph graph, TrafficStore ts, int hour, Collection<String> stopIds) throws IOException {
+        return load(new Key(graph, ts, hour, stopIds));
+    }
+
+    public void save(IndexedGraph graph, TrafficStore ts, int hour, Collection<String> stopIds, PathLookup cache) throws IOException {
+        save(new Key(graph, ts, hour, stopIds), cache);
+    }
+
+    /**
+     * Total size of the matrix files in the directory
+     */
+    public long usedBytes() throws IOException {
+        long total = 0;
+        for (java.nio.file.Path file : files()) {
+            total += Files.size(file);
+        }
+        return total;
+    }
+
+    private PathCache load(Key key) throws IOException {
+        if (!Files.exists(key.file)) {
+            return null;
+        }
+        int headerLength;
+        boolean matches;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(key.file)))) {
+            headerLength = in.readInt();
+            matches = in.readInt() == MAGIC && in.readInt() == VERSION
+                    && in.readUTF().equals(key.contentHash) && in.readUTF().equals(key.trafficHash)
+                    && in.readInt() == key.hour && in.readUTF().equals(key.stopHash);
+        }
+        if (!matches) {
+            // Same file name but other inputs: leftover or corrupt, never serve it
+            Files.delete(key.file);
+            return null;
+        }
+
+        PathCache cache;
+        try (FileChannel channel = FileChannel.open(key.file, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, headerLength, channel.size() - headerLength)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            cache = read(data, key.graph);
+        }
+        // Recently used files survive eviction
+        Files.setLastModifiedTime(key.file, FileTime.fromMillis(System.currentTimeMillis()));
+        return cache;
+    }
+
+    // Body: symmetric int | k int | stop vertices int[k] | pad | distances double[E] | geometryFirst int[E+1] | vertices int[]
+    private static PathCache read(ByteBuffer data, IndexedGraph graph) throws IOException {
+        boolean symmetric = data.getInt(0) != 0;
+        int k = data.getInt(Integer.BYTES);
+        PathCache cache = new PathCache(symmetric);
+        int pos = 2 * Integer.BYTES;
+        for (int i = 0; i < k; i++) {
+            int v = data.getInt(pos);
+            if (v < 0 || v >= graph.size()) {
+                throw new IOException("Matrix refers to vertex " + v + " outside the map");
+            }
+            cache.indexOrAdd(graph.idOf(v));
+            pos += Integer.BYTES;
+        }
+        pos = align(pos);
+
+        int entries = entryCount(k, symmetric);
+        int distanceBase = pos;
+        int firstBase = distanceBase + entries * Double.BYTES;
+        int vertexBase = firstBase + (entries + 1) * Integer.BYTES;
+        int e = 0;
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < (symmetric ? i + 1 : k); j++, e++) {
+                double distance = data.getDouble(distanceBase + e * Double.BYTES);
+                if (Double.isNaN(distance)) {
+                    continue;
+                }
+                int first = data.getInt(firstBase + e * Integer.BYTES);
+                int end = data.getInt(firstBase + (e + 1) * Integer.BYTES);
+                List<Integer> vertices = new ArrayList<>(end - first);
+                for (int p = first; p < end; p++) {
+                    vertices.add(data.getInt(vertexBase + p * Integer.BYTES));
+                }
+                // Symmetric entries are stored in the direction of the lower stop index
+                int from = symmetric ? j : i;
+                int to = symmetric ? i : j;
+                cache.put(cache.idOf(from), cache.idOf(to), graph.toPath(vertices, distance));
+            }
+        }
+        return cache;
+    }
+
+    private void save(Key key, PathLookup cache) throws IOException {
+        Files.createDirectories(directory);
+        boolean symmetric = cache.isSymmetric();
+        int k = cache.size();
+        int entries = entryCount(k, symmetric);
+
+        int[] stopVertices = new int[k];
+        for (int i = 0; i < k; i++) {
+            stopVertices[i] = key.graph.indexOf(cache.idOf(i));
+            if (stopVertices[i] < 0) {
+                throw new IOException("Stop " + cache.idOf(i) + " is not in the map");
+            }
+        }
+        double[] distances = new double[entries];
+        int[] geometryFirst = new int[entries + 1];
+        List<int[]> sequences = new ArrayList<>(entries);
+        int e = 0;
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < (symmetric ? i + 1 : k); j++, e++) {
+                Path path = symmetric ? cache.get(cache.idOf(j), cache.idOf(i)) : cache.get(cache.idOf(i), cache.idOf(j));
+                int[] sequence = new int[0];
+                distances[e] = Double.NaN;
+                if (path != null) {
+                    distances[e] = path.getTotalDistance();
+                    sequence = new int[path.getVertices().size()];
+                    for (int p = 0; p < sequence.length; p++) {
+                        sequence[p] = key.graph.indexOf(path.getVertices().get(p));
+                    }
+                }
+                sequences.add(sequence);
+                geometryFirst[e + 1] = geometryFirst[e] + sequence.length;
+            }
+        }
+
+        int bodyLength = align(2 * Integer.BYTES + k * Integer.BYTES) + entries * Double.BYTES
+                + (entries + 1) * Integer.BYTES + geometryFirst[entries] * Integer.BYTES;
+        ByteBuffer body = ByteBuffer.allocate(bodyLength).order(ByteOrder.LITTLE_ENDIAN);
+        body.putInt(symmetric ? 1 : 0).putInt(k);
+        for (int v : stopVertices) {
+            body.putInt(v);
+        }
+        body.position(align(body.position()));
+        for (double d : distances) {
+            body.putDouble(d);
+        }
+        for (int first : geometryFirst) {
+            body.putInt(first);
+        }
+        for (int[] sequence : sequences) {
+            for (int v : sequence) {
+                body.putInt(v);
+            }
+        }
+        body.flip();
+
+        // Write to a temporary file first so a crash never leaves a half-written matrix behind
+        java.nio.file.Path temp = Files.createTempFile(directory, PREFIX, ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(header(key)));
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+        Files.move(temp, key.file, StandardCopyOption.REPLACE_EXISTING);
+        evict(key);
+    }
+
+    /**
+     * Deletes files of this map built under another traffic version, then the least recently used
+     * files until the directory fits the budget. The file just written is always kept.
+     */
+    private void evict(Key current) throws IOException {
+        List<java.nio.file.Path> files = new ArrayList<>();
+        for (java.nio.file.Path file : files()) {
+            if (!file.equals(current.file) && isOtherTrafficVersion(file, current)) {
+                Files.deleteIfExists(file);
+            } else {
+                files.add(file);
+            }
+        }
+
+        Map<java.nio.file.Path, FileTime> used = new HashMap<>();
+        long total = 0;
+        for (java.nio.file.Path file : files) {
+            used.put(file, Files.getLastModifiedTime(file));
+            total += Files.size(file);
+        }
+        files.sort(Comparator.comparing(used::get));
+        for (java.nio.file.Path file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (!file.equals(current.file)) {
+                total -= Files.size(file);
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static boolean isOtherTrafficVersion(java.nio.file.Path file, Key current) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            in.readInt();
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return true;
+            }
+            return in.readUTF().equals(current.contentHash) && !in.readUTF().equals(current.trafficHash);
+        } catch (IOException e) {
+            // Unreadable files are stale too
+            return true;
+        }
+    }
+
+    private List<java.nio.file.Path> files() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<java.nio.file.Path> list = Files.list(directory)) {
+            return list.filter(f -> {
+                String name = f.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).toList();
+        }
+    }
+
+    // Header padded to 8 bytes so the mapped doubles stay aligned
+    private static byte[] header(Key key) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(key.contentHash);
+        out.writeUTF(key.trafficHash);
+        out.writeInt(key.hour);
+        out.writeUTF(key.stopHash);
+        while (out.size() % Double.BYTES != 0) {
+            out.writeByte(0);
+        }
+        byte[] header = bytes.toByteArray();
+        ByteBuffer.wrap(header).putInt(0, header.length);
+        return header;
+    }
+
+    private static int entryCount(int k, boolean symmetric) {
+        long entries = symmetric ? (long) k * (k + 1) / 2 : (long) k * k;
+        if (entries > Integer.MAX_VALUE / Double.BYTES) {
+            throw new IllegalArgumentException("Matrix of " + k + " stops is too large to persist");
+        }
+        return (int) entries;
+    }
+
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    // Everything a stored matrix depends on, and the file name derived from it
+    private class Key {
+        final IndexedGraph graph;
+        final String contentHash;
+        final String trafficHash;
+        final int hour;
+        final String stopHash;
+        final java.nio.file.Path file;
+
+        Key(IndexedGraph graph, TrafficStore ts, int hour, Collection<String> stopIds) {
+            this.graph = graph;
+            this.contentHash = graph.contentHash();
+            this.trafficHash = graph.trafficHash(ts);
+            this.hour = hour;
+            this.stopHash = sha256(String.join("\n", new TreeSet<>(stopIds)));
+            String name = sha256(contentHash + "|" + trafficHash + "|" + hour + "|" + stopHash);
+            this.file = directory.resolve(PREFIX + name.substring(0, 32) + SUFFIX);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One-to-all Dijkstra with an optional radius: the search stops as soon as the next vertex is
+ * farther than the cutoff, so "everything within X of the depot" costs only the area it covers.
+ */
+public class OneToManyDijkstra {
+    private final IndexedGraph graph;
+    private final TrafficStore ts;
+    private final Map<Integer, double[]> weights = new HashMap<>();
+
+    // Search state, reset after every query
+    private final double[] dist;
+    private final int[] touched;
+    private int touchedCount;
+    private final IndexedMinHeap heap;
+
+    public OneToManyDijkstra(Graph graph, TrafficStore ts) {
+        this(IndexedGraph.of(graph), ts);
+    }
+
+    public OneToManyDijkstra(IndexedGraph graph, TrafficStore ts) {
+        this.graph = graph;
+        this.ts = ts;
+        int n = graph.size();
+        this.dist = new double[n];
+        this.touched = new int[n];
+        this.heap = new IndexedMinHeap(n);
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+    }
+
+    public IndexedGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * All vertices reachable from the source at the given hour
+     */
+    public ShortestPathTree search(String sourceId, int hour) {
+        return search(sourceId, hour, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * All vertices whose distance from the source is at most radius
+     * @throws IllegalArgumentException if the source is not in the graph
+     */
+    public synchronized ShortestPathTree search(String sourceId, int hour, double radius) {
+        return run(indexOfSource(sourceId), hour, radius, null, 0, false);
+    }
+
+    /**
+     * Stops as soon as every target has been settled, so a row of a stop matrix only explores
+     * the area up to its farthest stop. Unknown or unreachable targets are simply not in the tree.
+     * @throws IllegalArgumentException if the source is not in the graph
+     */
+    public synchronized ShortestPathTree search(String sourceId, int hour, Collection<String> targetIds) {
+        return searchTargets(sourceId, hour, targetIds, false);
+    }
+
+    /**
+     * Like search(source, hour, targets), but the tree only holds vertices whose shortest path has
+     * no target on it other than the source and the vertex itself. A target whose shortest path runs
+     * through another target is left out: that target's own leg covers it. These direct legs are
+     * what a min-plus closure over the targets needs as its seed, and the search ends once every
+     * vertex still queued lies behind a target.
+     * @throws IllegalArgumentException if the source is not in the graph
+     */
+    public synchronized ShortestPathTree searchDirect(String sourceId, int hour, Collection<String> targetIds) {
+        return searchTargets(sourceId, hour, targetIds, true);
+    }
+
+    private ShortestPathTree searchTargets(String sourceId, int hour, Collection<String> targetIds, boolean direct) {
+        int source = indexOfSource(sourceId);
+        boolean[] isTarget = new boolean[graph.size()];
+        int remaining = 0;
+        for (String id : targetIds) {
+            int t = graph.indexOf(id);
+            if (t >= 0 && !isTarget[t]) {
+                isTarget[t] = true;
+                remaining++;
+            }
+        }
+        return run(source, hour, Double.POSITIVE_INFINITY, isTarget, remaining, direct);
+    }
+
+    private int indexOfSource(String sourceId) {
+        int source = graph.indexOf(sourceId);
+        if (source < 0) {
+            throw new IllegalArgumentException("Unknown vertex " + sourceId);
+        }
+        return source;
+    }
+
+    private ShortestPathTree run(int source, int hour, double radius, boolean[] isTarget, int remaining, boolean direct) {
+        double[] w = weights.computeIfAbsent(hour, h -> graph.weights(ts, h));
+        int[] parent = new int[graph.size()];
+        Arrays.fill(parent, -1);
+        // Direct searches: whether the vertex's shortest path so far passes through another target
+        boolean[] blocked = direct ? new boolean[graph.size()] : null;
+        int open = 1;
+
+        int[] settled = new int[graph.size()];
+        double[] settledDist = new double[graph.size()];
+        int count = 0;
+
+        relax(source, 0.0);
+        while (!heap.isEmpty() && heap.peekKey() <= radius) {
+            int u = heap.poll();
+            boolean behind = direct && blocked[u];
+            if (direct && !behind) {
+                open--;
+            }
+            if (!behind) {
+                settled[count] = u;
+                settledDist[count] = dist[u];
+                count++;
+            }
+            if (isTarget != null && isTarget[u] && --remaining == 0) {
+                break;
+            }
+            // Everything past a target other than the source is behind it
+            boolean blocks = behind || (direct && isTarget[u] && u != source);
+            for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                int v = graph.head(a);
+                if (direct) {
+                    open += relaxDirect(u, v, dist[u] + w[a], blocks, parent, blocked);
+                } else if (relax(v, dist[u] + w[a])) {
+                    parent[v] = u;
+                }
+            }
+            if (direct && open == 0) {
+                break;
+            }
+        }
+
+        // Vertices still queued beyond the cutoff keep a parent but are not part of the tree
+        for (int i = 0; i < touchedCount; i++) {
+            dist[touched[i]] = Double.POSITIVE_INFINITY;
+        }
+        touchedCount = 0;
+        heap.clear();
+        return new ShortestPathTree(graph, source, Arrays.copyOf(settled, count),
+                Arrays.copyOf(settledDist, count), parent);
+    }
+
+    // Relaxes v and keeps its blocked flag; returns the change in queued vertices that are not blocked
+    private int relaxDirect(int u, int v, double d, boolean blocks, int[] parent, boolean[] blocked) {
+        boolean open = heap.contains(v) && !blocked[v];
+        if (relax(v, d)) {
+            blocked[v] = blocks;
+        } else if (d == dist[v] && !blocks && blocked[v] && heap.contains(v)) {
+            // Equally short without passing a target
+            blocked[v] = false;
+        } else {
+            return 0;
+        }
+        parent[v] = u;
+        return (blocks ? 0 : 1) - (open ? 1 : 0);
+    }
+
+    private boolean relax(int v, double d) {
+        if (d < dist[v]) {
+            if (dist[v] == Double.POSITIVE_INFINITY) {
+                touched[touchedCount++] = v;
+            }
+            dist[v] = d;
+            heap.update(v, d);
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,20 +1,281 @@
 package com.example.srp.algorithms.pathfinding;
 
+import com.example.srp.algorithms.matrix.AsymmetricDistanceMatrix;
+import com.example.srp.algorithms.matrix.DistanceMatrix;
+import com.example.srp.algorithms.matrix.SymmetricDistanceMatrix;
+import com.example.srp.memory.MemoryBudget;
+import com.example.srp.memory.MemoryConsumer;
 import com.example.srp.models.Path;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
-public class PathCache {
-    Map<String, Map<String, Path>> cache=new HashMap<>();
+/**
+ * Shortest paths between stops.
+ *
+ * Distances live in a flat DistanceMatrix indexed by stop number, so solvers can read them with
+ * getDistance (by id or by index) without building Path objects. Vertex sequences are kept apart
+ * and stored once per pair; get() assembles a Path, reversing the sequence when asked backwards.
+ *
+ * Rows filled with putTree store no sequences at all, only the search's predecessor array (one int
+ * per map vertex). Their paths are walked out of that array when get() is called, which in the
+ * planner is only for the legs RouteExpander actually expands.
+ *
+ * A cache attached to a MemoryBudget counts towards it; it cannot recompute its entries and is
+ * never asked to release any.
+ */
+public class PathCache implements PathLookup, MemoryConsumer {
+    // Rough heap cost of the bookkeeping around a stop, a stored sequence and a predecessor array;
+    // vertex id strings are shared with the Graph and not counted
+    static final long STOP_BYTES = 64;
+    static final long SEQUENCE_BYTES = 96;
+    static final long TREE_BYTES = 64;
+
+    private final Map<String, Integer> index = new HashMap<>();
+    private final List<String> ids = new ArrayList<>();
+    private final DistanceMatrix distances;
+    private final Map<Long, List<String>> geometry = new HashMap<>();
+
+    // Predecessor arrays of one-to-many searches by source stop index, over treeGraph's vertices
+    private final Map<Integer, int[]> trees = new HashMap<>();
+    private IndexedGraph treeGraph;
+
+    private long geometryBytes;
+    private long treeBytes;
+    private volatile MemoryBudget.Registration registration;
+
+    public PathCache() {
+        this(true);
+    }
+
+    /**
+     * @param symmetric true if put(a, b) also answers b -> a (roads in this planner are two-way);
+     *                  false keeps both directions apart
+     */
+    public PathCache(boolean symmetric) {
+        this(symmetric ? new SymmetricDistanceMatrix(0) : new AsymmetricDistanceMatrix(0));
+    }
+
+    /**
+     * Stores distances in the given empty matrix, e.g. an OffHeapDistanceMatrix for very large stop sets
+     */
+    public PathCache(DistanceMatrix distances) {
+        if (distances.size() != 0) {
+            throw new IllegalArgumentException("PathCache needs an empty matrix, got " + distances.size() + " stops");
+        }
+        this.distances = distances;
+    }
 
     public void put(String from, String to, Path path) {
-        cache.computeIfAbsent(from, k-> new HashMap<>()).put(to, path);
-        cache.computeIfAbsent(to, k-> new HashMap<>()).put(from, path.reversed());
+        int i = indexOrAdd(from);
+        int j = indexOrAdd(to);
+        distances.set(i, j, path.getTotalDistance());
+        List<String> replaced;
+        // Sequences are stored in the direction of the lower index for symmetric caches
+        if (distances.isSymmetric() && i > j) {
+            List<String> vertices = new ArrayList<>(path.getVertices());
+            Collections.reverse(vertices);
+            replaced = geometry.put(pairKey(j, i), vertices);
+        } else {
+            replaced = geometry.put(pairKey(i, j), path.getVertices());
+        }
+        long grown = sequenceBytes(path.getVertices().size()) - (replaced == null ? 0 : sequenceBytes(replaced.size()));
+        geometryBytes += grown;
+        reportGrowth(grown);
+    }
+
+    /**
+     * Stores only the distance; get() returns null for such a pair. Keeps large matrices free of
+     * per-pair heap objects.
+     */
+    public void putDistance(String from, String to, double distance) {
+        distances.set(indexOrAdd(from), indexOrAdd(to), distance);
+    }
+
+    /**
+     * Stores the distances from the tree's source to every stop the cache already knows, and keeps
+     * only the tree's predecessor array to expand those paths on demand. Register the stops first,
+     * see DistanceMatrixBuilder.buildFromTrees.
+     * @throws IllegalArgumentException if an earlier tree came from a different IndexedGraph
+     */
+    public void putTree(ShortestPathTree tree) {
+        if (treeGraph != null && treeGraph != tree.getGraph()) {
+            throw new IllegalArgumentException("All trees of a PathCache must come from the same IndexedGraph");
+        }
+        treeGraph = tree.getGraph();
+        int i = indexOrAdd(tree.getSource());
+        for (int j = 0; j < ids.size(); j++) {
+            distances.set(i, j, tree.distanceTo(ids.get(j)));
+        }
+        int[] parent = tree.parents();
+        int[] replaced = trees.put(i, parent);
+        long grown = TREE_BYTES + (long) Integer.BYTES * parent.length
+                - (replaced == null ? 0 : TREE_BYTES + (long) Integer.BYTES * replaced.length);
+        treeBytes += grown;
+        reportGrowth(grown);
     }
 
+    /**
+     * @return the path, or null if the pair was never stored
+     */
+    @Override
     public Path get(String from, String to) {
-        return cache.getOrDefault(from, Collections.emptyMap()).get(to);
+        Integer i = index.get(from);
+        Integer j = index.get(to);
+        if (i == null || j == null) {
+            return null;
+        }
+        return get(i, j);
+    }
+
+    private Path get(int i, int j) {
+        double distance = distances.get(i, j);
+        if (Double.isNaN(distance)) {
+            return null;
+        }
+        boolean flip = distances.isSymmetric() && i > j;
+        List<String> vertices = geometry.get(flip ? pairKey(j, i) : pairKey(i, j));
+        if (vertices == null) {
+            return fromTree(i, j, distance);
+        }
+        if (flip) {
+            vertices = new ArrayList<>(vertices);
+            Collections.reverse(vertices);
+        }
+        return new Path(vertices, distance);
+    }
+
+    // Walks the predecessor array of i's row, or of j's row read backwards on symmetric roads
+    private Path fromTree(int i, int j, double distance) {
+        int[] parent = trees.get(i);
+        boolean fromTarget = false;
+        if (parent == null && distances.isSymmetric()) {
+            parent = trees.get(j);
+            fromTarget = true;
+        }
+        if (parent == null) {
+            return null;
+        }
+        if (distance == Double.POSITIVE_INFINITY) {
+            return new Path(Collections.emptyList(), distance);
+        }
+        // Walking up the tree yields the leaf-to-root order
+        int leaf = treeGraph.indexOf(ids.get(fromTarget ? i : j));
+        List<String> vertices = new ArrayList<>();
+        for (int v = leaf; v >= 0; v = parent[v]) {
+            vertices.add(treeGraph.idOf(v));
+        }
+        if (!fromTarget) {
+            Collections.reverse(vertices);
+        }
+        return new Path(vertices, distance);
+    }
+
+    /**
+     * @return the distance, or NaN if the pair was never stored
+     */
+    @Override
+    public double getDistance(String from, String to) {
+        Integer i = index.get(from);
+        Integer j = index.get(to);
+        if (i == null || j == null) {
+            return Double.NaN;
+        }
+        return distances.get(i, j);
+    }
+
+    /**
+     * O(1) lookup by stop index, see indexOf; NaN if the pair was never stored
+     */
+    @Override
+    public double getDistance(int from, int to) {
+        return distances.get(from, to);
+    }
+
+    @Override
+    public int indexOf(String id) {
+        Integer i = index.get(id);
+        return (i == null) ? -1 : i;
+    }
+
+    @Override
+    public String idOf(int i) {
+        return ids.get(i);
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    @Override
+    public boolean isSymmetric() {
+        return distances.isSymmetric();
+    }
+
+    public DistanceMatrix getDistances() {
+        return distances;
+    }
+
+    /**
+     * Registers this cache with the budget; from then on new entries are reported to it
+     * @return the registration, close it to detach
+     */
+    public MemoryBudget.Registration attachTo(MemoryBudget budget, String name) {
+        MemoryBudget.Registration attached = budget.register(name, this);
+        registration = attached;
+        return attached;
+    }
+
+    /**
+     * Estimated bytes of the matrix, the stored sequences, the predecessor arrays and the stop index
+     */
+    @Override
+    public long usedBytes() {
+        return distances.sizeInBytes() + geometryBytes + treeBytes + STOP_BYTES * ids.size();
+    }
+
+    @Override
+    public long release(long bytes) {
+        return 0;
+    }
+
+    @Override
+    public double reloadCostPerByte() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Tells the budget this cache is attached to, if any, that it holds more
+     */
+    private void reportGrowth(long bytes) {
+        MemoryBudget.Registration attached = registration;
+        if (attached != null && bytes > 0) {
+            attached.grew(bytes);
+        }
+    }
+
+    static long sequenceBytes(int vertices) {
+        return SEQUENCE_BYTES + (long) Integer.BYTES * vertices;
+    }
+
+    /**
+     * Index of the stop, registering it (with no distances yet) if it is new
+     */
+    int indexOrAdd(String id) {
+        Integer i = index.get(id);
+        if (i != null) {
+            return i;
+        }
+        int added = ids.size();
+        index.put(id, added);
+        ids.add(id);
+        long before = distances.sizeInBytes();
+        distances.ensureSize(ids.size());
+        reportGrowth(STOP_BYTES + distances.sizeInBytes() - before);
+        return added;
+    }
+
+    private static long pairKey(int i, int j) {
+        return ((long) i << 32) | (j & 0xFFFFFFFFL);
     }
 }
@@ -0,0 +1,53 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.algorithms.arcflags.ArcFlagPathFinder;
+import com.example.srp.algorithms.hierarchy.CHPathFinder;
+import com.example.srp.algorithms.landmarks.ALTPathFinder;
+import com.example.srp.algorithms.overlay.CRPPathFinder;
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.Locale;
+
+/**
+ * The available point-to-point engines.
+ * The engine used by default is chosen with the system property srp.engine, e.g. -Dsrp.engine=radix_heap.
+ */
+public enum PathEngine {
+    DIJKSTRA,
+    BIDIRECTIONAL_DIJKSTRA,
+    RADIX_HEAP,
+    ALT,
+    ARC_FLAGS,
+    CONTRACTION_HIERARCHY,
+    CRP;
+
+    public static final String PROPERTY = "srp.engine";
+
+    public PathFinder create(Graph graph, TrafficStore ts) {
+        return switch (this) {
+            case DIJKSTRA -> new Dijkstra(graph, ts);
+            case BIDIRECTIONAL_DIJKSTRA -> new BidirectionalDijkstra(graph, ts);
+            case RADIX_HEAP -> new RadixHeapDijkstra(graph, ts);
+            case ALT -> new ALTPathFinder(graph, ts);
+            case ARC_FLAGS -> new ArcFlagPathFinder(graph, ts);
+            case CONTRACTION_HIERARCHY -> new CHPathFinder(graph, ts);
+            case CRP -> new CRPPathFinder(graph, ts);
+        };
+    }
+
+    /**
+     * Engine named by the srp.engine system property, bidirectional Dijkstra if unset
+     */
+    public static PathEngine configured() {
+        String name = System.getProperty(PROPERTY);
+        if (name == null || name.isBlank()) {
+            return BIDIRECTIONAL_DIJKSTRA;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + PROPERTY + " '" + name + "'", e);
+        }
+    }
+}
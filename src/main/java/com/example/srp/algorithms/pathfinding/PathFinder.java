@@ -0,0 +1,11 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Path;
+
+/**
+ * Point-to-point shortest path engine.
+ * Implementations return an empty path with infinite distance when the target is unreachable.
+ */
+public interface PathFinder {
+    Path findShortestPath(String sourceId, String targetId, int hour);
+}
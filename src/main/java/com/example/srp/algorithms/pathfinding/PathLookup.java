@@ -0,0 +1,43 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Path;
+
+/**
+ * Read side of a stop-to-stop path store: what solvers, assigners and route expansion need.
+ *
+ * Stops are numbered 0..size()-1 so hot loops can read distances by index. Implementations may
+ * compute entries on first lookup; how entries get in is up to each of them.
+ */
+public interface PathLookup {
+    /**
+     * @return the path, or null if the store has none for this pair
+     */
+    Path get(String from, String to);
+
+    /**
+     * @return the distance, infinity if unreachable, NaN if the store has none for this pair
+     */
+    double getDistance(String from, String to);
+
+    /**
+     * Lookup by stop index, see indexOf; same values as by id
+     */
+    double getDistance(int from, int to);
+
+    /**
+     * @return the stop index of a vertex id, or -1 if the store holds nothing for it
+     */
+    int indexOf(String id);
+
+    String idOf(int i);
+
+    /**
+     * Number of stops with an index
+     */
+    int size();
+
+    /**
+     * True if a -> b and b -> a always have the same distance
+     */
+    boolean isSymmetric();
+}
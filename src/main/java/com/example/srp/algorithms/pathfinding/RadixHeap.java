@@ -0,0 +1,99 @@
+package com.example.srp.algorithms.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Monotone priority queue for non-negative integer keys (radix heap).
+ *
+ * Keys pushed must never be smaller than the last key polled, which Dijkstra guarantees.
+ * Entry (v, k) lives in bucket 0 if k equals the last polled key, otherwise in the bucket of the
+ * highest bit where k differs from it; each entry moves down at most 64 times, so there are no
+ * comparisons between keys at all except when a bucket is redistributed.
+ *
+ * There is no decrease-key: pushing a vertex again leaves the old entry behind, and callers
+ * skip entries whose key no longer matches the vertex's distance.
+ */
+public class RadixHeap {
+    private static final int BUCKETS = 65;
+
+    private final int[][] vertices = new int[BUCKETS][];
+    private final long[][] keys = new long[BUCKETS][];
+    private final int[] sizes = new int[BUCKETS];
+    private long last;
+    private int size;
+    private long polledKey;
+
+    public RadixHeap() {
+        for (int b = 0; b < BUCKETS; b++) {
+            vertices[b] = new int[4];
+            keys[b] = new long[4];
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void push(int v, long key) {
+        if (key < last) {
+            throw new IllegalArgumentException("Key " + key + " is below the last polled key " + last);
+        }
+        add(bucketOf(key), v, key);
+        size++;
+    }
+
+    /**
+     * Removes an entry with the minimum key and returns its vertex; the key is then polledKey()
+     */
+    public int poll() {
+        if (sizes[0] == 0) {
+            int b = 1;
+            while (sizes[b] == 0) {
+                b++;
+            }
+            // New minimum becomes the reference; every entry of b lands in a lower bucket
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < sizes[b]; i++) {
+                min = Math.min(min, keys[b][i]);
+            }
+            last = min;
+            int count = sizes[b];
+            sizes[b] = 0;
+            for (int i = 0; i < count; i++) {
+                add(bucketOf(keys[b][i]), vertices[b][i], keys[b][i]);
+            }
+        }
+        size--;
+        int i = --sizes[0];
+        polledKey = keys[0][i];
+        return vertices[0][i];
+    }
+
+    public long polledKey() {
+        return polledKey;
+    }
+
+    public void clear() {
+        Arrays.fill(sizes, 0);
+        size = 0;
+        last = 0;
+    }
+
+    private int bucketOf(long key) {
+        return (key == last) ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void add(int b, int v, long key) {
+        if (sizes[b] == vertices[b].length) {
+            vertices[b] = Arrays.copyOf(vertices[b], sizes[b] * 2);
+            keys[b] = Arrays.copyOf(keys[b], sizes[b] * 2);
+        }
+        vertices[b][sizes[b]] = v;
+        keys[b][sizes[b]] = key;
+        sizes[b]++;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.*;
+
+/**
+ * Dijkstra on integer-quantized weights with a RadixHeap instead of a comparison heap.
+ *
+ * Every arc weight w is replaced by round(w * scale). Each rounding is off by at most
+ * 0.5 / scale, so the path found is at most (|P| + |P*|) / (2 * scale) longer than the true
+ * shortest path P*, where |P| counts arcs. The returned distance is the exact length of the path
+ * found, summed from the unrounded weights, so it is never below the true optimum.
+ * With the default scale of 1000 and paths of a few hundred roads the error stays below 0.5 units.
+ *
+ * Only the per-hour weight tables are built under a lock; each thread searches with its own arrays.
+ */
+public class RadixHeapDijkstra implements PathFinder {
+    public static final double DEFAULT_SCALE = 1000.0;
+
+    private final IndexedGraph graph;
+    private final TrafficStore ts;
+    private final double scale;
+    private final Map<Integer, double[]> weights = new HashMap<>();
+    private final Map<Integer, long[]> quantized = new HashMap<>();
+
+    // Search state is per thread, reset after every query
+    private final ThreadLocal<Search> searches;
+
+    public RadixHeapDijkstra(Graph graph, TrafficStore ts) {
+        this(IndexedGraph.of(graph), ts, DEFAULT_SCALE);
+    }
+
+    /**
+     * @param scale integer units per distance unit, e.g. 100 for centimetres when distances are metres
+     */
+    public RadixHeapDijkstra(IndexedGraph graph, TrafficStore ts, double scale) {
+        this.graph = graph;
+        this.ts = ts;
+        this.scale = scale;
+        this.searches = ThreadLocal.withInitial(() -> new Search(graph.size()));
+    }
+
+    /**
+     * Worst-case excess of a returned distance over the optimum, for paths of up to the given number of roads
+     */
+    public double errorBound(int arcs) {
+        return arcs / scale;
+    }
+
+    @Override
+    public Path findShortestPath(String sourceId, String targetId, int hour) {
+        int source = graph.indexOf(sourceId);
+        int target = graph.indexOf(targetId);
+        if (source < 0 || target < 0) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+        return searches.get().run(source, target, quantizedFor(hour), weightsFor(hour));
+    }
+
+    private synchronized long[] quantizedFor(int hour) {
+        return quantized.computeIfAbsent(hour, this::quantize);
+    }
+
+    private long[] quantize(int hour) {
+        double[] w = weightsFor(hour);
+        long[] q = new long[w.length];
+        for (int a = 0; a < w.length; a++) {
+            q[a] = Math.round(w[a] * scale);
+        }
+        return q;
+    }
+
+    private synchronized double[] weightsFor(int hour) {
+        return weights.computeIfAbsent(hour, h -> graph.weights(ts, h));
+    }
+
+    private class Search {
+        final long[] dist;
+        final int[] parent;
+        final int[] parentArc;
+        final int[] touched;
+        int touchedCount;
+        final RadixHeap heap = new RadixHeap();
+
+        Search(int n) {
+            dist = new long[n];
+            parent = new int[n];
+            parentArc = new int[n];
+            touched = new int[n];
+            Arrays.fill(dist, Long.MAX_VALUE);
+        }
+
+        Path run(int source, int target, long[] q, double[] w) {
+            relax(source, -1, -1, 0L);
+            boolean found = false;
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                if (heap.polledKey() != dist[u]) {
+                    continue;   // superseded entry
+                }
+                if (u == target) {
+                    found = true;
+                    break;
+                }
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    relax(graph.head(a), u, a, dist[u] + q[a]);
+                }
+            }
+
+            Path path;
+            if (found) {
+                double exact = 0.0;
+                List<Integer> vertices = new ArrayList<>();
+                for (int v = target; v != source; v = parent[v]) {
+                    vertices.add(v);
+                    exact += w[parentArc[v]];
+                }
+                vertices.add(source);
+                Collections.reverse(vertices);
+                path = graph.toPath(vertices, exact);
+            } else {
+                path = new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+            }
+            reset();
+            return path;
+        }
+
+        void relax(int v, int from, int arc, long d) {
+            if (d < dist[v]) {
+                if (dist[v] == Long.MAX_VALUE) {
+                    touched[touchedCount++] = v;
+                }
+                dist[v] = d;
+                parent[v] = from;
+                parentArc[v] = arc;
+                heap.push(v, d);
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Long.MAX_VALUE;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a one-to-many search: every reached vertex with its distance and tree parent,
+ * in the order the search settled them (so by non-decreasing distance).
+ */
+public class ShortestPathTree {
+    private final IndexedGraph graph;
+    private final int source;
+    private final int[] vertices;
+    private final double[] distances;   // distances[i] belongs to vertices[i]
+    private final int[] position;       // index into vertices, -1 if unreached
+    private final int[] parent;         // by vertex index, -1 for the source and unreached vertices
+
+    ShortestPathTree(IndexedGraph graph, int source, int[] vertices, double[] distances, int[] parent) {
+        this.graph = graph;
+        this.source = source;
+        this.vertices = vertices;
+        this.distances = distances;
+        this.parent = parent;
+        this.position = new int[graph.size()];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < vertices.length; i++) {
+            position[vertices[i]] = i;
+        }
+    }
+
+    public String getSource() {
+        return graph.idOf(source);
+    }
+
+    public int size() {
+        return vertices.length;
+    }
+
+    public boolean contains(String id) {
+        int v = graph.indexOf(id);
+        return v >= 0 && position[v] >= 0;
+    }
+
+    /**
+     * @return the distance from the source, or infinity if the vertex was not reached
+     */
+    public double distanceTo(String id) {
+        int v = graph.indexOf(id);
+        return (v < 0 || position[v] < 0) ? Double.POSITIVE_INFINITY : distances[position[v]];
+    }
+
+    /**
+     * Reached vertex ids, nearest first
+     */
+    public List<String> reachedIds() {
+        List<String> ids = new ArrayList<>(vertices.length);
+        for (int v : vertices) {
+            ids.add(graph.idOf(v));
+        }
+        return ids;
+    }
+
+    /**
+     * Number of reached vertices within the given distance
+     */
+    public int countWithin(double limit) {
+        int low = 0;
+        int high = distances.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (distances[mid] <= limit) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int vertexAt(int i) {
+        return vertices[i];
+    }
+
+    double distanceAt(int i) {
+        return distances[i];
+    }
+
+    IndexedGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Tree parent of every vertex index, -1 for the source; only meaningful for reached vertices
+     */
+    int[] parents() {
+        return parent;
+    }
+
+    /**
+     * Tree path from the source, or an empty path with infinite distance if not reached
+     */
+    public Path pathTo(String id) {
+        int v = graph.indexOf(id);
+        if (v < 0 || position[v] < 0) {
+            return new Path(Collections.emptyList(), Double.POSITIVE_INFINITY);
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int u = v; u >= 0; u = parent[u]) {
+            path.add(u);
+        }
+        Collections.reverse(path);
+        return graph.toPath(path, distances[position[v]]);
+    }
+}
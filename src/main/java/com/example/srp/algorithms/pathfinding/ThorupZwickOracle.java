@@ -0,0 +1,210 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Approximate distance oracle of Thorup and Zwick with k = 2: every answer d' satisfies
+ * d <= d' <= 3d for the true distance d, using O(n^1.5) space instead of an n x n matrix.
+ *
+ * About sqrt(n) sampled vertices keep full distance rows. Every other vertex v keeps its bunch:
+ * the vertices closer to v than v's nearest sample, with exact distances. A query answers exactly
+ * when one endpoint is in the other's bunch, and otherwise detours through the nearest sample.
+ *
+ * Meant for decisions that tolerate error, such as assigning stops to buses; compute exact
+ * distances afterwards only for the pairs that matter.
+ */
+public class ThorupZwickOracle implements DistanceOracle {
+    public static final int STRETCH = 3;
+
+    private final IndexedGraph graph;
+    private final int[] sampleIndex;       // position of v among the samples, -1 if not sampled
+    private final double[][] sampleRows;   // sampleRows[i][v] = d(sample i, v)
+    private final int[] nearestSample;     // -1 if v's component holds no sample
+    private final double[] nearestDist;
+    private final int[][] bunchVertices;   // sorted
+    private final double[][] bunchDists;
+
+    public ThorupZwickOracle(Graph graph, TrafficStore ts, int hour) {
+        this(IndexedGraph.of(graph), ts, hour, 42);
+    }
+
+    public ThorupZwickOracle(IndexedGraph graph, TrafficStore ts, int hour, long seed) {
+        this.graph = graph;
+        double[] weights = graph.weights(ts, hour);
+        int n = graph.size();
+
+        // Sample each vertex with probability 1/sqrt(n), at least one
+        Random random = new Random(seed);
+        double p = 1.0 / Math.sqrt(Math.max(1, n));
+        int[] samples = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (random.nextDouble() < p) {
+                samples[count++] = v;
+            }
+        }
+        if (count == 0 && n > 0) {
+            samples[count++] = random.nextInt(n);
+        }
+        samples = Arrays.copyOf(samples, count);
+
+        this.sampleIndex = new int[n];
+        Arrays.fill(sampleIndex, -1);
+        this.sampleRows = new double[count][];
+        Search search = new Search(graph, weights);
+        for (int i = 0; i < count; i++) {
+            sampleIndex[samples[i]] = i;
+            sampleRows[i] = search.run(new int[]{samples[i]}, null, null).clone();
+        }
+
+        this.nearestSample = new int[n];
+        this.nearestDist = search.run(samples, nearestSample, null).clone();
+
+        // Cluster of w: vertices v with d(w, v) < d(v, samples); w joins the bunch of each of them
+        int[] bunchSize = new int[n];
+        int[][] vertices = new int[n][4];
+        double[][] dists = new double[n][4];
+        for (int w = 0; w < n; w++) {
+            if (sampleIndex[w] >= 0) {
+                continue;
+            }
+            double[] d = search.run(new int[]{w}, null, nearestDist);
+            for (int i = 0; i < search.touchedCount; i++) {
+                int v = search.touched[i];
+                if (bunchSize[v] == vertices[v].length) {
+                    vertices[v] = Arrays.copyOf(vertices[v], bunchSize[v] * 2);
+                    dists[v] = Arrays.copyOf(dists[v], bunchSize[v] * 2);
+                }
+                vertices[v][bunchSize[v]] = w;
+                dists[v][bunchSize[v]] = d[v];
+                bunchSize[v]++;
+            }
+        }
+        // Members were added in ascending w, so each bunch is already sorted
+        this.bunchVertices = new int[n][];
+        this.bunchDists = new double[n][];
+        for (int v = 0; v < n; v++) {
+            bunchVertices[v] = Arrays.copyOf(vertices[v], bunchSize[v]);
+            bunchDists[v] = Arrays.copyOf(dists[v], bunchSize[v]);
+        }
+    }
+
+    @Override
+    public double distance(String sourceId, String targetId) {
+        int u = graph.indexOf(sourceId);
+        int v = graph.indexOf(targetId);
+        if (u < 0 || v < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return distance(u, v);
+    }
+
+    /**
+     * Distance estimate between two vertex indices, at most STRETCH times the true distance
+     */
+    public double distance(int u, int v) {
+        if (u == v) {
+            return 0.0;
+        }
+        if (sampleIndex[u] >= 0) {
+            return sampleRows[sampleIndex[u]][v];
+        }
+        if (sampleIndex[v] >= 0) {
+            return sampleRows[sampleIndex[v]][u];
+        }
+        int i = Arrays.binarySearch(bunchVertices[v], u);
+        if (i >= 0) {
+            return bunchDists[v][i];
+        }
+        i = Arrays.binarySearch(bunchVertices[u], v);
+        if (i >= 0) {
+            return bunchDists[u][i];
+        }
+        // Neither is in the other's bunch: detour via whichever nearest sample is better
+        double best = Double.POSITIVE_INFINITY;
+        if (nearestSample[u] >= 0) {
+            best = nearestDist[u] + sampleRows[sampleIndex[nearestSample[u]]][v];
+        }
+        if (nearestSample[v] >= 0) {
+            best = Math.min(best, nearestDist[v] + sampleRows[sampleIndex[nearestSample[v]]][u]);
+        }
+        return best;
+    }
+
+    public int sampleCount() {
+        return sampleRows.length;
+    }
+
+    public double averageBunchSize() {
+        long total = 0;
+        for (int[] bunch : bunchVertices) {
+            total += bunch.length;
+        }
+        return bunchVertices.length == 0 ? 0.0 : (double) total / bunchVertices.length;
+    }
+
+    // Reusable Dijkstra over the whole graph
+    private static class Search {
+        final IndexedGraph graph;
+        final double[] weights;
+        final double[] dist;
+        final int[] touched;
+        int touchedCount;
+        final IndexedMinHeap heap;
+
+        Search(IndexedGraph graph, double[] weights) {
+            this.graph = graph;
+            this.weights = weights;
+            int n = graph.size();
+            dist = new double[n];
+            touched = new int[n];
+            heap = new IndexedMinHeap(n);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * @param origin if not null, receives the source each vertex was reached from
+         * @param bound  if not null, a vertex is only reached when strictly closer than bound[v]
+         * @return distances, valid until the next run; reached vertices are touched[0 .. touchedCount-1]
+         */
+        double[] run(int[] sources, int[] origin, double[] bound) {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            if (origin != null) {
+                Arrays.fill(origin, -1);
+            }
+            for (int s : sources) {
+                dist[s] = 0.0;
+                touched[touchedCount++] = s;
+                if (origin != null) {
+                    origin[s] = s;
+                }
+                heap.update(s, 0.0);
+            }
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    int v = graph.head(a);
+                    double candidate = dist[u] + weights[a];
+                    if (candidate < dist[v] && (bound == null || candidate < bound[v])) {
+                        if (dist[v] == Double.POSITIVE_INFINITY) {
+                            touched[touchedCount++] = v;
+                        }
+                        dist[v] = candidate;
+                        if (origin != null) {
+                            origin[v] = origin[u];
+                        }
+                        heap.update(v, candidate);
+                    }
+                }
+            }
+            return dist;
+        }
+    }
+}
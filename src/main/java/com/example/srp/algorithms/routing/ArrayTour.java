@@ -0,0 +1,170 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+
+import java.util.Arrays;
+
+/**
+ * Closed tour over stops 0..n-1 kept as an int array plus each stop's position, so successor,
+ * predecessor and position lookups are O(1) and a segment reversal touches only the segment.
+ */
+public class ArrayTour {
+    private final int[] order;
+    private final int[] pos;
+
+    /**
+     * @param order a permutation of 0..n-1, copied
+     * @throws IllegalArgumentException if it is not one
+     */
+    public ArrayTour(int[] order) {
+        int n = order.length;
+        this.order = order.clone();
+        this.pos = new int[n];
+        Arrays.fill(pos, -1);
+        for (int i = 0; i < n; i++) {
+            int city = order[i];
+            if (city < 0 || city >= n || pos[city] >= 0) {
+                throw new IllegalArgumentException("Tour order is not a permutation of 0.." + (n - 1));
+            }
+            pos[city] = i;
+        }
+    }
+
+    /**
+     * The tour 0, 1, ..., n-1
+     */
+    public static ArrayTour identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return new ArrayTour(order);
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    public int city(int position) {
+        return order[position];
+    }
+
+    public int position(int city) {
+        return pos[city];
+    }
+
+    public int next(int city) {
+        int p = pos[city] + 1;
+        return order[p == order.length ? 0 : p];
+    }
+
+    public int prev(int city) {
+        int p = pos[city] - 1;
+        return order[p < 0 ? order.length - 1 : p];
+    }
+
+    /**
+     * True if b lies on the way from a to c following next(), ends included
+     */
+    public boolean between(int a, int b, int c) {
+        int pa = pos[a];
+        int pb = pos[b];
+        int pc = pos[c];
+        if (pa <= pc) {
+            return pa <= pb && pb <= pc;
+        }
+        return pb >= pa || pb <= pc;
+    }
+
+    public int[] toArray() {
+        return order.clone();
+    }
+
+    /**
+     * Makes this tour equal to another one over the same stops, O(n) without allocating
+     */
+    public void copyFrom(ArrayTour other) {
+        if (other.order.length != order.length) {
+            throw new IllegalArgumentException("Tours have " + order.length + " and " + other.order.length + " stops");
+        }
+        System.arraycopy(other.order, 0, order, 0, order.length);
+        System.arraycopy(other.pos, 0, pos, 0, pos.length);
+    }
+
+    public double length(DistanceLookup distances) {
+        double total = 0;
+        for (int i = 0; i < order.length; i++) {
+            total += distances.get(order[i], order[i + 1 == order.length ? 0 : i + 1]);
+        }
+        return total;
+    }
+
+    /**
+     * Reverses positions i..j, i <= j, without wrapping around
+     */
+    public void reversePositions(int i, int j) {
+        while (i < j) {
+            int a = order[i];
+            int b = order[j];
+            order[i] = b;
+            pos[b] = i;
+            order[j] = a;
+            pos[a] = j;
+            i++;
+            j--;
+        }
+    }
+
+    /**
+     * Reverses the path from city 'from' to city 'to' following next(). If the rest of the tour is
+     * shorter it is reversed instead, which yields the same cycle, only traversed the other way;
+     * the cost is at most n/2 swaps either way.
+     */
+    public void reverse(int from, int to) {
+        int n = order.length;
+        int i = pos[from];
+        int j = pos[to];
+        int length = ((j - i + n) % n) + 1;
+        if (2 * length > n) {
+            i = pos[to] + 1;
+            j = pos[from] - 1;
+            length = n - length;
+        }
+        for (int k = 0; k < length / 2; k++) {
+            int pi = (i + k) % n;
+            int pj = ((j - k) % n + n) % n;
+            int a = order[pi];
+            int b = order[pj];
+            order[pi] = b;
+            pos[b] = pi;
+            order[pj] = a;
+            pos[a] = pj;
+        }
+    }
+
+    /**
+     * Replaces tour edges (a, b) and (c, e) with (a, c) and (b, e). b and e must follow a and c in
+     * the same direction, either both next() or both prev(); the direction of the result is
+     * whichever reversal was cheaper, so moves are chained by adjacency, not by next().
+     */
+    public void twoOptMove(int a, int b, int c, int e) {
+        if (next(a) == b) {
+            reverse(b, c);
+        } else {
+            reverse(c, b);
+        }
+    }
+
+    /**
+     * Moves the segment s..e out from between p and n into the edge (u, v), where walking one way
+     * round the tour reads p, s..e, n, ..., u, v. Forward gives u, s..e, v and reversed gives
+     * u, e..s, v; p and n end up adjacent. Done as two or three 2-opt moves.
+     */
+    public void moveSegment(int p, int s, int e, int n, int u, int v, boolean reversed) {
+        twoOptMove(p, s, u, v);   // p u..n e..s v
+        twoOptMove(p, u, n, e);   // p n..u e..s v
+        if (!reversed) {
+            twoOptMove(u, e, s, v);   // p n..u s..e v
+        }
+    }
+}
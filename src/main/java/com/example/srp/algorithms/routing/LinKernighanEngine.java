@@ -0,0 +1,185 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+
+import static com.example.srp.algorithms.routing.TwoOptEngine.EPSILON;
+
+/**
+ * Lin-Kernighan search on an ArrayTour, built from 2-opt flips.
+ *
+ * From t1 and its tour neighbour t2 the search removes (t1,t2), adds (t2,t3) for a neighbour-list
+ * stop t3 and removes (t3,t4), where the flip leaves (t1,t4) closing the tour; t4 then takes the
+ * place of t2 and the chain goes on. The gain criterion keeps the chain going only while the sum
+ * of removed minus added edges stays positive, edges added in the chain are never removed again,
+ * and at each step the t3 with the best d(t3,t4) - d(t2,t3) is taken. When the chain ends the
+ * flips past its best closed tour are undone, so a move of any depth up to MAX_DEPTH is applied
+ * at once or not at all. Every candidate t3 is tried as the first step; deeper steps are greedy.
+ *
+ * Don't-look bits work as in TwoOptEngine.
+ */
+public class LinKernighanEngine {
+    public static final int MAX_DEPTH = 50;
+
+    private final DistanceLookup distances;
+    // Flips of the current chain, four stops each, for undoing
+    private final int[] journal = new int[4 * MAX_DEPTH];
+    // Edges added by the chain, which it must not remove again
+    private final int[] addedFrom = new int[MAX_DEPTH];
+    private final int[] addedTo = new int[MAX_DEPTH];
+    private long moves;
+
+    public LinKernighanEngine(DistanceLookup distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Applies improving moves until no stop has one left
+     * @return total length saved
+     */
+    public double improve(ArrayTour tour, NeighborLists candidates) {
+        return improve(tour, candidates, StopQueue.ofTour(tour));
+    }
+
+    /**
+     * Applies improving moves starting from the queued stops only, queueing the stops they touch
+     */
+    double improve(ArrayTour tour, NeighborLists candidates, StopQueue active) {
+        if (tour.size() < 5) {
+            return 0;
+        }
+        double total = 0;
+        while (!active.isEmpty()) {
+            int t1 = active.poll();
+            double g = improveStop(tour, candidates, t1, active);
+            while (g > 0) {
+                total += g;
+                g = improveStop(tour, candidates, t1, active);
+            }
+        }
+        return total;
+    }
+
+    private double improveStop(ArrayTour tour, NeighborLists candidates, int t1, StopQueue active) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = (direction == 0);
+            int t2 = forward ? tour.next(t1) : tour.prev(t1);
+            double removed = distances.get(t1, t2);
+            for (int r = 0; r < candidates.count(); r++) {
+                int t3 = candidates.get(t2, r);
+                double g1 = removed - distances.get(t2, t3);
+                if (g1 <= EPSILON) {
+                    break;
+                }
+                int t4 = forward ? tour.prev(t3) : tour.next(t3);
+                if (t3 == t1 || t4 == t2) {
+                    continue;
+                }
+                double gain = chain(tour, candidates, t1, t2, t3, t4, g1, active);
+                if (gain > 0) {
+                    moves++;
+                    return gain;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Runs a chain whose first step is given; applies its best closed prefix and returns that
+    // prefix's gain, or undoes every flip and returns 0
+    private double chain(ArrayTour tour, NeighborLists candidates, int t1, int t2, int t3, int t4,
+                         double g1, StopQueue active) {
+        int depth = 0;
+        int bestDepth = 0;
+        double best = EPSILON;
+        // Removed minus added edge lengths, not counting the edge (t1, t4) that closes the tour
+        double g = g1;
+        while (true) {
+            flip(tour, depth++, t1, t2, t3, t4);
+            g += distances.get(t3, t4);
+            double closed = g - distances.get(t4, t1);
+            if (closed > best) {
+                best = closed;
+                bestDepth = depth;
+            }
+            if (depth == MAX_DEPTH) {
+                break;
+            }
+
+            // (t1, t4) is the tour edge removed next
+            t2 = t4;
+            boolean forward = (tour.next(t1) == t2);
+            int nextT3 = -1;
+            int nextT4 = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int r = 0; r < candidates.count(); r++) {
+                int c = candidates.get(t2, r);
+                double added = distances.get(t2, c);
+                if (g - added <= EPSILON) {
+                    break;
+                }
+                int d = forward ? tour.prev(c) : tour.next(c);
+                if (c == t1 || d == t2 || isAdded(c, d, depth)) {
+                    continue;
+                }
+                double score = distances.get(c, d) - added;
+                if (score > bestScore) {
+                    bestScore = score;
+                    nextT3 = c;
+                    nextT4 = d;
+                }
+            }
+            if (nextT3 < 0) {
+                break;
+            }
+            g -= distances.get(t2, nextT3);
+            t3 = nextT3;
+            t4 = nextT4;
+        }
+
+        while (depth > bestDepth) {
+            undo(tour, --depth);
+        }
+        if (bestDepth == 0) {
+            return 0;
+        }
+        for (int i = 0; i < 4 * bestDepth; i++) {
+            active.push(journal[i]);
+        }
+        return best;
+    }
+
+    // Removes (t1,t2) and (t3,t4), adds (t2,t3) and the closing edge (t1,t4)
+    private void flip(ArrayTour tour, int depth, int t1, int t2, int t3, int t4) {
+        journal[4 * depth] = t1;
+        journal[4 * depth + 1] = t2;
+        journal[4 * depth + 2] = t3;
+        journal[4 * depth + 3] = t4;
+        addedFrom[depth] = t2;
+        addedTo[depth] = t3;
+        tour.twoOptMove(t1, t2, t4, t3);
+    }
+
+    private void undo(ArrayTour tour, int depth) {
+        int t1 = journal[4 * depth];
+        int t2 = journal[4 * depth + 1];
+        int t3 = journal[4 * depth + 2];
+        int t4 = journal[4 * depth + 3];
+        tour.twoOptMove(t1, t4, t2, t3);
+    }
+
+    private boolean isAdded(int a, int b, int count) {
+        for (int i = 0; i < count; i++) {
+            if ((addedFrom[i] == a && addedTo[i] == b) || (addedFrom[i] == b && addedTo[i] == a)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of moves applied so far
+     */
+    public long movesApplied() {
+        return moves;
+    }
+}
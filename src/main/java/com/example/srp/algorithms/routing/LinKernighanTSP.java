@@ -0,0 +1,146 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+import com.example.srp.algorithms.pathfinding.PathLookup;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Iterated Lin-Kernighan: the initial tour is taken to a LinKernighanEngine local optimum, then
+ * repeatedly kicked by a random Or-opt move (a run of 1 to 3 stops moved next to one of its
+ * neighbour-list stops) and re-optimized from the stops the kick touched. A kicked tour is kept
+ * only if it ends up shorter, otherwise the best tour is restored.
+ *
+ * Kicks are seeded, so a tour is solved the same way every time unless the time limit cuts the
+ * kicks short.
+ */
+public class LinKernighanTSP implements TSPSolver{
+    public static final int DEFAULT_KICKS_PER_STOP = 5;
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+    static final long SEED = 1;
+
+    PathLookup pathCache;
+    TSPSolver initialSolver;
+    int kicksPerStop;
+    long timeLimitMillis;
+
+    /**
+     * @param kicksPerStop    kicks per stop of the tour
+     * @param timeLimitMillis time after which no further kick is started
+     */
+    public LinKernighanTSP(PathLookup pathCache, TSPSolver initialSolver, int kicksPerStop, long timeLimitMillis) {
+        this.pathCache=pathCache;
+        this.initialSolver=initialSolver;
+        this.kicksPerStop=kicksPerStop;
+        this.timeLimitMillis=timeLimitMillis;
+    }
+
+    public LinKernighanTSP(PathLookup pathCache, TSPSolver initialSolver) {
+        this(pathCache, initialSolver, DEFAULT_KICKS_PER_STOP, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    @Override
+    public List<String> solveTSP(List<String> nodes, String startNode) {
+        List<String> tour=initialSolver.solveTSP(nodes, startNode);
+
+        if(tour.size()<=3) {
+            return tour; //Too small to optimize;
+        }
+
+        StopMatrix matrix=StopMatrix.of(pathCache, tour);
+        ArrayTour arrayTour=ArrayTour.identity(matrix.size());
+        optimize(matrix, arrayTour, NeighborLists.build(matrix, NeighborLists.DEFAULT_NEIGHBORS),
+                (long) kicksPerStop*matrix.size(), System.nanoTime()+timeLimitMillis*1_000_000L, new Random(SEED));
+        return matrix.toClosedTour(arrayTour, tour.get(0));
+    }
+
+    /**
+     * Lin-Kernighan followed by up to the given number of Or-opt kicks, none started after the
+     * deadline (a System.nanoTime() value)
+     * @return total length saved
+     */
+    public static double optimize(DistanceLookup matrix, ArrayTour tour, NeighborLists candidates,
+                                  long kicks, long deadline, Random random) {
+        LinKernighanEngine engine=new LinKernighanEngine(matrix);
+        double saved=engine.improve(tour, candidates);
+        int n=tour.size();
+        if(n<OrOptEngine.MAX_SEGMENT+5 || candidates.count()==0) {
+            return saved;
+        }
+
+        ArrayTour best=ArrayTour.identity(n);
+        best.copyFrom(tour);
+        StopQueue touched=new StopQueue(n);
+        for(long k=0; k<kicks && System.nanoTime()<deadline; k++) {
+            double kickCost=kick(matrix, tour, candidates, random, touched);
+            if(Double.isNaN(kickCost)) {
+                continue;
+            }
+            double change=engine.improve(tour, candidates, touched)-kickCost;
+            if(change>TwoOptEngine.EPSILON) {
+                best.copyFrom(tour);
+                saved+=change;
+            } else {
+                tour.copyFrom(best);
+            }
+        }
+        return saved;
+    }
+
+    // Moves a random run of stops next to one of its neighbours and queues the stops around it.
+    // Returns how much longer the tour got, or NaN if the drawn move was not a valid one.
+    private static double kick(DistanceLookup matrix, ArrayTour tour, NeighborLists candidates, Random random, StopQueue touched) {
+        int n=tour.size();
+        int s=random.nextInt(n);
+        int length=1+random.nextInt(OrOptEngine.MAX_SEGMENT);
+        int e=s;
+        for(int i=1; i<length; i++) {
+            e=tour.next(e);
+        }
+        int p=tour.prev(s);
+        int next=tour.next(e);
+        int c=candidates.get(s, random.nextInt(candidates.count()));
+        int d=random.nextBoolean() ? tour.next(c) : tour.prev(c);
+        if(OrOptEngine.inSegment(tour, s, length, c) || OrOptEngine.inSegment(tour, s, length, d)) {
+            return Double.NaN;
+        }
+        boolean after=(d==tour.next(c));
+        int u=after ? c : d;
+        int v=after ? d : c;
+        boolean reversed=random.nextBoolean();
+        int x=reversed ? e : s;   // the end placed next to u
+        int y=reversed ? s : e;
+        double cost=matrix.get(p, next)+matrix.get(u, x)+matrix.get(y, v)
+                -matrix.get(p, s)-matrix.get(e, next)-matrix.get(u, v);
+        if(Double.isNaN(cost)) {
+            return cost;
+        }
+        tour.moveSegment(p, s, e, next, u, v, reversed);
+        touched.push(p);
+        touched.push(next);
+        touched.push(s);
+        touched.push(e);
+        touched.push(u);
+        touched.push(v);
+        return cost;
+    }
+
+    @Override
+    public double calculateTourDistance(List<String> tour) {
+        if(tour.size()<2) {
+            return 0.0;
+        }
+        double distance=0;
+        for(int i=0; i<tour.size()-1; i++) {
+            String from= tour.get(i);
+            String to=tour.get(i+1);
+            double leg=pathCache.getDistance(from, to);
+            if(Double.isNaN(leg)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            distance+=leg;
+        }
+        return distance;
+    }
+}
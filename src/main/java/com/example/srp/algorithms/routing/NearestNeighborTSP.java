@@ -1,13 +1,12 @@
 package com.example.srp.algorithms.routing;
 
-import com.example.srp.algorithms.pathfinding.PathCache;
-import com.example.srp.models.Path;
+import com.example.srp.algorithms.pathfinding.PathLookup;
 
 import java.util.*;
 
 public class NearestNeighborTSP implements TSPSolver{
-    PathCache pathCache;
-    public NearestNeighborTSP(PathCache pathCache) {
+    PathLookup pathCache;
+    public NearestNeighborTSP(PathLookup pathCache) {
         this.pathCache=pathCache;
     }
 
@@ -55,11 +54,10 @@ public class NearestNeighborTSP implements TSPSolver{
             if(visited.contains(node)) {
                 continue;
             }
-            Path path=pathCache.get(current, node);
-            if(path==null) {
+            double distance=pathCache.getDistance(current, node);
+            if(Double.isNaN(distance)) {
                 continue;
             }
-            double distance= path.getTotalDistance();
             if(distance<minValue) {
                 minValue=distance;
                 nearest=node;
@@ -77,11 +75,11 @@ public class NearestNeighborTSP implements TSPSolver{
         for(int i=0; i<tour.size()-1; i++) {
             String from= tour.get(i);
             String to=tour.get(i+1);
-            Path path=pathCache.get(from, to);
-            if(path==null) {
+            double leg=pathCache.getDistance(from, to);
+            if(Double.isNaN(leg)) {
                 return Double.POSITIVE_INFINITY;
             }
-            distance+=path.getTotalDistance();
+            distance+=leg;
         }
         return distance;
     }
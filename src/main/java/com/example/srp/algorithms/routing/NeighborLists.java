@@ -0,0 +1,179 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+
+import java.util.Arrays;
+
+/**
+ * The k nearest other stops of every stop, nearest first: the candidate moves local search looks
+ * at. An improving 2-opt or Or-opt move almost always connects a stop to one of its few nearest
+ * neighbours, so scanning those instead of all n stops makes a move search O(k) instead of O(n).
+ */
+public class NeighborLists {
+    public static final int DEFAULT_NEIGHBORS = 10;
+
+    private final int n;
+    private final int k;
+    private final int[] neighbors;   // neighbors of stop i at i*k .. i*k+k-1
+
+    private NeighborLists(int n, int k, int[] neighbors) {
+        this.n = n;
+        this.k = k;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Exact lists from a distance matrix, O(n^2 k) lookups
+     */
+    public static NeighborLists build(DistanceLookup distances, int k) {
+        int n = distances.size();
+        int count = Math.max(0, Math.min(k, n - 1));
+        int[] neighbors = new int[n * count];
+        Selection best = new Selection(count);
+        for (int i = 0; i < n; i++) {
+            best.clear();
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    best.offer(j, distances.get(i, j));
+                }
+            }
+            best.copyTo(neighbors, i * count);
+        }
+        return new NeighborLists(n, count, neighbors);
+    }
+
+    /**
+     * Lists by straight-line distance from a uniform grid index, about O(n k) for spread-out
+     * stops. For road networks this approximates the road-distance lists; move gains are still
+     * computed on the real distances.
+     */
+    public static NeighborLists fromPoints(double[] xs, double[] ys, int k) {
+        int n = xs.length;
+        int count = Math.max(0, Math.min(k, n - 1));
+        int[] neighbors = new int[n * count];
+        if (count == 0) {
+            return new NeighborLists(n, 0, neighbors);
+        }
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        // About two stops per cell
+        int side = Math.max(1, (int) Math.ceil(Math.sqrt(n / 2.0)));
+        double cellSize = Math.max(Math.max(maxX - minX, maxY - minY) / side, 1e-9);
+        int[] cellOf = new int[n];
+        int[] cellStart = new int[side * side + 1];
+        for (int i = 0; i < n; i++) {
+            int cx = Math.min(side - 1, (int) ((xs[i] - minX) / cellSize));
+            int cy = Math.min(side - 1, (int) ((ys[i] - minY) / cellSize));
+            cellOf[i] = cy * side + cx;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < side * side; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(cellStart, side * side);
+        for (int i = 0; i < n; i++) {
+            members[fill[cellOf[i]]++] = i;
+        }
+
+        Selection best = new Selection(count);
+        for (int i = 0; i < n; i++) {
+            best.clear();
+            int cx = cellOf[i] % side;
+            int cy = cellOf[i] / side;
+            // Ring r holds the cells at Chebyshev distance r; anything beyond it is at least r cells away
+            for (int r = 0; r < side; r++) {
+                if (best.isFull() && best.worst() < (r - 1) * cellSize) {
+                    break;
+                }
+                for (int y = cy - r; y <= cy + r; y++) {
+                    if (y < 0 || y >= side) {
+                        continue;
+                    }
+                    boolean edgeRow = (y == cy - r || y == cy + r);
+                    for (int x = cx - r; x <= cx + r; x += edgeRow ? 1 : 2 * Math.max(r, 1)) {
+                        if (x < 0 || x >= side) {
+                            continue;
+                        }
+                        int cell = y * side + x;
+                        for (int m = cellStart[cell]; m < cellStart[cell + 1]; m++) {
+                            int j = members[m];
+                            if (j != i) {
+                                best.offer(j, Math.hypot(xs[i] - xs[j], ys[i] - ys[j]));
+                            }
+                        }
+                    }
+                }
+            }
+            best.copyTo(neighbors, i * count);
+        }
+        return new NeighborLists(n, count, neighbors);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Neighbours per stop
+     */
+    public int count() {
+        return k;
+    }
+
+    /**
+     * The rank-th nearest neighbour of the stop, rank 0 being the nearest
+     */
+    public int get(int stop, int rank) {
+        return neighbors[stop * k + rank];
+    }
+
+    // The k smallest offers so far, kept sorted by insertion; k is small
+    private static class Selection {
+        final int[] ids;
+        final double[] keys;
+        int size;
+
+        Selection(int k) {
+            this.ids = new int[k];
+            this.keys = new double[k];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        double worst() {
+            return keys[size - 1];
+        }
+
+        void offer(int id, double key) {
+            if (ids.length == 0 || (isFull() && key >= worst())) {
+                return;
+            }
+            int p = isFull() ? size - 1 : size++;
+            while (p > 0 && keys[p - 1] > key) {
+                keys[p] = keys[p - 1];
+                ids[p] = ids[p - 1];
+                p--;
+            }
+            keys[p] = key;
+            ids[p] = id;
+        }
+
+        void copyTo(int[] target, int offset) {
+            System.arraycopy(ids, 0, target, offset, size);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+
+import static com.example.srp.algorithms.routing.TwoOptEngine.EPSILON;
+
+/**
+ * Or-opt on an ArrayTour: moves a run of 1 to MAX_SEGMENT consecutive stops to another edge of
+ * the tour, as it is or reversed.
+ *
+ * Taking segment s..e out from between p and n saves d(p,s) + d(e,n) - d(p,n); putting it into
+ * edge (c,d) costs d(c,x) + d(y,d) - d(c,d) where x is the end placed next to c. Both are O(1),
+ * and only edges from a segment end to one of its neighbour-list stops are tried. Don't-look bits
+ * work as in TwoOptEngine.
+ */
+public class OrOptEngine {
+    public static final int MAX_SEGMENT = 3;
+
+    private final DistanceLookup distances;
+    private long moves;
+
+    public OrOptEngine(DistanceLookup distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Applies improving segment moves until no stop has one left
+     * @return total length saved
+     */
+    public double improve(ArrayTour tour, NeighborLists candidates) {
+        // Segment, its two neighbours and the target edge must all be different stops
+        if (tour.size() < MAX_SEGMENT + 5) {
+            return 0;
+        }
+        StopQueue active = StopQueue.ofTour(tour);
+        double total = 0;
+        while (!active.isEmpty()) {
+            int s = active.poll();
+            double g = improveStop(tour, candidates, s, active);
+            while (g > 0) {
+                total += g;
+                g = improveStop(tour, candidates, s, active);
+            }
+        }
+        return total;
+    }
+
+    // Tries the segments that start at s and run along next(), applying the first improving move
+    private double improveStop(ArrayTour tour, NeighborLists candidates, int s, StopQueue active) {
+        int p = tour.prev(s);
+        int e = s;
+        for (int length = 1; length <= MAX_SEGMENT; length++) {
+            if (length > 1) {
+                e = tour.next(e);
+            }
+            int n = tour.next(e);
+            double removed = distances.get(p, s) + distances.get(e, n) - distances.get(p, n);
+            if (!(removed > EPSILON)) {
+                continue;
+            }
+            for (int end = 0; end < 2; end++) {
+                int x = (end == 0) ? s : e;
+                int y = (end == 0) ? e : s;
+                for (int r = 0; r < candidates.count(); r++) {
+                    int c = candidates.get(x, r);
+                    double g1 = removed - distances.get(x, c);
+                    if (g1 <= EPSILON) {
+                        break;
+                    }
+                    if (inSegment(tour, s, length, c)) {
+                        continue;
+                    }
+                    for (int side = 0; side < 2; side++) {
+                        boolean after = (side == 0);
+                        int d = after ? tour.next(c) : tour.prev(c);
+                        if (inSegment(tour, s, length, d)) {
+                            continue;
+                        }
+                        double g = g1 + distances.get(c, d) - distances.get(y, d);
+                        if (g > EPSILON) {
+                            int u = after ? c : d;
+                            int v = after ? d : c;
+                            // Forward when s ends up after u, or e before v
+                            boolean reversed = (x == s) != after;
+                            tour.moveSegment(p, s, e, n, u, v, reversed);
+                            moves++;
+                            active.push(p);
+                            active.push(n);
+                            active.push(e);
+                            active.push(u);
+                            active.push(v);
+                            return g;
+                        }
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    // True if stop lies in the length stops starting at s
+    static boolean inSegment(ArrayTour tour, int s, int length, int stop) {
+        int offset = tour.position(stop) - tour.position(s);
+        if (offset < 0) {
+            offset += tour.size();
+        }
+        return offset < length;
+    }
+
+    /**
+     * Number of moves applied so far
+     */
+    public long movesApplied() {
+        return moves;
+    }
+}
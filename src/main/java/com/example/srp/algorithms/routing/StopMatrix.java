@@ -0,0 +1,103 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+import com.example.srp.algorithms.pathfinding.PathLookup;
+
+import java.util.*;
+
+/**
+ * Distances among the stops of one tour, numbered 0..n-1 in first-seen order, read by index from
+ * a PathLookup without copying it. Pairs the lookup has no distance for read as infinity, so a
+ * tour move never introduces them.
+ *
+ * The tour moves price an edge the same in both directions, so only symmetric lookups are accepted.
+ */
+public class StopMatrix implements DistanceLookup {
+    private final PathLookup cache;
+    private final String[] ids;
+    private final int[] cacheIndex;
+    private final Map<String, Integer> index = new HashMap<>();
+
+    private StopMatrix(PathLookup cache, List<String> ids) {
+        this.cache = cache;
+        this.ids = ids.toArray(new String[0]);
+        this.cacheIndex = new int[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            index.put(ids.get(i), i);
+            int c = cache.indexOf(ids.get(i));
+            if (c < 0 && i > 0) {
+                // Caches that load on demand learn a stop on its first lookup
+                cache.getDistance(ids.get(0), ids.get(i));
+                c = cache.indexOf(ids.get(i));
+            }
+            cacheIndex[i] = c;
+        }
+        if (cacheIndex.length > 1 && cacheIndex[0] < 0) {
+            // The first stop is learned by the first of those lookups, or by its own if the rest were known
+            if (cache.indexOf(ids.get(0)) < 0) {
+                cache.getDistance(ids.get(0), ids.get(1));
+            }
+            cacheIndex[0] = cache.indexOf(ids.get(0));
+        }
+    }
+
+    /**
+     * @param stops tour stops; repeated ids (such as the depot closing a tour) get one index
+     * @throws IllegalArgumentException if the cache is not symmetric
+     */
+    public static StopMatrix of(PathLookup cache, Collection<String> stops) {
+        if (!cache.isSymmetric()) {
+            throw new IllegalArgumentException("Tour moves need symmetric distances, got a one-way cache");
+        }
+        return new StopMatrix(cache, new ArrayList<>(new LinkedHashSet<>(stops)));
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        if (from == to) {
+            return 0.0;
+        }
+        int i = cacheIndex[from];
+        int j = cacheIndex[to];
+        if (i < 0 || j < 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double distance = cache.getDistance(i, j);
+        return Double.isNaN(distance) ? Double.POSITIVE_INFINITY : distance;
+    }
+
+    public String idOf(int stop) {
+        return ids[stop];
+    }
+
+    /**
+     * @return the stop number, or -1 if the id is not one of the stops
+     */
+    public int indexOf(String id) {
+        Integer i = index.get(id);
+        return (i == null) ? -1 : i;
+    }
+
+    /**
+     * The tour as stop ids, rotated to begin at the start stop and closed by returning to it
+     */
+    public List<String> toClosedTour(ArrayTour tour, String startId) {
+        int start = indexOf(startId);
+        if (start < 0) {
+            throw new IllegalArgumentException("Start " + startId + " is not a stop of this tour");
+        }
+        List<String> closed = new ArrayList<>(tour.size() + 1);
+        int city = start;
+        for (int k = 0; k < tour.size(); k++) {
+            closed.add(ids[city]);
+            city = tour.next(city);
+        }
+        closed.add(startId);
+        return closed;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.srp.algorithms.routing;
+
+/**
+ * FIFO of stops whose don't-look bit is off; a stop is in it at most once.
+ */
+class StopQueue {
+    private final int[] ring;
+    private final boolean[] queued;
+    private int head;
+    private int size;
+
+    StopQueue(int n) {
+        this.ring = new int[n];
+        this.queued = new boolean[n];
+    }
+
+    /**
+     * All stops, in tour order
+     */
+    static StopQueue ofTour(ArrayTour tour) {
+        StopQueue queue = new StopQueue(tour.size());
+        for (int i = 0; i < tour.size(); i++) {
+            queue.push(tour.city(i));
+        }
+        return queue;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(int stop) {
+        if (queued[stop]) {
+            return;
+        }
+        queued[stop] = true;
+        ring[(head + size) % ring.length] = stop;
+        size++;
+    }
+
+    int poll() {
+        int stop = ring[head];
+        head = (head + 1) % ring.length;
+        size--;
+        queued[stop] = false;
+        return stop;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+
+import static com.example.srp.algorithms.routing.TwoOptEngine.EPSILON;
+
+/**
+ * Restricted 3-opt on an ArrayTour: the pure 3-opt move that swaps two adjacent segments without
+ * reversing either, t1 [t2..t5] [t6..t3] t4 becoming t1 [t6..t3] [t2..t5] t4. Unlike Or-opt the
+ * segments may be of any length.
+ *
+ * The search is sequential: t3 is taken from t2's neighbour list and t5 from t4's, and each
+ * partial gain must stay positive, so a move costs O(k^2) to find and O(1) per candidate to
+ * evaluate. Don't-look bits work as in TwoOptEngine.
+ */
+public class ThreeOptEngine {
+    private final DistanceLookup distances;
+    private long moves;
+
+    public ThreeOptEngine(DistanceLookup distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Applies improving segment swaps until no stop has one left
+     * @return total length saved
+     */
+    public double improve(ArrayTour tour, NeighborLists candidates) {
+        if (tour.size() < 6) {
+            return 0;
+        }
+        StopQueue active = StopQueue.ofTour(tour);
+        double total = 0;
+        while (!active.isEmpty()) {
+            int t1 = active.poll();
+            double g = improveStop(tour, candidates, t1, active);
+            while (g > 0) {
+                total += g;
+                g = improveStop(tour, candidates, t1, active);
+            }
+        }
+        return total;
+    }
+
+    private double improveStop(ArrayTour tour, NeighborLists candidates, int t1, StopQueue active) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = (direction == 0);
+            int t2 = succ(tour, t1, forward);
+            double removed = distances.get(t1, t2);
+            for (int r3 = 0; r3 < candidates.count(); r3++) {
+                int t3 = candidates.get(t2, r3);
+                double g1 = removed - distances.get(t2, t3);
+                if (g1 <= EPSILON) {
+                    break;
+                }
+                int t4 = succ(tour, t3, forward);
+                if (t3 == t1 || t4 == t1 || t3 == t2) {
+                    continue;
+                }
+                double g1Closed = g1 + distances.get(t3, t4);
+                for (int r5 = 0; r5 < candidates.count(); r5++) {
+                    int t5 = candidates.get(t4, r5);
+                    double g2 = g1Closed - distances.get(t4, t5);
+                    if (g2 <= EPSILON) {
+                        break;
+                    }
+                    // t5 must lie in t2..t3 with its successor still in it
+                    if (t5 == t3 || !onPath(tour, t2, t5, t3, forward)) {
+                        continue;
+                    }
+                    int t6 = succ(tour, t5, forward);
+                    double g = g2 + distances.get(t5, t6) - distances.get(t6, t1);
+                    if (g > EPSILON) {
+                        tour.moveSegment(t1, t2, t5, t6, t3, t4, false);
+                        moves++;
+                        active.push(t2);
+                        active.push(t3);
+                        active.push(t4);
+                        active.push(t5);
+                        active.push(t6);
+                        return g;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int succ(ArrayTour tour, int city, boolean forward) {
+        return forward ? tour.next(city) : tour.prev(city);
+    }
+
+    // True if b lies on the way from a to c in the given direction
+    private static boolean onPath(ArrayTour tour, int a, int b, int c, boolean forward) {
+        return forward ? tour.between(a, b, c) : tour.between(c, b, a);
+    }
+
+    /**
+     * Number of moves applied so far
+     */
+    public long movesApplied() {
+        return moves;
+    }
+}
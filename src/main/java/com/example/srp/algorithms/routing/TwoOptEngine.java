@@ -0,0 +1,125 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+
+/**
+ * 2-opt on an ArrayTour.
+ *
+ * A move removes edges (a, next a) and (c, next c) and reconnects a-c and next a - next c by
+ * reversing the path between them. Its gain is computed from those four edges alone, and the tour
+ * is only changed when a move is accepted; scanning then continues where it was instead of
+ * starting over.
+ *
+ * With neighbour lists, only moves that connect a stop to one of its nearest neighbours are
+ * tried, and don't-look bits skip stops whose surroundings have not changed since they last
+ * failed to improve: a stop is looked at again only after a move touches one of its tour edges.
+ */
+public class TwoOptEngine {
+    static final double EPSILON = 1e-9;
+
+    private final DistanceLookup distances;
+    private long moves;
+
+    public TwoOptEngine(DistanceLookup distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Gain of replacing (a, b) and (c, e) with (a, c) and (b, e); positive means shorter
+     */
+    public double gain(int a, int b, int c, int e) {
+        return distances.get(a, b) + distances.get(c, e) - distances.get(a, c) - distances.get(b, e);
+    }
+
+    /**
+     * First-improvement passes over all O(n^2) position pairs until a pass finds nothing or
+     * maxPasses is reached
+     * @return total length saved
+     */
+    public double improve(ArrayTour tour, int maxPasses) {
+        int n = tour.size();
+        double total = 0;
+        boolean improved = true;
+        for (int pass = 0; improved && pass < maxPasses; pass++) {
+            improved = false;
+            for (int i = 0; i < n - 2; i++) {
+                int a = tour.city(i);
+                // Position 0 and n-1 are adjacent on the cycle, there is nothing to reverse between them
+                int last = (i == 0) ? n - 2 : n - 1;
+                for (int j = i + 2; j <= last; j++) {
+                    int b = tour.city(i + 1);
+                    int c = tour.city(j);
+                    int e = tour.city(j + 1 == n ? 0 : j + 1);
+                    double g = gain(a, b, c, e);
+                    if (g > EPSILON) {
+                        tour.reversePositions(i + 1, j);
+                        total += g;
+                        moves++;
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Neighbour-list 2-opt with don't-look bits, run until no stop has an improving move left
+     * @return total length saved
+     */
+    public double improve(ArrayTour tour, NeighborLists candidates) {
+        StopQueue active = StopQueue.ofTour(tour);
+        double total = 0;
+        while (!active.isEmpty()) {
+            int a = active.poll();
+            double g = improveStop(tour, candidates, a, active);
+            while (g > 0) {
+                total += g;
+                g = improveStop(tour, candidates, a, active);
+            }
+        }
+        return total;
+    }
+
+    // Applies the first improving move that gives stop a a nearer tour neighbour, in either direction
+    private double improveStop(ArrayTour tour, NeighborLists candidates, int a, StopQueue active) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = (direction == 0);
+            int b = forward ? tour.next(a) : tour.prev(a);
+            double removed = distances.get(a, b);
+            for (int r = 0; r < candidates.count(); r++) {
+                int c = candidates.get(a, r);
+                double g1 = removed - distances.get(a, c);
+                // Lists are sorted, so no later candidate is nearer than b either
+                if (g1 <= EPSILON) {
+                    break;
+                }
+                int e = forward ? tour.next(c) : tour.prev(c);
+                if (c == b || e == a) {
+                    continue;
+                }
+                double g = g1 + distances.get(c, e) - distances.get(b, e);
+                if (g > EPSILON) {
+                    if (forward) {
+                        tour.reverse(b, c);
+                    } else {
+                        tour.reverse(c, b);
+                    }
+                    moves++;
+                    active.push(b);
+                    active.push(c);
+                    active.push(e);
+                    return g;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Number of moves applied so far
+     */
+    public long movesApplied() {
+        return moves;
+    }
+}
@@ -1,23 +1,25 @@
 package com.example.srp.algorithms.routing;
 
-import com.example.srp.algorithms.pathfinding.PathCache;
-import com.example.srp.models.Path;
+import com.example.srp.algorithms.pathfinding.PathLookup;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class TwoOptTSP implements TSPSolver{
-    PathCache pathCache;
+    PathLookup pathCache;
     TSPSolver initialSolver;
     int maxIteration;
 
-    TwoOptTSP(PathCache pathCache, TSPSolver initialSolver, int maxIteration) {
+    /**
+     * @param maxIteration maximum number of improvement passes over tours small enough to be
+     *                     scanned exhaustively
+     */
+    TwoOptTSP(PathLookup pathCache, TSPSolver initialSolver, int maxIteration) {
         this.pathCache=pathCache;
         this.initialSolver=initialSolver;
         this.maxIteration=maxIteration;
     }
 
-    public TwoOptTSP(PathCache pathCache, TSPSolver initialSolver) {
+    public TwoOptTSP(PathLookup pathCache, TSPSolver initialSolver) {
         this(pathCache, initialSolver, 100);
     }
 
@@ -33,47 +35,18 @@ public class TwoOptTSP implements TSPSolver{
         return tour;
     }
 
+    // Works on stop indices over the cache's matrix: O(1) per candidate move, no tour copies.
+    // Small tours are scanned exhaustively, larger ones only along each stop's nearest neighbours.
     private List<String> twoOptImprove(List<String> tour) {
-        List<String> bestTour=new ArrayList<>(tour);
-        double bestDistance=calculateTourDistance(tour);
-        boolean improved=true;
-        int iteration=0;
-
-        while(improved && iteration<maxIteration) {
-             improved=false;
-             iteration++;
-
-             for(int i=1; i<tour.size()-2; i++) {
-                 for(int j=i+1; j<tour.size()-1; j++) {
-                     List<String> newTour=twoOptSwap(tour, i, j);
-                     double newDistance=calculateTourDistance(newTour);
-                     if(newDistance<bestDistance) {
-                         bestDistance=newDistance;
-                         bestTour=newTour;
-                         improved=true;
-                         break;
-                     }
-                 }
-                 if(improved) {
-                     break; //Go to while loop
-                 }
-             }
-        }
-        return bestTour;
-    }
-
-    private List<String> twoOptSwap(List<String> tour, int i, int j) {
-        List<String> newTour=new ArrayList<>();
-        for(int k=0; k<i; k++) {
-            newTour.add(tour.get(k));
-        }
-        for(int k=j; k>=i; k--) {
-            newTour.add(tour.get(k));
-        }
-        for(int k=j+1; k<tour.size(); k++) {
-            newTour.add(tour.get(k));
+        StopMatrix matrix=StopMatrix.of(pathCache, tour);
+        ArrayTour arrayTour=ArrayTour.identity(matrix.size());
+        TwoOptEngine engine=new TwoOptEngine(matrix);
+        if(matrix.size()<=NeighborLists.DEFAULT_NEIGHBORS+1) {
+            engine.improve(arrayTour, maxIteration);
+        } else {
+            engine.improve(arrayTour, NeighborLists.build(matrix, NeighborLists.DEFAULT_NEIGHBORS));
         }
-        return newTour;
+        return matrix.toClosedTour(arrayTour, tour.get(0));
     }
 
     @Override
@@ -85,11 +58,11 @@ public class TwoOptTSP implements TSPSolver{
         for(int i=0; i<tour.size()-1; i++) {
             String from= tour.get(i);
             String to=tour.get(i+1);
-            Path path=pathCache.get(from, to);
-            if(path==null) {
+            double leg=pathCache.getDistance(from, to);
+            if(Double.isNaN(leg)) {
                 return Double.POSITIVE_INFINITY;
             }
-            distance+=path.getTotalDistance();
+            distance+=leg;
         }
         return distance;
     }
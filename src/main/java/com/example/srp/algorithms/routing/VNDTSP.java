@@ -0,0 +1,74 @@
+package com.example.srp.algorithms.routing;
+
+import com.example.srp.algorithms.matrix.DistanceLookup;
+import com.example.srp.algorithms.pathfinding.PathLookup;
+
+import java.util.List;
+
+/**
+ * Variable-neighbourhood descent over 2-opt, Or-opt and restricted 3-opt: the cheapest
+ * neighbourhood is searched until exhausted, and whenever a larger one finds an improvement the
+ * descent starts over from 2-opt. The result is a local optimum for all three move types.
+ */
+public class VNDTSP implements TSPSolver{
+    PathLookup pathCache;
+    TSPSolver initialSolver;
+
+    public VNDTSP(PathLookup pathCache, TSPSolver initialSolver) {
+        this.pathCache=pathCache;
+        this.initialSolver=initialSolver;
+    }
+
+    @Override
+    public List<String> solveTSP(List<String> nodes, String startNode) {
+        List<String> tour=initialSolver.solveTSP(nodes, startNode);
+
+        if(tour.size()<=3) {
+            return tour; //Too small to optimize;
+        }
+
+        StopMatrix matrix=StopMatrix.of(pathCache, tour);
+        ArrayTour arrayTour=ArrayTour.identity(matrix.size());
+        descend(matrix, arrayTour, NeighborLists.build(matrix, NeighborLists.DEFAULT_NEIGHBORS));
+        return matrix.toClosedTour(arrayTour, tour.get(0));
+    }
+
+    /**
+     * Runs the descent on a tour over the matrix's stops, starting with 2-opt
+     * @return total length saved
+     */
+    public static double descend(DistanceLookup matrix, ArrayTour tour, NeighborLists candidates) {
+        TwoOptEngine twoOpt=new TwoOptEngine(matrix);
+        OrOptEngine orOpt=new OrOptEngine(matrix);
+        ThreeOptEngine threeOpt=new ThreeOptEngine(matrix);
+        double total=twoOpt.improve(tour, candidates);
+        while(true) {
+            double saved=orOpt.improve(tour, candidates);
+            if(saved<=0) {
+                saved=threeOpt.improve(tour, candidates);
+            }
+            if(saved<=0) {
+                return total;
+            }
+            total+=saved+twoOpt.improve(tour, candidates);
+        }
+    }
+
+    @Override
+    public double calculateTourDistance(List<String> tour) {
+        if(tour.size()<2) {
+            return 0.0;
+        }
+        double distance=0;
+        for(int i=0; i<tour.size()-1; i++) {
+            String from= tour.get(i);
+            String to=tour.get(i+1);
+            double leg=pathCache.getDistance(from, to);
+            if(Double.isNaN(leg)) {
+                return Double.POSITIVE_INFINITY;
+            }
+            distance+=leg;
+        }
+        return distance;
+    }
+}
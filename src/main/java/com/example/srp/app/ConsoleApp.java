@@ -4,20 +4,21 @@ import com.example.srp.algorithms.balancing.RouteEvaluator;
 import com.example.srp.algorithms.clustering.ClusterAssigner;
 import com.example.srp.algorithms.clustering.GreedyBalancedAssigner;
 import com.example.srp.algorithms.expansion.RouteExpander;
+import com.example.srp.algorithms.pathfinding.ConcurrentPathCache;
 import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
-import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.algorithms.pathfinding.ThorupZwickOracle;
 import com.example.srp.algorithms.routing.NearestNeighborTSP;
 import com.example.srp.algorithms.routing.TSPSolver;
 import com.example.srp.algorithms.routing.TwoOptTSP;
 import com.example.srp.io.MapParser;
 import com.example.srp.io.RouteExporter;
+import com.example.srp.memory.MemoryFootprint;
 import com.example.srp.models.*;
 import com.example.srp.traffic.JsonTrafficStore;
 import com.example.srp.traffic.TrafficStore;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -41,17 +42,19 @@ public class ConsoleApp {
             TrafficStore trafficStore = new JsonTrafficStore(graph);
             int currentHour = 8;
 
-            Collection<Vertex> allVertices = graph.getAllVertices();
-            DistanceMatrixBuilder dmBuilder = new DistanceMatrixBuilder(graph, trafficStore, currentHour);
-            PathCache pathCache = dmBuilder.build(new ArrayList<>(allVertices));
-
             String startNode = "N1";
             List<String> mandatoryNodes = Arrays.asList("N2", "N3", "N4", "N5");
             int numBuses = 2;
 
-            ClusterAssigner assigner = new GreedyBalancedAssigner(pathCache, 0.5);
+            // Cluster on approximate distances, then compute exact paths only among each bus's stops;
+            // a pair across buses is found on first lookup
+            ClusterAssigner assigner = new GreedyBalancedAssigner(new ThorupZwickOracle(graph, trafficStore, currentHour), 0.5);
             List<NodeCluster> clusters = assigner.assignNodes(mandatoryNodes, startNode, numBuses);
 
+            DistanceMatrixBuilder dmBuilder = new DistanceMatrixBuilder(graph, trafficStore, currentHour);
+            ConcurrentPathCache pathCache = dmBuilder.buildForClusters(clusters);
+            System.out.println(MemoryFootprint.measure(graph, pathCache));
+
             TSPSolver nearestNeighbor = new NearestNeighborTSP(pathCache);
             TSPSolver tspSolver = new TwoOptTSP(pathCache, nearestNeighbor);
 
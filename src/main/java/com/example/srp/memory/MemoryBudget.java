@@ -0,0 +1,236 @@
+package com.example.srp.memory;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One memory limit shared by all registered caches, so several maps and hours can live in one JVM
+ * without their caches together exhausting the heap.
+ *
+ * Caches report growth through their Registration. Once enough growth has piled up, the budget
+ * sums what every cache holds and, if that is over the limit, asks caches to release entries. The
+ * cache that is cheapest to refill per byte goes first (measured rebuild time against the bytes it
+ * frees), so cheap lazy matrix rows are dropped before a contracted hierarchy is.
+ *
+ * Enforcement triggered by growth runs on a single daemon thread, never on the thread of the
+ * growing cache, which may hold its own locks. Consumers are held weakly: a cache nobody uses any
+ * more disappears from the budget once it is collected.
+ */
+public class MemoryBudget {
+    public static final String PROPERTY = "srp.memoryBudgetMb";
+
+    private static MemoryBudget global;
+
+    private final long maxBytes;
+    private final long checkBytes;
+    private final List<Entry> entries = new ArrayList<>();   // guarded by 'this'
+    private final Set<String> names = new HashSet<>();        // guarded by 'this'
+
+    private final AtomicLong pendingGrowth = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService enforcer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "srp-memory-budget");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long releasedBytes;
+    private long releaseCount;
+
+    /**
+     * @param maxBytes limit for the sum of all registered caches
+     */
+    public MemoryBudget(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive, got " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.checkBytes = Math.max(64 * 1024, maxBytes / 64);
+    }
+
+    /**
+     * The budget shared by the applications: -Dsrp.memoryBudgetMb=<n> megabytes, or half of the
+     * maximum heap if unset
+     */
+    public static synchronized MemoryBudget global() {
+        if (global == null) {
+            String mb = System.getProperty(PROPERTY);
+            long bytes = (mb == null || mb.isBlank())
+                    ? Runtime.getRuntime().maxMemory() / 2
+                    : Long.parseLong(mb.trim()) * 1024 * 1024;
+            global = new MemoryBudget(bytes);
+        }
+        return global;
+    }
+
+    /**
+     * Adds a consumer under the given name; a taken name gets a "#2", "#3", ... suffix
+     */
+    public synchronized Registration register(String name, MemoryConsumer consumer) {
+        String unique = name;
+        for (int n = 2; names.contains(unique); n++) {
+            unique = name + "#" + n;
+        }
+        names.add(unique);
+        Entry entry = new Entry(unique, consumer);
+        entries.add(entry);
+        Registration registration = new Registration(entry);
+        registration.grew(consumer.usedBytes());
+        return registration;
+    }
+
+    /**
+     * Sums current usage and, if over the limit, releases entries from the cheapest consumers until
+     * the sum is back under it or nothing more can be freed.
+     * @return bytes freed
+     */
+    public synchronized long enforce() {
+        pendingGrowth.set(0);
+        List<MemoryConsumer> live = new ArrayList<>(liveEntries().values());
+        long total = 0;
+        for (MemoryConsumer consumer : live) {
+            total += consumer.usedBytes();
+        }
+        if (total <= maxBytes) {
+            return 0;
+        }
+        Map<MemoryConsumer, Double> costs = new IdentityHashMap<>();
+        for (MemoryConsumer consumer : live) {
+            costs.put(consumer, consumer.reloadCostPerByte());
+        }
+        live.sort(Comparator.comparingDouble(costs::get));
+
+        long freed = 0;
+        for (MemoryConsumer consumer : live) {
+            if (total - freed <= maxBytes || costs.get(consumer) == Double.POSITIVE_INFINITY) {
+                break;
+            }
+            long released = consumer.release(total - freed - maxBytes);
+            if (released > 0) {
+                freed += released;
+                releaseCount++;
+            }
+        }
+        releasedBytes += freed;
+        return freed;
+    }
+
+    /**
+     * Current estimated usage by registered name, in registration order
+     */
+    public synchronized Map<String, Long> usage() {
+        Map<String, Long> usage = new LinkedHashMap<>();
+        for (Map.Entry<Entry, MemoryConsumer> live : liveEntries().entrySet()) {
+            usage.put(live.getKey().name, live.getValue().usedBytes());
+        }
+        return usage;
+    }
+
+    public long usedBytes() {
+        long total = 0;
+        for (long bytes : usage().values()) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Bytes freed by enforcement so far
+     */
+    public synchronized long releasedBytes() {
+        return releasedBytes;
+    }
+
+    /**
+     * Number of release() calls that freed something
+     */
+    public synchronized long releaseCount() {
+        return releaseCount;
+    }
+
+    // Consumers still referenced elsewhere, held strongly for the caller; drops collected ones
+    private Map<Entry, MemoryConsumer> liveEntries() {
+        Map<Entry, MemoryConsumer> live = new LinkedHashMap<>();
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            MemoryConsumer consumer = entry.ref.get();
+            if (consumer == null) {
+                it.remove();
+                names.remove(entry.name);
+            } else {
+                live.put(entry, consumer);
+            }
+        }
+        return live;
+    }
+
+    private synchronized void remove(Entry entry) {
+        if (entries.remove(entry)) {
+            names.remove(entry.name);
+        }
+    }
+
+    private void grew(long bytes) {
+        if (pendingGrowth.addAndGet(bytes) < checkBytes || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        enforcer.execute(() -> {
+            scheduled.set(false);
+            enforce();
+        });
+    }
+
+    private static class Entry {
+        final String name;
+        final WeakReference<MemoryConsumer> ref;
+
+        Entry(String name, MemoryConsumer consumer) {
+            this.name = name;
+            this.ref = new WeakReference<>(consumer);
+        }
+    }
+
+    /**
+     * A consumer's handle on the budget
+     */
+    public class Registration implements AutoCloseable {
+        private final Entry entry;
+
+        private Registration(Entry entry) {
+            this.entry = entry;
+        }
+
+        public String getName() {
+            return entry.name;
+        }
+
+        public MemoryBudget getBudget() {
+            return MemoryBudget.this;
+        }
+
+        /**
+         * Reports new entries; cheap, and safe to call while holding the consumer's own locks.
+         * Enforcement runs in the background once enough growth from all consumers has added up.
+         */
+        public void grew(long bytes) {
+            MemoryBudget.this.grew(bytes);
+        }
+
+        /**
+         * Removes the consumer from the budget
+         */
+        @Override
+        public void close() {
+            remove(entry);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.srp.memory;
+
+/**
+ * Something that holds a large, measurable amount of memory and can be registered with a
+ * MemoryBudget: path caches, matrices, preprocessing per traffic hour.
+ *
+ * Implementations are called by the budget's own thread, so they must be thread-safe, and must not
+ * call back into the budget while holding a lock that release() or usedBytes() takes.
+ */
+public interface MemoryConsumer {
+
+    /**
+     * Estimated bytes held right now
+     */
+    long usedBytes();
+
+    /**
+     * Drops entries that can be computed again, least recently used first, until about the given
+     * number of bytes is freed or nothing evictable is left.
+     * @return bytes actually freed
+     */
+    long release(long bytes);
+
+    /**
+     * Estimated nanoseconds it takes to compute one released byte again; the budget evicts from
+     * the consumer where this is lowest first. POSITIVE_INFINITY if release() frees nothing.
+     */
+    double reloadCostPerByte();
+}
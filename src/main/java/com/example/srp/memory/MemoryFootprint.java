@@ -0,0 +1,176 @@
+package com.example.srp.memory;
+
+import com.example.srp.algorithms.pathfinding.PathLookup;
+import com.example.srp.models.Edge;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Vertex;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Heap needed by a map and a planning run: estimated from vertex, edge and stop counts before
+ * anything is loaded, and measured from the loaded objects afterwards.
+ *
+ * Sizes assume a 64-bit JVM with compressed references (12-byte object headers, 16-byte array
+ * headers, 8-byte alignment) and compact Latin-1 strings. Estimates assume ids of up to eight
+ * characters, 24 traffic multipliers per road, and a PathCache built by
+ * DistanceMatrixBuilder.buildForPlan (one predecessor row per stop).
+ */
+public final class MemoryFootprint {
+    public static final String GRAPH = "graph";
+    public static final String TRAFFIC = "edge traffic arrays";
+    public static final String INDEXED_GRAPH = "indexed graph";
+    public static final String PATH_CACHE = "path cache";
+    public static final String SEARCH = "search working set";
+    public static final String SOLVER = "solver working set";
+
+    private static final long REFERENCE = 4;
+    private static final long GRAPH_OBJECT = 24;
+    private static final long HASH_MAP = 48;
+    private static final long HASH_NODE = 32;
+    private static final long ARRAY_LIST = 24;
+    private static final long VERTEX = 32;
+    private static final long EDGE = 40;
+    private static final long STRING = 24;
+    private static final long BOXED = 16;
+    private static final int ID_LENGTH = 8;
+    private static final int HOURS = 24;
+
+    private MemoryFootprint() {
+    }
+
+    /**
+     * Estimate for a map that is not loaded yet
+     * @param edges two-way roads, as listed in the map file
+     * @param stops depot plus mandatory nodes of one plan
+     */
+    public static MemoryReport estimate(int vertices, int edges, int stops) {
+        MemoryReport report = new MemoryReport(String.format("Memory estimate: %d vertices, %d roads, %d stops",
+                vertices, edges, stops));
+        addEstimates(report, vertices, edges, stops, null, null);
+        return report;
+    }
+
+    /**
+     * Estimate next to what the loaded graph and cache actually hold
+     * @param cache the plan's cache, or null if none is built yet
+     */
+    public static <C extends PathLookup & MemoryConsumer> MemoryReport measure(Graph graph, C cache) {
+        int vertices = graph.vertices.size();
+        int edges = roadCount(graph);
+        int stops = (cache == null) ? 0 : cache.size();
+        MemoryReport report = new MemoryReport(String.format("Memory footprint: %d vertices, %d roads, %d stops",
+                vertices, edges, stops));
+        addEstimates(report, vertices, edges, stops, graph, cache);
+        return report;
+    }
+
+    /**
+     * Retained bytes of the graph's maps, lists, vertices, edges and id strings, without the
+     * traffic arrays
+     */
+    public static long graphBytes(Graph graph) {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = GRAPH_OBJECT + hashMapBytes(graph.vertices.size()) + hashMapBytes(graph.adjList.size());
+        for (Vertex v : graph.vertices.values()) {
+            bytes += VERTEX + stringBytes(v.getId(), seen);
+        }
+        for (var entry : graph.adjList.entrySet()) {
+            bytes += stringBytes(entry.getKey(), seen);
+            List<Edge> edges = entry.getValue();
+            bytes += ARRAY_LIST + arrayListCapacityBytes(edges.size());
+            for (Edge e : edges) {
+                bytes += EDGE + stringBytes(e.getId(), seen) + stringBytes(e.getFrom(), seen) + stringBytes(e.getTo(), seen);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Retained bytes of the per-edge traffic arrays; both directions of a road share one array
+     */
+    public static long trafficBytes(Graph graph) {
+        Set<double[]> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (List<Edge> edges : graph.adjList.values()) {
+            for (Edge e : edges) {
+                double[] traffic = e.getTraffic();
+                if (traffic != null && seen.add(traffic)) {
+                    bytes += arrayBytes(traffic.length, Double.BYTES);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static void addEstimates(MemoryReport report, long v, long e, long k, Graph graph, MemoryConsumer cache) {
+        long arcs = 2 * e;
+        long id = STRING + align(16 + ID_LENGTH);
+        // Both directions of a road share its id, endpoint strings and traffic array
+        long graphEstimate = GRAPH_OBJECT + hashMapBytes(v) * 2 + v * (VERTEX + id)
+                + v * (ARRAY_LIST + arrayListCapacityBytes(v == 0 ? 0 : (int) ((arcs + v - 1) / v)))
+                + arcs * EDGE + e * 3 * id;
+        long trafficEstimate = e * arrayBytes(HOURS, Double.BYTES);
+        // CSR arrays, the id index, and the arc weights of one hour
+        long indexedEstimate = v * (REFERENCE + 2 * Double.BYTES + Integer.BYTES + HASH_NODE + BOXED) + hashMapBytes(v)
+                + arcs * (Integer.BYTES + Double.BYTES + REFERENCE + Double.BYTES);
+        long cacheEstimate = Double.BYTES * k * (k + 1) / 2 + k * (64 + 64 + Integer.BYTES * v);
+        // Distance, touched list and heap of one search per thread
+        long searchEstimate = v * (Double.BYTES + Integer.BYTES + Integer.BYTES + Integer.BYTES + Double.BYTES);
+        // Stop lists of clusters and tours, a few copies each during 2-opt
+        long solverEstimate = 4 * k * (REFERENCE + 16);
+
+        report.add(GRAPH, graphEstimate, graph == null ? MemoryReport.NOT_MEASURED : graphBytes(graph));
+        report.add(TRAFFIC, trafficEstimate, graph == null ? MemoryReport.NOT_MEASURED : trafficBytes(graph));
+        report.add(INDEXED_GRAPH, indexedEstimate, MemoryReport.NOT_MEASURED);
+        report.add(PATH_CACHE, cacheEstimate, cache == null ? MemoryReport.NOT_MEASURED : cache.usedBytes());
+        report.add(SEARCH, searchEstimate, MemoryReport.NOT_MEASURED);
+        report.add(SOLVER, solverEstimate, MemoryReport.NOT_MEASURED);
+    }
+
+    private static int roadCount(Graph graph) {
+        int arcs = 0;
+        for (List<Edge> edges : graph.adjList.values()) {
+            arcs += edges.size();
+        }
+        return arcs / 2;
+    }
+
+    private static long stringBytes(String s, Set<Object> seen) {
+        if (s == null || !seen.add(s)) {
+            return 0;
+        }
+        return STRING + arrayBytes(s.length(), 1);
+    }
+
+    private static long hashMapBytes(long size) {
+        long capacity = 16;
+        while (size > capacity * 3 / 4) {
+            capacity *= 2;
+        }
+        return HASH_MAP + arrayBytes(capacity, REFERENCE) + size * HASH_NODE;
+    }
+
+    // ArrayList starts at 10 elements on first add and grows by half
+    private static long arrayListCapacityBytes(int size) {
+        if (size == 0) {
+            return 0;
+        }
+        long capacity = 10;
+        while (capacity < size) {
+            capacity += capacity >> 1;
+        }
+        return arrayBytes(capacity, REFERENCE);
+    }
+
+    private static long arrayBytes(long length, long elementBytes) {
+        return align(16 + length * elementBytes);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.srp.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap breakdown by component, estimated from sizes and, where the objects exist, measured from
+ * them. toString() renders the table logged at startup.
+ */
+public class MemoryReport {
+    public static final long NOT_MEASURED = -1;
+
+    private final String title;
+    private final List<Line> lines = new ArrayList<>();
+
+    public MemoryReport(String title) {
+        this.title = title;
+    }
+
+    /**
+     * @param measuredBytes retained bytes of the existing objects, or NOT_MEASURED
+     */
+    public MemoryReport add(String component, long estimatedBytes, long measuredBytes) {
+        lines.add(new Line(component, estimatedBytes, measuredBytes));
+        return this;
+    }
+
+    public List<String> getComponents() {
+        List<String> components = new ArrayList<>();
+        for (Line line : lines) {
+            components.add(line.component);
+        }
+        return components;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the report has no such component
+     */
+    public long getEstimated(String component) {
+        return line(component).estimated;
+    }
+
+    /**
+     * @return the measured bytes, or NOT_MEASURED
+     * @throws IllegalArgumentException if the report has no such component
+     */
+    public long getMeasured(String component) {
+        return line(component).measured;
+    }
+
+    public long totalEstimated() {
+        long total = 0;
+        for (Line line : lines) {
+            total += line.estimated;
+        }
+        return total;
+    }
+
+    /**
+     * Sum over measured components; components that were not measured count with their estimate
+     */
+    public long totalMeasured() {
+        long total = 0;
+        for (Line line : lines) {
+            total += (line.measured == NOT_MEASURED) ? line.estimated : line.measured;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== ").append(title).append(" ===\n");
+        sb.append(String.format("%-28s %12s %12s%n", "Component", "Estimated", "Measured"));
+        for (Line line : lines) {
+            sb.append(String.format("%-28s %12s %12s%n", line.component, format(line.estimated),
+                    line.measured == NOT_MEASURED ? "-" : format(line.measured)));
+        }
+        sb.append(String.format("%-28s %12s %12s%n", "Total", format(totalEstimated()), format(totalMeasured())));
+        return sb.toString();
+    }
+
+    private Line line(String component) {
+        for (Line line : lines) {
+            if (line.component.equals(component)) {
+                return line;
+            }
+        }
+        throw new IllegalArgumentException("No component " + component);
+    }
+
+    private static String format(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static class Line {
+        final String component;
+        final long estimated;
+        final long measured;
+
+        Line(String component, long estimated, long measured) {
+            this.component = component;
+            this.estimated = estimated;
+            this.measured = measured;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.example.srp.algorithms.balancing.RouteEvaluator;
 import com.example.srp.algorithms.clustering.ClusterAssigner;
 import com.example.srp.algorithms.clustering.GreedyBalancedAssigner;
 import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
+import com.example.srp.algorithms.pathfinding.MatrixDiskCache;
 import com.example.srp.algorithms.pathfinding.PathCache;
 import com.example.srp.algorithms.routing.NearestNeighborTSP;
 import com.example.srp.algorithms.routing.TSPSolver;
@@ -214,7 +215,7 @@ public class FreshMainWindow extends JFrame {
                 protected List<RouteInfo> doInBackground() throws Exception {
                     TrafficStore traffic = new JsonTrafficStore(currentGraph);
                     DistanceMatrixBuilder dmb = new DistanceMatrixBuilder(currentGraph, traffic, hour);
-                    PathCache cache = dmb.build(new ArrayList<>(currentGraph.getAllVertices()));
+                    PathCache cache = dmb.buildForPlan(startNode, mandatoryNodes, MatrixDiskCache.configured());
 
                     ClusterAssigner assigner = new GreedyBalancedAssigner(cache, 0.5);
                     List<NodeCluster> clusters = assigner.assignNodes(
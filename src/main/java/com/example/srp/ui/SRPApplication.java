@@ -5,16 +5,20 @@ import com.example.srp.algorithms.balancing.RouteEvaluator;
 import com.example.srp.algorithms.clustering.ClusterAssigner;
 import com.example.srp.algorithms.clustering.GreedyBalancedAssigner;
 import com.example.srp.algorithms.expansion.RouteExpander;
-import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
+import com.example.srp.algorithms.pathfinding.ConcurrentPathCache;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.MatrixDiskCache;
 import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.algorithms.pathfinding.PathEngine;
 import com.example.srp.algorithms.routing.NearestNeighborTSP;
 import com.example.srp.algorithms.routing.TSPSolver;
 import com.example.srp.algorithms.routing.TwoOptTSP;
 import com.example.srp.io.MapParser;
+import com.example.srp.memory.MemoryBudget;
+import com.example.srp.memory.MemoryFootprint;
 import com.example.srp.models.DetailedRoute;
 import com.example.srp.models.Graph;
 import com.example.srp.models.RouteInfo;
-import com.example.srp.models.Vertex;
 import com.example.srp.traffic.JsonTrafficStore;
 import com.example.srp.traffic.TrafficStore;
 
@@ -23,8 +27,12 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class SRPApplication extends JFrame {
 
@@ -48,8 +56,10 @@ public class SRPApplication extends JFrame {
 
     // Logic Data
     private Graph currentGraph;
+    private IndexedGraph indexedGraph;
     private TrafficStore trafficStore;
     private List<DetailedRoute> calculatedRoutes;
+    private final Map<Integer, ConcurrentPathCache> sharedCaches = new ConcurrentHashMap<>();
 
     // Inputs
     private JComboBox<String> startNodeCombo;
@@ -306,6 +316,9 @@ public class SRPApplication extends JFrame {
 
             // Build Traffic Store
             trafficStore = new JsonTrafficStore(currentGraph);
+            indexedGraph = IndexedGraph.of(currentGraph);
+            sharedCaches.clear();
+            System.out.println(MemoryFootprint.measure(currentGraph, null));
 
             // Populate Start Node Combo
             Vector<String> nodeIds = new Vector<>();
@@ -381,13 +394,22 @@ public class SRPApplication extends JFrame {
                 int buses = (Integer) busCountSpinner.getValue();
                 int hour = hourSlider.getValue();
 
-                List<Vertex> relevantVertices = new ArrayList<>();
-                for(String id : currentGraph.vertices.keySet()) {
-                    relevantVertices.add(currentGraph.vertices.get(id));
-                }
-
-                DistanceMatrixBuilder builder = new DistanceMatrixBuilder(currentGraph, trafficStore, hour);
-                PathCache pathCache = builder.build(relevantVertices);
+                // Shared by every calculation on this map and hour; pairs are computed once, on first use
+                // Paths count towards the JVM-wide budget, which may drop their sequences under pressure
+                ConcurrentPathCache pathCache = sharedCaches.computeIfAbsent(hour, h -> {
+                    ConcurrentPathCache cache = new ConcurrentPathCache(PathEngine.configured().create(currentGraph, trafficStore), h, true);
+                    cache.attachTo(MemoryBudget.global(), "shared paths h" + h);
+                    return cache;
+                });
+
+                // The disk cache sits behind the shared one: a stored matrix for these stops fills it
+                // without any search, otherwise the stops' pairs are computed into it and stored
+                Set<String> planStops = new LinkedHashSet<>();
+                planStops.add(startNode);
+                planStops.addAll(selectedNodes);
+                PathCache stored = MatrixDiskCache.configured().loadOrBuild(indexedGraph, trafficStore, hour, planStops,
+                        () -> pathCache.copyOf(planStops));
+                pathCache.putAll(stored);
 
                 ClusterAssigner assigner = new GreedyBalancedAssigner(pathCache);
                 TSPSolver tsp = new TwoOptTSP(pathCache, new NearestNeighborTSP(pathCache));
@@ -0,0 +1,104 @@
+package com.example.srp.algorithms.arcflags;
+
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for arc-flag search, checked against plain Dijkstra
+ */
+class ArcFlagPathFinderTest {
+
+    private Graph grid;
+    private IndexedGraph indexed;
+    private TrafficStore trafficStore;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(20, 20, 13);
+        indexed = IndexedGraph.of(grid);
+        trafficStore = new JsonTrafficStore(grid);
+    }
+
+    @Test
+    void testDistancesMatchDijkstra() {
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        ArcFlagPathFinder arcFlags = new ArcFlagPathFinder(indexed, trafficStore);
+
+        Random random = new Random(17);
+        for (int i = 0; i < 300; i++) {
+            String s = SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20));
+            String t = SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20));
+            int hour = random.nextInt(3) * 8;
+
+            Path expected = dijkstra.findShortestPath(s, t, hour);
+            Path actual = arcFlags.findShortestPath(s, t, hour);
+
+            assertEquals(expected.getTotalDistance(), actual.getTotalDistance(), 1e-9,
+                    "Distance mismatch for " + s + " -> " + t + " at hour " + hour);
+            assertEquals(s, actual.getVertices().get(0));
+            assertEquals(t, actual.getVertices().get(actual.getVertices().size() - 1));
+        }
+    }
+
+    @Test
+    void testConcurrentQueriesMatchDijkstra() throws Exception {
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        ArcFlagPathFinder arcFlags = new ArcFlagPathFinder(indexed, trafficStore);
+        Random random = new Random(8);
+        String[][] pairs = new String[300][];
+        double[] expected = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new String[]{SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20)),
+                    SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20))};
+            expected[i] = dijkstra.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                results.add(pool.submit(() -> {
+                    for (int k = 0; k < pairs.length; k++) {
+                        int i = (k + offset * 40) % pairs.length;
+                        assertEquals(expected[i], arcFlags.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance(), 1e-9);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFlagsPruneTheSearch() {
+        ArcFlagPathFinder arcFlags = new ArcFlagPathFinder(indexed, trafficStore);
+
+        arcFlags.findShortestPath("R0C0", "R19C19", 8);
+
+        // A plain Dijkstra to the far corner settles essentially the whole grid
+        assertTrue(arcFlags.lastSettled() < indexed.size() / 2,
+                "Settled " + arcFlags.lastSettled() + " of " + indexed.size());
+        assertTrue(arcFlags.getFlags(8).flagDensity() < 0.5);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.srp.algorithms.clustering;
+
+import com.example.srp.algorithms.pathfinding.DistanceOracle;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.models.NodeCluster;
+import com.example.srp.models.Path;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unknown and unreachable pairs are treated the same whether distances come from a cache or an oracle
+ */
+class GreedyBalancedAssignerTest {
+
+    private static final List<String> STOPS = Arrays.asList("A", "B", "C");
+
+    @Test
+    void testUnreachableStopIsRejectedFromCache() {
+        PathCache cache = new PathCache();
+        cache.put("D", "A", new Path(Arrays.asList("D", "A"), 1.0));
+        cache.put("D", "B", new Path(Arrays.asList("D", "B"), 2.0));
+        cache.put("D", "C", new Path(Collections.emptyList(), Double.POSITIVE_INFINITY));
+
+        assertThrows(IllegalStateException.class, () -> new GreedyBalancedAssigner(cache).assignNodes(STOPS, "D", 2));
+    }
+
+    @Test
+    void testUnknownAndUnreachableStopsAreRejectedFromOracle() {
+        DistanceOracle unreachable = (from, to) -> to.equals("C") ? Double.POSITIVE_INFINITY : 1.0;
+        DistanceOracle unknown = (from, to) -> to.equals("C") ? Double.NaN : 1.0;
+
+        assertThrows(IllegalStateException.class,
+                () -> new GreedyBalancedAssigner(unreachable, 0.5).assignNodes(STOPS, "D", 2));
+        assertThrows(IllegalStateException.class,
+                () -> new GreedyBalancedAssigner(unknown, 0.5).assignNodes(STOPS, "D", 2));
+    }
+
+    @Test
+    void testUnreachablePairBetweenStopsIsSkipped() {
+        // A and B are unreachable from each other but both reachable from the depot
+        DistanceOracle oracle = (from, to) -> (from + to).matches("AB|BA") ? Double.POSITIVE_INFINITY : 1.0;
+        PathCache cache = new PathCache();
+        for (String stop : STOPS) {
+            cache.put("D", stop, new Path(Arrays.asList("D", stop), 1.0));
+        }
+        cache.put("A", "B", new Path(Collections.emptyList(), Double.POSITIVE_INFINITY));
+        cache.put("A", "C", new Path(Arrays.asList("A", "C"), 1.0));
+        cache.put("B", "C", new Path(Arrays.asList("B", "C"), 1.0));
+
+        for (GreedyBalancedAssigner assigner : Arrays.asList(
+                new GreedyBalancedAssigner(cache, 0.0), new GreedyBalancedAssigner(oracle, 0.0))) {
+            for (NodeCluster cluster : assigner.assignNodes(STOPS, "D", 1)) {
+                assertEquals(3.0, cluster.getTotalDistance(), 1e-9);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Edge;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the bucket many-to-many matrix builder, checked against DistanceMatrixBuilder
+ */
+class CHMatrixBuilderTest {
+
+    private Graph grid;
+    private TrafficStore trafficStore;
+    private List<Vertex> stops;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(14, 14, 6);
+        trafficStore = new JsonTrafficStore(grid);
+        stops = new ArrayList<>();
+        for (int r = 0; r < 14; r += 3) {
+            for (int c = 1; c < 14; c += 4) {
+                stops.add(grid.vertices.get(SyntheticMapGenerator.vertexId(r, c)));
+            }
+        }
+    }
+
+    @Test
+    void testMatchesDistanceMatrixBuilder() {
+        int hour = 17;
+        PathCache expected = new DistanceMatrixBuilder(grid, trafficStore, hour).build(stops);
+        PathCache actual = new CHMatrixBuilder(grid, trafficStore, hour).build(stops);
+
+        for (Vertex from : stops) {
+            for (Vertex to : stops) {
+                Path e = expected.get(from.getId(), to.getId());
+                Path a = actual.get(from.getId(), to.getId());
+                assertNotNull(a, "Missing " + from.getId() + " -> " + to.getId());
+                assertEquals(e.getTotalDistance(), a.getTotalDistance(), 1e-9);
+                assertEquals(from.getId(), a.getVertices().get(0));
+                assertEquals(to.getId(), a.getVertices().get(a.getVertices().size() - 1));
+                assertPathIsDriveable(a, hour);
+            }
+        }
+    }
+
+    @Test
+    void testBucketDistancesMatchQueries() {
+        CHPathFinder finder = new CHPathFinder(grid, trafficStore);
+        ContractionHierarchy ch = finder.getHierarchy(8);
+        int[] targets = stops.stream().mapToInt(v -> ch.getGraph().indexOf(v.getId())).toArray();
+        BucketManyToMany buckets = new BucketManyToMany(ch, targets);
+        CHQuery query = ch.newQuery();
+
+        for (int source : targets) {
+            double[] row = buckets.distances(source);
+            for (int t = 0; t < targets.length; t++) {
+                assertEquals(query.distance(source, targets[t]), row[t], 1e-9);
+            }
+        }
+    }
+
+    private void assertPathIsDriveable(Path path, int hour) {
+        double walked = 0.0;
+        List<String> vertices = path.getVertices();
+        for (int i = 0; i < vertices.size() - 1; i++) {
+            double road = Double.POSITIVE_INFINITY;
+            for (Edge e : grid.getNeighborEdge(vertices.get(i))) {
+                if (e.getTo().equals(vertices.get(i + 1))) {
+                    road = Math.min(road, e.getDistance() * trafficStore.getMultipliers(e.getId(), hour));
+                }
+            }
+            walked += road;
+        }
+        assertEquals(path.getTotalDistance(), walked, 1e-9);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.io.MapParser;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Edge;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Contraction Hierarchies, checked against plain Dijkstra
+ */
+class ContractionHierarchyTest {
+
+    private Graph grid;
+    private TrafficStore trafficStore;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(15, 15, 11);
+        trafficStore = new JsonTrafficStore(grid);
+    }
+
+    @Test
+    void testDistancesMatchDijkstra() {
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        CHPathFinder ch = new CHPathFinder(grid, trafficStore);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            String s = SyntheticMapGenerator.vertexId(random.nextInt(15), random.nextInt(15));
+            String t = SyntheticMapGenerator.vertexId(random.nextInt(15), random.nextInt(15));
+            int hour = random.nextInt(3) * 8;
+
+            Path expected = dijkstra.findShortestPath(s, t, hour);
+            Path actual = ch.findShortestPath(s, t, hour);
+
+            assertEquals(expected.getTotalDistance(), actual.getTotalDistance(), 1e-9,
+                    "Distance mismatch for " + s + " -> " + t + " at hour " + hour);
+        }
+    }
+
+    @Test
+    void testConcurrentQueriesMatchDijkstra() throws Exception {
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        CHPathFinder ch = new CHPathFinder(grid, trafficStore);
+        Random random = new Random(5);
+        String[][] pairs = new String[400][];
+        double[] expected = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new String[]{SyntheticMapGenerator.vertexId(random.nextInt(15), random.nextInt(15)),
+                    SyntheticMapGenerator.vertexId(random.nextInt(15), random.nextInt(15))};
+            expected[i] = dijkstra.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                results.add(pool.submit(() -> {
+                    for (int k = 0; k < pairs.length; k++) {
+                        int i = (k + offset * 50) % pairs.length;
+                        assertEquals(expected[i], ch.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance(), 1e-9);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testUnpackedPathIsConnected() {
+        CHPathFinder ch = new CHPathFinder(grid, trafficStore);
+        int hour = 8;
+
+        Path path = ch.findShortestPath("R0C0", "R14C14", hour);
+
+        assertEquals("R0C0", path.getVertices().get(0));
+        assertEquals("R14C14", path.getVertices().get(path.getVertices().size() - 1));
+
+        // Re-walking the unpacked vertices over real roads must give the reported distance
+        double walked = 0.0;
+        for (int i = 0; i < path.getVertices().size() - 1; i++) {
+            walked += cheapestRoad(path.getVertices().get(i), path.getVertices().get(i + 1), hour);
+        }
+        assertEquals(path.getTotalDistance(), walked, 1e-9);
+    }
+
+    @Test
+    void testSameSourceAndTarget() {
+        CHPathFinder ch = new CHPathFinder(grid, trafficStore);
+
+        Path path = ch.findShortestPath("R3C3", "R3C3", 0);
+
+        assertEquals(0.0, path.getTotalDistance(), 0.001);
+        assertEquals(List.of("R3C3"), path.getVertices());
+    }
+
+    @Test
+    void testUnreachableTarget() {
+        Vertex island = new Vertex();
+        island.setId("Island");
+        grid.addVertex(island);
+        CHPathFinder ch = new CHPathFinder(grid, trafficStore);
+
+        Path path = ch.findShortestPath("R0C0", "Island", 0);
+
+        assertTrue(path.getVertices().isEmpty());
+        assertEquals(Double.POSITIVE_INFINITY, path.getTotalDistance());
+    }
+
+    @Test
+    void testPlugsIntoDistanceMatrixBuilder() throws Exception {
+        Graph graph = new MapParser().parse("map-1");
+        TrafficStore ts = new JsonTrafficStore(graph);
+        List<Vertex> vertices = new ArrayList<>(graph.getAllVertices());
+
+        PathCache expected = new DistanceMatrixBuilder(graph, ts, 8).build(vertices);
+        PathCache actual = new DistanceMatrixBuilder(graph, ts, 8, new CHPathFinder(graph, ts)).build(vertices);
+
+        for (Vertex a : vertices) {
+            for (Vertex b : vertices) {
+                assertEquals(expected.get(a.getId(), b.getId()).getTotalDistance(),
+                        actual.get(a.getId(), b.getId()).getTotalDistance(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testUpwardArcsPointToHigherRank() {
+        IndexedGraph indexed = IndexedGraph.of(grid);
+        ContractionHierarchy ch = ContractionHierarchy.build(indexed, indexed.weights(trafficStore, 0));
+
+        for (int v = 0; v < ch.size(); v++) {
+            for (int arc = ch.upFirst(v); arc < ch.upEnd(v); arc++) {
+                assertTrue(ch.rank(ch.upHead(arc)) > ch.rank(v));
+            }
+        }
+    }
+
+    private double cheapestRoad(String from, String to, int hour) {
+        double best = Double.POSITIVE_INFINITY;
+        for (Edge e : grid.getNeighborEdge(from)) {
+            if (e.getTo().equals(to)) {
+                best = Math.min(best, e.getDistance() * trafficStore.getMultipliers(e.getId(), hour));
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.OneToManyDijkstra;
+import com.example.srp.algorithms.pathfinding.ShortestPathTree;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for hub labels, checked against plain Dijkstra
+ */
+class HubLabelsTest {
+
+    private Graph grid;
+    private IndexedGraph indexed;
+    private TrafficStore trafficStore;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(18, 18, 4);
+        indexed = IndexedGraph.of(grid);
+        trafficStore = new JsonTrafficStore(grid);
+    }
+
+    @Test
+    void testDistancesMatchDijkstra() {
+        int hour = 8;
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        HubLabels labels = HubLabels.build(ContractionHierarchy.build(indexed, indexed.weights(trafficStore, hour)));
+
+        Random random = new Random(21);
+        for (int i = 0; i < 300; i++) {
+            String s = SyntheticMapGenerator.vertexId(random.nextInt(18), random.nextInt(18));
+            String t = SyntheticMapGenerator.vertexId(random.nextInt(18), random.nextInt(18));
+
+            assertEquals(dijkstra.findShortestPath(s, t, hour).getTotalDistance(), labels.distance(s, t), 1e-9,
+                    "Distance mismatch for " + s + " -> " + t);
+        }
+    }
+
+    @Test
+    void testLabelsArePruned() {
+        HubLabels labels = new CHPathFinder(indexed, trafficStore).getHubLabels(0);
+
+        assertTrue(labels.averageLabelSize() < indexed.size() / 4.0,
+                "Average label size " + labels.averageLabelSize());
+        assertEquals(0.0, labels.distance("R3C3", "R3C3"));
+        assertEquals(Double.POSITIVE_INFINITY, labels.distance("R3C3", "missing"));
+    }
+
+    @Test
+    void testKeptEntriesAreShortestDistances() {
+        int hour = 8;
+        ContractionHierarchy ch = ContractionHierarchy.build(indexed, indexed.weights(trafficStore, hour));
+        HubLabels labels = HubLabels.build(ch);
+        int[] vertexAt = new int[indexed.size()];
+        for (int v = 0; v < indexed.size(); v++) {
+            vertexAt[ch.rank(v)] = v;
+        }
+
+        // An entry longer than the true distance to its hub should have been pruned
+        OneToManyDijkstra dijkstra = new OneToManyDijkstra(indexed, trafficStore);
+        for (int v = 0; v < indexed.size(); v++) {
+            ShortestPathTree tree = dijkstra.search(indexed.idOf(v), hour);
+            for (int i = 0; i < labels.labelSize(v); i++) {
+                String hub = indexed.idOf(vertexAt[labels.hubRank(v, i)]);
+                assertEquals(tree.distanceTo(hub), labels.hubDistance(v, i), 1e-9,
+                        "Label of " + indexed.idOf(v) + " keeps a detour to " + hub);
+            }
+        }
+    }
+
+    @Test
+    void testMappedLabelsMatchBuiltLabels() throws IOException {
+        HubLabels built = new CHPathFinder(indexed, trafficStore).getHubLabels(17);
+        Path file = tempDir.resolve("labels-h17.bin");
+        built.save(file, trafficStore, 17);
+
+        HubLabels mapped = HubLabels.map(file, indexed, trafficStore, 17);
+
+        assertEquals(built.sizeInBytes(), mapped.sizeInBytes());
+        for (int s = 0; s < indexed.size(); s += 11) {
+            for (int t = 0; t < indexed.size(); t += 13) {
+                assertEquals(built.distance(s, t), mapped.distance(s, t));
+            }
+        }
+        assertThrows(IOException.class, () -> HubLabels.map(file, indexed, trafficStore, 8));
+    }
+}
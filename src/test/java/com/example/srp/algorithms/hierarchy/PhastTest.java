@@ -0,0 +1,68 @@
+package com.example.srp.algorithms.hierarchy;
+
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PHAST one-to-all sweeps, checked against plain Dijkstra
+ */
+class PhastTest {
+
+    private Graph grid;
+    private IndexedGraph indexed;
+    private TrafficStore trafficStore;
+    private ContractionHierarchy ch;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(15, 15, 8);
+        indexed = IndexedGraph.of(grid);
+        trafficStore = new JsonTrafficStore(grid);
+        ch = ContractionHierarchy.build(indexed, indexed.weights(trafficStore, 8));
+    }
+
+    @Test
+    void testOneToAllMatchesDijkstra() {
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        Phast phast = new Phast(ch);
+
+        for (String source : List.of("R0C0", "R7C7", "R14C3")) {
+            double[] dist = phast.distancesFrom(indexed.indexOf(source));
+            for (int v = 0; v < indexed.size(); v++) {
+                assertEquals(dijkstra.findShortestPath(source, indexed.idOf(v), 8).getTotalDistance(), dist[v], 1e-9,
+                        "Distance mismatch for " + source + " -> " + indexed.idOf(v));
+            }
+        }
+    }
+
+    @Test
+    void testRestrictedSweepMatchesFullSweep() {
+        List<Integer> targets = new ArrayList<>();
+        for (int v = 0; v < indexed.size(); v += 17) {
+            targets.add(v);
+        }
+        int[] targetArray = targets.stream().mapToInt(Integer::intValue).toArray();
+        Phast full = new Phast(ch);
+        Phast restricted = Phast.restrictedTo(ch, targets);
+
+        assertTrue(restricted.sweepSize() < full.sweepSize());
+        for (int source = 0; source < indexed.size(); source += 23) {
+            double[] all = full.distancesFrom(source);
+            double[] some = restricted.distancesFrom(source, targetArray);
+            for (int j = 0; j < targetArray.length; j++) {
+                assertEquals(all[targetArray[j]], some[j], 1e-9);
+            }
+        }
+    }
+}
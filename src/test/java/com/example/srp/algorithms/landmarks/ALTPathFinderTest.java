@@ -0,0 +1,160 @@
+package com.example.srp.algorithms.landmarks;
+
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ALT landmark search, checked against plain Dijkstra
+ */
+class ALTPathFinderTest {
+
+    private Graph grid;
+    private IndexedGraph indexed;
+    private TrafficStore ts;
+
+    @TempDir
+    java.nio.file.Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(20, 20, 11);
+        indexed = IndexedGraph.of(grid);
+        ts = new JsonTrafficStore(grid);
+    }
+
+    @Test
+    void testDistancesMatchDijkstra() {
+        Dijkstra dijkstra = new Dijkstra(grid, ts);
+        ALTPathFinder shared = new ALTPathFinder(indexed, ts, 8, false, null);
+        ALTPathFinder perHour = new ALTPathFinder(indexed, ts, 8, true, null);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            String s = SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20));
+            String t = SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20));
+            int hour = random.nextInt(24);
+
+            double expected = dijkstra.findShortestPath(s, t, hour).getTotalDistance();
+            assertEquals(expected, shared.findShortestPath(s, t, hour).getTotalDistance(), 1e-9);
+            assertEquals(expected, perHour.findShortestPath(s, t, hour).getTotalDistance(), 1e-9);
+        }
+    }
+
+    @Test
+    void testConcurrentQueriesMatchDijkstra() throws Exception {
+        Dijkstra dijkstra = new Dijkstra(grid, ts);
+        ALTPathFinder alt = new ALTPathFinder(indexed, ts, 8, true, null);
+        Random random = new Random(6);
+        String[][] pairs = new String[300][];
+        double[] expected = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new String[]{SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20)),
+                    SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20))};
+            expected[i] = dijkstra.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                results.add(pool.submit(() -> {
+                    for (int k = 0; k < pairs.length; k++) {
+                        int i = (k + offset * 40) % pairs.length;
+                        assertEquals(expected[i], alt.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance(), 1e-9);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBoundsAreAdmissible() {
+        LandmarkTable table = LandmarkTable.build(indexed, ts, LandmarkTable.ALL_HOURS,
+                LandmarkSelector.Strategy.FARTHEST, 4);
+        Dijkstra dijkstra = new Dijkstra(grid, ts);
+        int target = indexed.indexOf("R19C0");
+
+        for (int hour : new int[]{0, 8, 17}) {
+            for (int v = 0; v < indexed.size(); v += 7) {
+                Path path = dijkstra.findShortestPath(indexed.idOf(v), "R19C0", hour);
+                assertTrue(table.lowerBound(v, target) <= path.getTotalDistance() + 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testSaveAndLoadRoundTrip() throws IOException {
+        LandmarkTable table = LandmarkTable.build(indexed, ts, 8, LandmarkSelector.Strategy.AVOID, 6);
+        java.nio.file.Path file = tempDir.resolve("landmarks.bin");
+        table.save(file, indexed, ts);
+
+        LandmarkTable loaded = LandmarkTable.load(file, indexed, ts);
+
+        assertEquals(8, loaded.getHour());
+        assertArrayEquals(table.getLandmarks(), loaded.getLandmarks());
+        for (int v = 0; v < indexed.size(); v += 13) {
+            assertEquals(table.lowerBound(v, 0), loaded.lowerBound(v, 0));
+        }
+    }
+
+    @Test
+    void testStaleTableIsRejected() throws IOException {
+        java.nio.file.Path file = tempDir.resolve("landmarks.bin");
+        LandmarkTable.build(indexed, ts, 8, LandmarkSelector.Strategy.AVOID, 4).save(file, indexed, ts);
+
+        TrafficStore changed = new TrafficStore() {
+            @Override
+            public double getMultipliers(String edge, int hour) {
+                return ts.getMultipliers(edge, hour) * 1.5;
+            }
+
+            @Override
+            public Map<String, Double> getMultipliersForHour(int hour) {
+                return ts.getMultipliersForHour(hour);
+            }
+        };
+        assertThrows(IOException.class, () -> LandmarkTable.load(file, indexed, changed));
+
+        // loadOrBuild replaces the stale file instead of failing
+        LandmarkTable rebuilt = LandmarkTable.loadOrBuild(file, indexed, changed, 8,
+                LandmarkSelector.Strategy.AVOID, 4);
+        assertEquals(4, rebuilt.getLandmarks().length);
+        assertDoesNotThrow(() -> LandmarkTable.load(file, indexed, changed));
+    }
+
+    @Test
+    void testTablesArePersistedInDirectory() {
+        ALTPathFinder alt = new ALTPathFinder(indexed, ts, 4, false, tempDir);
+
+        alt.findShortestPath("R0C0", "R19C19", 8);
+
+        assertTrue(Files.exists(tempDir.resolve("landmarks-all.bin")));
+    }
+}
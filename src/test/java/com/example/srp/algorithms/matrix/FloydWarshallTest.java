@@ -0,0 +1,123 @@
+package com.example.srp.algorithms.matrix;
+
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Floyd-Warshall kernels and matrix builder
+ */
+class FloydWarshallTest {
+
+    private Graph grid;
+    private IndexedGraph indexed;
+    private TrafficStore trafficStore;
+
+    @BeforeEach
+    void setUp() {
+        // 13 columns so rows do not fill whole SIMD vectors and the tail loop runs too
+        grid = SyntheticMapGenerator.grid(9, 13, 3);
+        indexed = IndexedGraph.of(grid);
+        trafficStore = new JsonTrafficStore(grid);
+    }
+
+    @Test
+    void testVectorAndScalarKernelsAgree() {
+        double[] weights = indexed.weights(trafficStore, 8);
+        int n = indexed.size();
+        double[] scalar = FloydWarshall.seed(indexed, weights);
+        double[] vector = scalar.clone();
+
+        FloydWarshall.close(scalar, n, false);
+        FloydWarshall.close(vector, n, true);
+
+        assertArrayEquals(scalar, vector, 1e-12);
+    }
+
+    @Test
+    void testClosureMatchesDijkstra() {
+        double[] d = FloydWarshall.seed(indexed, indexed.weights(trafficStore, 17));
+        int n = indexed.size();
+        FloydWarshall.close(d, n);
+
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        for (int s = 0; s < n; s += 7) {
+            for (int t = 0; t < n; t += 5) {
+                Path expected = dijkstra.findShortestPath(indexed.idOf(s), indexed.idOf(t), 17);
+                assertEquals(expected.getTotalDistance(), d[s * n + t], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testBuilderMatchesDistanceMatrixBuilder() {
+        List<Vertex> stops = new ArrayList<>();
+        for (int v = 0; v < indexed.size(); v += 9) {
+            stops.add(grid.vertices.get(indexed.idOf(v)));
+        }
+
+        PathCache expected = new DistanceMatrixBuilder(grid, trafficStore, 8).build(stops);
+        PathCache actual = new FloydWarshallMatrixBuilder(grid, trafficStore, 8).build(stops);
+
+        for (Vertex from : stops) {
+            for (Vertex to : stops) {
+                Path a = actual.get(from.getId(), to.getId());
+                assertEquals(expected.get(from.getId(), to.getId()).getTotalDistance(), a.getTotalDistance(), 1e-9);
+                assertEquals(from.getId(), a.getVertices().get(0));
+                assertEquals(to.getId(), a.getVertices().get(a.getVertices().size() - 1));
+            }
+        }
+    }
+
+    @Test
+    void testStopMatrixMatchesDistanceMatrixBuilder() {
+        // Larger than whole-graph mode allows
+        Graph big = SyntheticMapGenerator.grid(31, 31, 5);
+        IndexedGraph bigIndexed = IndexedGraph.of(big);
+        TrafficStore bigTraffic = new JsonTrafficStore(big);
+        List<Vertex> stops = new ArrayList<>();
+        for (int v = 0; v < bigIndexed.size(); v += 37) {
+            stops.add(big.vertices.get(bigIndexed.idOf(v)));
+        }
+
+        PathCache expected = new DistanceMatrixBuilder(big, bigTraffic, 17).build(stops);
+        FloydWarshallMatrixBuilder builder = new FloydWarshallMatrixBuilder(bigIndexed, bigTraffic, 17);
+        PathCache actual = builder.buildForStops(stops);
+
+        for (Vertex from : stops) {
+            for (Vertex to : stops) {
+                Path a = actual.get(from.getId(), to.getId());
+                assertEquals(expected.get(from.getId(), to.getId()).getTotalDistance(), a.getTotalDistance(), 1e-9);
+                assertEquals(from.getId(), a.getVertices().get(0));
+                assertEquals(to.getId(), a.getVertices().get(a.getVertices().size() - 1));
+                assertEquals(a.getTotalDistance(), legLength(big, bigTraffic, a), 1e-6);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> builder.build(stops));
+    }
+
+    // Length of a path summed road by road from a one-hop Dijkstra
+    private static double legLength(Graph graph, TrafficStore ts, Path path) {
+        Dijkstra dijkstra = new Dijkstra(graph, ts);
+        List<String> vertices = path.getVertices();
+        double total = 0;
+        for (int i = 0; i + 1 < vertices.size(); i++) {
+            total += dijkstra.findShortestPath(vertices.get(i), vertices.get(i + 1), 17).getTotalDistance();
+        }
+        return total;
+    }
+}
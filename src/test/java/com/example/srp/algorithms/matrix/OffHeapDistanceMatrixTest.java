@@ -0,0 +1,103 @@
+package com.example.srp.algorithms.matrix;
+
+import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the off-heap distance matrix
+ */
+class OffHeapDistanceMatrixTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSymmetricEntriesAndUnsetValues() {
+        try (OffHeapDistanceMatrix matrix = OffHeapDistanceMatrix.allocate(100, true)) {
+            matrix.ensureSize(3);
+            matrix.set(2, 0, 4.5);
+            matrix.set(1, 1, 0.0);
+
+            assertEquals(4.5, matrix.get(0, 2));
+            assertEquals(4.5, matrix.get(2, 0));
+            assertEquals(0.0, matrix.get(1, 1));
+            assertTrue(Double.isNaN(matrix.get(99, 98)));
+            assertEquals(3, matrix.size());
+            assertEquals(100L * 101 / 2 * Double.BYTES, matrix.sizeInBytes());
+            assertThrows(IllegalArgumentException.class, () -> matrix.ensureSize(101));
+        }
+    }
+
+    @Test
+    void testAsymmetricKeepsDirectionsApart() {
+        try (OffHeapDistanceMatrix matrix = OffHeapDistanceMatrix.allocate(10, false)) {
+            matrix.set(3, 7, 1.0);
+            matrix.set(7, 3, 2.0);
+
+            assertEquals(1.0, matrix.get(3, 7));
+            assertEquals(2.0, matrix.get(7, 3));
+            assertFalse(matrix.isSymmetric());
+        }
+    }
+
+    @Test
+    void testAccessAfterCloseFails() {
+        OffHeapDistanceMatrix matrix = OffHeapDistanceMatrix.allocate(10, true);
+        matrix.set(1, 0, 1.0);
+        matrix.close();
+
+        assertFalse(matrix.isOpen());
+        assertThrows(IllegalStateException.class, () -> matrix.get(1, 0));
+        matrix.close();
+    }
+
+    @Test
+    void testFileBackedMatrixIsWrittenThrough() throws IOException {
+        Path file = directory.resolve("matrix.bin");
+        try (OffHeapDistanceMatrix matrix = OffHeapDistanceMatrix.mapFile(file, 4, true)) {
+            assertTrue(matrix.isFileBacked());
+            matrix.set(0, 0, 0.0);
+            matrix.set(1, 0, 7.25);
+        }
+
+        assertEquals(4L * 5 / 2 * Double.BYTES, Files.size(file));
+        // Entry (1, 0) is the second of the packed triangle; the file is in native byte order
+        byte[] bytes = Files.readAllBytes(file);
+        long bits = java.nio.ByteBuffer.wrap(bytes, Double.BYTES, Double.BYTES)
+                .order(java.nio.ByteOrder.nativeOrder()).getLong();
+        assertEquals(7.25, Double.longBitsToDouble(bits));
+    }
+
+    @Test
+    void testPathCacheOnOffHeapMatrix() {
+        Graph grid = SyntheticMapGenerator.grid(6, 6, 10);
+        TrafficStore trafficStore = new JsonTrafficStore(grid);
+        List<Vertex> stops = new ArrayList<>(grid.getAllVertices());
+        DistanceMatrixBuilder builder = new DistanceMatrixBuilder(grid, trafficStore, 8);
+
+        PathCache onHeap = builder.build(stops);
+        try (OffHeapDistanceMatrix matrix = OffHeapDistanceMatrix.allocate(stops.size(), true)) {
+            PathCache offHeap = builder.build(stops, new PathCache(matrix));
+            for (Vertex a : stops) {
+                for (Vertex b : stops) {
+                    assertEquals(onHeap.getDistance(a.getId(), b.getId()), offHeap.getDistance(a.getId(), b.getId()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.srp.algorithms.overlay;
+
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Edge;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for customizable route planning, checked against plain Dijkstra
+ */
+class CRPPathFinderTest {
+
+    private Graph grid;
+    private IndexedGraph indexed;
+    private OverlayGraph overlay;
+
+    /**
+     * Traffic store whose multipliers can be overridden at runtime, like a live feed
+     */
+    private static class LiveTrafficStore implements TrafficStore {
+        final TrafficStore base;
+        final Map<String, Double> overrides = new HashMap<>();
+
+        LiveTrafficStore(TrafficStore base) {
+            this.base = base;
+        }
+
+        @Override
+        public double getMultipliers(String edge, int hour) {
+            return overrides.getOrDefault(edge, base.getMultipliers(edge, hour));
+        }
+
+        @Override
+        public Map<String, Double> getMultipliersForHour(int hour) {
+            return base.getMultipliersForHour(hour);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(16, 16, 5);
+        indexed = IndexedGraph.of(grid);
+        // Small cells so that queries cross all three levels
+        overlay = new OverlayGraph(indexed, Partition.build(indexed, new int[]{8, 32, 128}));
+    }
+
+    @Test
+    void testPartitionIsNested() {
+        Partition partition = overlay.getPartition();
+        assertEquals(3, partition.levels());
+        for (int l = 1; l < partition.levels(); l++) {
+            Map<Integer, Integer> parentOf = new HashMap<>();
+            for (int v = 0; v < indexed.size(); v++) {
+                Integer previous = parentOf.put(partition.cellOf(l - 1, v), partition.cellOf(l, v));
+                assertTrue(previous == null || previous == partition.cellOf(l, v),
+                        "Level " + (l - 1) + " cell split across level " + l + " cells");
+            }
+        }
+    }
+
+    @Test
+    void testDistancesMatchDijkstra() {
+        TrafficStore ts = new JsonTrafficStore(grid);
+        Dijkstra dijkstra = new Dijkstra(grid, ts);
+        CRPPathFinder crp = new CRPPathFinder(overlay, ts);
+
+        Random random = new Random(9);
+        for (int i = 0; i < 300; i++) {
+            String s = SyntheticMapGenerator.vertexId(random.nextInt(16), random.nextInt(16));
+            String t = SyntheticMapGenerator.vertexId(random.nextInt(16), random.nextInt(16));
+            int hour = random.nextInt(3) * 8;
+
+            Path expected = dijkstra.findShortestPath(s, t, hour);
+            Path actual = crp.findShortestPath(s, t, hour);
+
+            assertEquals(expected.getTotalDistance(), actual.getTotalDistance(), 1e-9,
+                    "Distance mismatch for " + s + " -> " + t + " at hour " + hour);
+            assertPathIsDriveable(actual, ts, hour);
+        }
+    }
+
+    @Test
+    void testConcurrentQueriesMatchDijkstra() throws Exception {
+        TrafficStore ts = new JsonTrafficStore(grid);
+        Dijkstra dijkstra = new Dijkstra(grid, ts);
+        CRPPathFinder crp = new CRPPathFinder(overlay, ts);
+        Random random = new Random(4);
+        String[][] pairs = new String[300][];
+        double[] expected = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new String[]{SyntheticMapGenerator.vertexId(random.nextInt(16), random.nextInt(16)),
+                    SyntheticMapGenerator.vertexId(random.nextInt(16), random.nextInt(16))};
+            expected[i] = dijkstra.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                results.add(pool.submit(() -> {
+                    for (int k = 0; k < pairs.length; k++) {
+                        int i = (k + offset * 40) % pairs.length;
+                        assertEquals(expected[i], crp.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance(), 1e-9);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLiveUpdateOnlyNeedsRecustomization() {
+        LiveTrafficStore ts = new LiveTrafficStore(new JsonTrafficStore(grid));
+        CRPPathFinder crp = new CRPPathFinder(overlay, ts);
+        int hour = 8;
+
+        Path before = crp.findShortestPath("R0C0", "R15C15", hour);
+
+        // Jam every road on the current best path
+        for (int i = 0; i < before.getVertices().size() - 1; i++) {
+            for (Edge e : grid.getNeighborEdge(before.getVertices().get(i))) {
+                if (e.getTo().equals(before.getVertices().get(i + 1))) {
+                    ts.overrides.put(e.getId(), 50.0);
+                }
+            }
+        }
+        crp.applyTrafficUpdate(ts.overrides.keySet());
+
+        Path after = crp.findShortestPath("R0C0", "R15C15", hour);
+        Path expected = new Dijkstra(grid, ts).findShortestPath("R0C0", "R15C15", hour);
+        assertEquals(expected.getTotalDistance(), after.getTotalDistance(), 1e-9);
+        assertNotEquals(before.getVertices(), after.getVertices());
+    }
+
+    @Test
+    void testSameSourceAndTarget() {
+        CRPPathFinder crp = new CRPPathFinder(overlay, new JsonTrafficStore(grid));
+
+        Path path = crp.findShortestPath("R4C4", "R4C4", 0);
+
+        assertEquals(0.0, path.getTotalDistance(), 0.001);
+        assertEquals(List.of("R4C4"), path.getVertices());
+    }
+
+    private void assertPathIsDriveable(Path path, TrafficStore ts, int hour) {
+        double walked = 0.0;
+        List<String> vertices = path.getVertices();
+        for (int i = 0; i < vertices.size() - 1; i++) {
+            double road = Double.POSITIVE_INFINITY;
+            for (Edge e : grid.getNeighborEdge(vertices.get(i))) {
+                if (e.getTo().equals(vertices.get(i + 1))) {
+                    road = Math.min(road, e.getDistance() * ts.getMultipliers(e.getId(), hour));
+                }
+            }
+            walked += road;
+        }
+        assertEquals(path.getTotalDistance(), walked, 1e-9);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for bidirectional Dijkstra, checked against the plain engine
+ */
+class BidirectionalDijkstraTest {
+
+    private Graph graph;
+    private TrafficStore trafficStore;
+    private BidirectionalDijkstra bidirectional;
+
+    private Vertex createVertex(String id, double x, double y) {
+        Vertex v = new Vertex();
+        v.setId(id);
+        v.setX(x);
+        v.setY(y);
+        return v;
+    }
+
+    private double[] createNoTraffic() {
+        double[] traffic = new double[24];
+        for (int i = 0; i < 24; i++) {
+            traffic[i] = 1.0;
+        }
+        return traffic;
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Same graph as DijkstraTest:
+        // N1 --2-- N2 --3-- N3
+        //  |               |
+        //  4               2
+        //  |               |
+        // N4 ------5------ N5
+        graph = new Graph();
+        graph.addVertex(createVertex("N1", 0, 0));
+        graph.addVertex(createVertex("N2", 100, 0));
+        graph.addVertex(createVertex("N3", 200, 0));
+        graph.addVertex(createVertex("N4", 0, 100));
+        graph.addVertex(createVertex("N5", 200, 100));
+
+        double[] noTraffic = createNoTraffic();
+        graph.addEdge("E1", "N1", "N2", 2.0, noTraffic);
+        graph.addEdge("E2", "N2", "N3", 3.0, noTraffic);
+        graph.addEdge("E3", "N1", "N4", 4.0, noTraffic);
+        graph.addEdge("E4", "N3", "N5", 2.0, noTraffic);
+        graph.addEdge("E5", "N4", "N5", 5.0, noTraffic);
+
+        trafficStore = new JsonTrafficStore(graph);
+        bidirectional = new BidirectionalDijkstra(graph, trafficStore);
+    }
+
+    @Test
+    void testShortestPathChoice() {
+        Path path = bidirectional.findShortestPath("N1", "N5", 0);
+
+        assertEquals(7.0, path.getTotalDistance(), 0.001, "Should choose N1-N2-N3-N5");
+        assertEquals(List.of("N1", "N2", "N3", "N5"), path.getVertices());
+    }
+
+    @Test
+    void testSameSourceAndTarget() {
+        Path path = bidirectional.findShortestPath("N3", "N3", 0);
+
+        assertEquals(0.0, path.getTotalDistance(), 0.001);
+        assertEquals(1, path.getVertices().size());
+        assertEquals("N3", path.getVertices().get(0));
+    }
+
+    @Test
+    void testUnreachableTarget() {
+        graph.addVertex(createVertex("N6", 300, 300));
+
+        Path path = bidirectional.findShortestPath("N1", "N6", 0);
+
+        assertTrue(path.getVertices().isEmpty());
+        assertEquals(Double.POSITIVE_INFINITY, path.getTotalDistance());
+    }
+
+    @Test
+    void testWithTraffic() {
+        TrafficStore heavyTrafficStore = new TrafficStore() {
+            @Override
+            public double getMultipliers(String edge, int hour) {
+                return edge.equals("E1") ? 3.0 : 1.0;
+            }
+
+            @Override
+            public Map<String, Double> getMultipliersForHour(int hour) {
+                return new HashMap<>();
+            }
+        };
+
+        // E1 now costs 6.0, still cheaper than the detour N1-N4-N5-N3-N2 (14.0)
+        Path path = new BidirectionalDijkstra(graph, heavyTrafficStore).findShortestPath("N1", "N2", 0);
+        assertEquals(6.0, path.getTotalDistance(), 0.001);
+    }
+
+    @Test
+    void testMatchesDijkstraOnGrid() {
+        // Cross-check against the plain engine on a road-like map with real traffic
+        Graph grid = SyntheticMapGenerator.grid(12, 12, 42);
+        TrafficStore gridTraffic = new JsonTrafficStore(grid);
+        Dijkstra dijkstra = new Dijkstra(grid, gridTraffic);
+        BidirectionalDijkstra bidi = new BidirectionalDijkstra(grid, gridTraffic);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            String s = SyntheticMapGenerator.vertexId(random.nextInt(12), random.nextInt(12));
+            String t = SyntheticMapGenerator.vertexId(random.nextInt(12), random.nextInt(12));
+            int hour = random.nextInt(24);
+
+            Path expected = dijkstra.findShortestPath(s, t, hour);
+            Path actual = bidi.findShortestPath(s, t, hour);
+
+            assertEquals(expected.getTotalDistance(), actual.getTotalDistance(), 1e-9,
+                    "Distance mismatch for " + s + " -> " + t);
+            assertEquals(s, actual.getVertices().get(0));
+            assertEquals(t, actual.getVertices().get(actual.getVertices().size() - 1));
+        }
+    }
+}
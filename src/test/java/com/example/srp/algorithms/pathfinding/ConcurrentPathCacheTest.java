@@ -0,0 +1,160 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the shared concurrent PathCache
+ */
+class ConcurrentPathCacheTest {
+
+    @Test
+    void testPutAndGetInBothDirections() {
+        ConcurrentPathCache cache = new ConcurrentPathCache(true);
+        cache.put("N2", "N1", new Path(Arrays.asList("N2", "N3", "N1"), 4.0));
+
+        assertEquals(4.0, cache.getDistance("N1", "N2"), 0.001);
+        assertEquals(Arrays.asList("N1", "N3", "N2"), cache.get("N1", "N2").getVertices());
+        assertEquals(Arrays.asList("N2", "N3", "N1"), cache.get("N2", "N1").getVertices());
+        assertEquals(1, cache.pathCount());
+        assertNull(cache.get("N1", "N4"));
+        assertTrue(Double.isNaN(cache.getDistance("N1", "N4")));
+    }
+
+    @Test
+    void testConcurrentMissesRunLoaderOncePerPair() throws Exception {
+        ConcurrentPathCache cache = new ConcurrentPathCache(true);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        int threads = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Path>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads * 4; t++) {
+                // Both directions of the same four pairs
+                String a = "A" + (t % 4);
+                String b = "B" + (t % 4);
+                boolean reverse = (t / 4) % 2 == 1;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.computeIfAbsent(reverse ? b : a, reverse ? a : b, (from, to) -> {
+                        loaderCalls.incrementAndGet();
+                        sleep();
+                        return new Path(Arrays.asList(from, to), 1.0);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Path> result : results) {
+                assertEquals(1.0, result.get(30, TimeUnit.SECONDS).getTotalDistance());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(4, loaderCalls.get());
+        assertEquals(4, cache.loadCount());
+        assertEquals(4, cache.pathCount());
+    }
+
+    @Test
+    void testLoadsMissingPairsWithPathFinder() {
+        Graph grid = SyntheticMapGenerator.grid(8, 8, 10);
+        TrafficStore trafficStore = new JsonTrafficStore(grid);
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        ConcurrentPathCache cache = new ConcurrentPathCache(new BidirectionalDijkstra(grid, trafficStore), 8, true);
+
+        assertEquals(dijkstra.findShortestPath("R0C0", "R5C6", 8).getTotalDistance(), cache.getDistance("R0C0", "R5C6"), 1e-9);
+        assertEquals(dijkstra.findShortestPath("R5C6", "R0C0", 8).getTotalDistance(), cache.getDistance("R5C6", "R0C0"), 1e-9);
+        assertEquals(Collections.singletonList("R3C3"), cache.get("R3C3", "R3C3").getVertices());
+        assertEquals(2, cache.loadCount());
+
+        Path path = cache.get("R5C6", "R0C0");
+        assertEquals("R5C6", path.getVertices().get(0));
+        assertEquals("R0C0", path.getVertices().get(path.getVertices().size() - 1));
+        assertEquals(2, cache.loadCount());
+    }
+
+    @Test
+    void testSlowLoadDoesNotHoldUpOtherPairs() throws Exception {
+        ConcurrentPathCache cache = new ConcurrentPathCache(true);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Path> slow = pool.submit(() -> cache.computeIfAbsent("SLOW", "X", (from, to) -> {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Path(Arrays.asList(from, to), 9.0);
+            }));
+            assertTrue(loading.await(30, TimeUnit.SECONDS));
+
+            // Enough pairs to share hash bins with the slow one and to grow the map
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                for (int k = 0; k < 500; k++) {
+                    Path path = cache.computeIfAbsent("A" + k, "B" + k, (from, to) -> new Path(Arrays.asList(from, to), 1.0));
+                    assertEquals(1.0, path.getTotalDistance());
+                }
+            });
+            assertFalse(slow.isDone());
+
+            release.countDown();
+            assertEquals(9.0, slow.get(30, TimeUnit.SECONDS).getTotalDistance());
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        assertEquals(501, cache.loadCount());
+    }
+
+    @Test
+    void testOneWayCacheKeepsBothDirectionsOnDisk(@TempDir java.nio.file.Path directory) throws Exception {
+        Graph grid = SyntheticMapGenerator.grid(6, 6, 10);
+        TrafficStore trafficStore = new JsonTrafficStore(grid);
+        IndexedGraph indexed = IndexedGraph.of(grid);
+        List<String> stops = Arrays.asList("R0C0", "R2C3", "R5C5");
+        ConcurrentPathCache cache = new ConcurrentPathCache(false);
+        cache.put("R0C0", "R2C3", new Path(Arrays.asList("R0C0", "R1C0", "R2C3"), 3.0));
+        cache.put("R2C3", "R0C0", new Path(Arrays.asList("R2C3", "R0C0"), 7.0));
+        assertFalse(cache.isSymmetric());
+
+        MatrixDiskCache disk = new MatrixDiskCache(directory, MatrixDiskCache.DEFAULT_MAX_BYTES);
+        disk.save(indexed, trafficStore, 8, stops, cache.copyOf(stops));
+        PathCache loaded = disk.load(indexed, trafficStore, 8, stops);
+
+        assertFalse(loaded.isSymmetric());
+        assertEquals(3.0, loaded.getDistance("R0C0", "R2C3"));
+        assertEquals(7.0, loaded.getDistance("R2C3", "R0C0"));
+
+        ConcurrentPathCache seeded = new ConcurrentPathCache(false);
+        seeded.putAll(loaded);
+        assertEquals(Arrays.asList("R2C3", "R0C0"), seeded.get("R2C3", "R0C0").getVertices());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentPathCache(true).putAll(loaded));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for bounded one-to-many search and isochrones
+ */
+class IsochronesTest {
+
+    private Graph grid;
+    private TrafficStore trafficStore;
+    private Dijkstra dijkstra;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(15, 15, 10);
+        trafficStore = new JsonTrafficStore(grid);
+        dijkstra = new Dijkstra(grid, trafficStore);
+    }
+
+    @Test
+    void testBoundedSearchReturnsExactlyTheVerticesWithinRadius() {
+        OneToManyDijkstra search = new OneToManyDijkstra(grid, trafficStore);
+        double radius = 6.0;
+
+        ShortestPathTree tree = search.search("R7C7", 8, radius);
+
+        for (Vertex v : grid.getAllVertices()) {
+            double exact = dijkstra.findShortestPath("R7C7", v.getId(), 8).getTotalDistance();
+            assertEquals(exact <= radius, tree.contains(v.getId()), v.getId() + " at " + exact);
+            if (exact <= radius) {
+                assertEquals(exact, tree.distanceTo(v.getId()), 1e-9);
+                assertEquals(exact, tree.pathTo(v.getId()).getTotalDistance(), 1e-9);
+            }
+        }
+        assertTrue(tree.size() < grid.getAllVertices().size());
+    }
+
+    @Test
+    void testDirectSearchStaysLocal() {
+        OneToManyDijkstra search = new OneToManyDijkstra(grid, trafficStore);
+        // The corner is only reachable through the other stops
+        List<String> stops = List.of("R3C3", "R0C0", "R0C1", "R1C0", "R1C1");
+
+        ShortestPathTree tree = search.searchDirect("R3C3", 8, stops);
+
+        assertFalse(tree.contains("R0C0"));
+        assertTrue(tree.size() < grid.getAllVertices().size() / 2, "Searched " + tree.size() + " vertices");
+        for (String stop : stops) {
+            if (tree.contains(stop)) {
+                double exact = dijkstra.findShortestPath("R3C3", stop, 8).getTotalDistance();
+                assertEquals(exact, tree.distanceTo(stop), 1e-9);
+                assertEquals(exact, tree.pathTo(stop).getTotalDistance(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testIsochronesAreNested() {
+        Isochrones isochrones = new Isochrones(grid, trafficStore);
+
+        List<Isochrones.Isochrone> bands = isochrones.compute("R7C7", 17, 8.0, 2.0, 4.0);
+
+        assertEquals(3, bands.size());
+        assertEquals(2.0, bands.get(0).getThreshold());
+        for (int i = 1; i < bands.size(); i++) {
+            assertTrue(bands.get(i).getVertices().containsAll(bands.get(i - 1).getVertices()));
+            assertTrue(bands.get(i).getVertices().size() > bands.get(i - 1).getVertices().size());
+        }
+        for (Isochrones.Isochrone band : bands) {
+            assertTrue(band.getVertices().contains("R7C7"));
+            assertTrue(band.getVertices().containsAll(band.getHull()));
+        }
+    }
+
+    @Test
+    void testHullOfFullGridIsItsCorners() {
+        Isochrones isochrones = new Isochrones(grid, trafficStore);
+
+        Isochrones.Isochrone all = isochrones.compute("R0C0", 0, Double.POSITIVE_INFINITY).get(0);
+
+        assertEquals(grid.getAllVertices().size(), all.getVertices().size());
+        assertEquals(4, all.getHull().size());
+        assertTrue(all.getHull().containsAll(List.of("R0C0", "R0C14", "R14C0", "R14C14")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the on-demand PathCache
+ */
+class LazyPathCacheTest {
+
+    private Graph grid;
+    private TrafficStore trafficStore;
+    private List<Vertex> stops;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(12, 12, 10);
+        trafficStore = new JsonTrafficStore(grid);
+        stops = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            stops.add(grid.vertices.get("R" + i + "C" + ((i * 5) % 12)));
+        }
+    }
+
+    @Test
+    void testMatchesEagerMatrix() {
+        DistanceMatrixBuilder builder = new DistanceMatrixBuilder(grid, trafficStore, 8, new Dijkstra(grid, trafficStore));
+        PathCache eager = builder.build(stops);
+        LazyPathCache lazy = builder.buildLazy(stops, LazyPathCache.DEFAULT_MAX_BYTES);
+
+        for (Vertex a : stops) {
+            for (Vertex b : stops) {
+                assertEquals(eager.getDistance(a.getId(), b.getId()), lazy.getDistance(a.getId(), b.getId()), 1e-9);
+                Path path = lazy.get(a.getId(), b.getId());
+                assertEquals(a.getId(), path.getVertices().get(0));
+                assertEquals(b.getId(), path.getVertices().get(path.getVertices().size() - 1));
+            }
+        }
+        assertNull(lazy.get(stops.get(0).getId(), "R99C99"));
+        assertTrue(Double.isNaN(lazy.getDistance("R99C99", stops.get(0).getId())));
+    }
+
+    @Test
+    void testComputesOnlyTouchedRows() {
+        LazyPathCache lazy = new DistanceMatrixBuilder(grid, trafficStore, 8).buildLazy(stops, LazyPathCache.DEFAULT_MAX_BYTES);
+        assertEquals(0, lazy.loadCount());
+
+        String depot = stops.get(0).getId();
+        for (Vertex v : stops) {
+            lazy.getDistance(depot, v.getId());
+        }
+        assertEquals(1, lazy.loadCount());
+
+        // Symmetric roads: the reverse direction is read from the depot's row
+        lazy.getDistance(stops.get(5).getId(), depot);
+        assertEquals(1, lazy.loadCount());
+        lazy.getDistance(stops.get(5).getId(), stops.get(6).getId());
+        assertEquals(2, lazy.loadCount());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedRows() {
+        LazyPathCache probe = new DistanceMatrixBuilder(grid, trafficStore, 8).buildLazy(stops, LazyPathCache.DEFAULT_MAX_BYTES);
+        probe.getDistance(0, 1);
+        long rowBytes = probe.usedBytes();
+
+        // Room for about three rows
+        LazyPathCache lazy = new DistanceMatrixBuilder(grid, trafficStore, 8).buildLazy(stops, rowBytes * 3 + rowBytes / 2);
+        for (int i = 0; i < stops.size(); i++) {
+            lazy.getDistance(i, (i + 1) % stops.size());
+        }
+        assertTrue(lazy.loadedRows() < stops.size() / 2);
+        assertTrue(lazy.evictionCount() > 0);
+        assertEquals(lazy.loadCount() - lazy.evictionCount(), lazy.loadedRows());
+
+        // The most recent row is still there, an old one must be searched again
+        long loads = lazy.loadCount();
+        lazy.getDistance(stops.size() - 1, 0);
+        assertEquals(loads, lazy.loadCount());
+        lazy.getDistance(1, 0);
+        assertEquals(loads + 1, lazy.loadCount());
+    }
+
+    @Test
+    void testConcurrentMissesLoadEachRowOnce() throws Exception {
+        LazyPathCache lazy = new DistanceMatrixBuilder(grid, trafficStore, 8).buildLazy(stops, LazyPathCache.DEFAULT_MAX_BYTES);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Double>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < 32; t++) {
+                final int target = 1 + t % (stops.size() - 1);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return lazy.getDistance(0, target);
+                }));
+            }
+            start.countDown();
+            for (Future<Double> result : results) {
+                assertFalse(Double.isNaN(result.get(30, TimeUnit.SECONDS)));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, lazy.loadCount());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the persistent matrix cache
+ */
+class MatrixDiskCacheTest {
+
+    @TempDir
+    java.nio.file.Path directory;
+
+    private Graph grid;
+    private TrafficStore trafficStore;
+    private IndexedGraph indexed;
+    private List<Vertex> stops;
+    private List<String> stopIds;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(10, 10, 10);
+        trafficStore = new JsonTrafficStore(grid);
+        indexed = IndexedGraph.of(grid);
+        stops = new ArrayList<>();
+        stopIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Vertex v = grid.vertices.get("R" + i + "C" + ((i * 3) % 10));
+            stops.add(v);
+            stopIds.add(v.getId());
+        }
+    }
+
+    @Test
+    void testWarmStartReturnsSameMatrixWithoutBuilding() {
+        MatrixDiskCache disk = new MatrixDiskCache(directory, MatrixDiskCache.DEFAULT_MAX_BYTES);
+        DistanceMatrixBuilder builder = new DistanceMatrixBuilder(grid, trafficStore, 8);
+        AtomicInteger builds = new AtomicInteger();
+
+        PathCache cold = disk.loadOrBuild(indexed, trafficStore, 8, stopIds, () -> {
+            builds.incrementAndGet();
+            return builder.build(stops);
+        });
+        PathCache warm = disk.loadOrBuild(indexed, trafficStore, 8, stopIds, () -> {
+            builds.incrementAndGet();
+            return builder.build(stops);
+        });
+
+        assertEquals(1, builds.get());
+        assertEquals(cold.size(), warm.size());
+        for (String a : stopIds) {
+            for (String b : stopIds) {
+                assertEquals(cold.getDistance(a, b), warm.getDistance(a, b), 0.0);
+                Path expected = cold.get(a, b);
+                assertEquals(expected.getVertices(), warm.get(a, b).getVertices());
+            }
+        }
+    }
+
+    @Test
+    void testKeyIncludesHourAndStopSet() throws IOException {
+        MatrixDiskCache disk = new MatrixDiskCache(directory, MatrixDiskCache.DEFAULT_MAX_BYTES);
+        disk.save(indexed, trafficStore, 8, stopIds, new DistanceMatrixBuilder(grid, trafficStore, 8).build(stops));
+
+        assertNotNull(disk.load(indexed, trafficStore, 8, stopIds));
+        assertNull(disk.load(indexed, trafficStore, 9, stopIds));
+        assertNull(disk.load(indexed, trafficStore, 8, stopIds.subList(0, 5)));
+
+        // Stop order does not matter, the set does
+        List<String> reversed = new ArrayList<>(stopIds);
+        java.util.Collections.reverse(reversed);
+        assertNotNull(disk.load(indexed, trafficStore, 8, reversed));
+    }
+
+    @Test
+    void testChangedTrafficIsNotReusedAndOldVersionIsEvicted() throws IOException {
+        MatrixDiskCache disk = new MatrixDiskCache(directory, MatrixDiskCache.DEFAULT_MAX_BYTES);
+        disk.save(indexed, trafficStore, 8, stopIds, new DistanceMatrixBuilder(grid, trafficStore, 8).build(stops));
+
+        Graph jammed = SyntheticMapGenerator.grid(10, 10, 10);
+        jammed.getNeighborEdge("R0C0").get(0).getTraffic()[8] = 5.0;
+        TrafficStore jammedTraffic = new JsonTrafficStore(jammed);
+        IndexedGraph jammedIndexed = IndexedGraph.of(jammed);
+
+        assertNull(disk.load(jammedIndexed, jammedTraffic, 8, stopIds));
+        disk.save(jammedIndexed, jammedTraffic, 8, stopIds, new DistanceMatrixBuilder(jammed, jammedTraffic, 8).build(stops));
+
+        assertNull(disk.load(indexed, trafficStore, 8, stopIds));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testStaysWithinDiskBudget() throws IOException {
+        MatrixDiskCache probe = new MatrixDiskCache(directory.resolve("probe"), MatrixDiskCache.DEFAULT_MAX_BYTES);
+        probe.save(indexed, trafficStore, 0, stopIds, new DistanceMatrixBuilder(grid, trafficStore, 0).build(stops));
+        long fileSize = probe.usedBytes();
+
+        MatrixDiskCache disk = new MatrixDiskCache(directory.resolve("budget"), fileSize * 3);
+        for (int hour = 0; hour < 6; hour++) {
+            disk.save(indexed, trafficStore, hour, stopIds, new DistanceMatrixBuilder(grid, trafficStore, hour).build(stops));
+            assertTrue(disk.usedBytes() <= fileSize * 3 + fileSize / 2);
+        }
+        assertNotNull(disk.load(indexed, trafficStore, 5, stopIds));
+        assertNull(disk.load(indexed, trafficStore, 0, stopIds));
+    }
+
+    @Test
+    void testSavesLazyCacheThroughPathLookup() throws IOException {
+        MatrixDiskCache disk = new MatrixDiskCache(directory, MatrixDiskCache.DEFAULT_MAX_BYTES);
+        LazyPathCache lazy = new LazyPathCache(indexed, trafficStore, 8, stopIds, LazyPathCache.DEFAULT_MAX_BYTES, false);
+
+        disk.save(indexed, trafficStore, 8, stopIds, lazy);
+        PathCache loaded = disk.load(indexed, trafficStore, 8, stopIds);
+
+        assertFalse(loaded.isSymmetric());
+        for (String a : stopIds) {
+            for (String b : stopIds) {
+                assertEquals(lazy.getDistance(a, b), loaded.getDistance(a, b), 1e-9);
+                assertEquals(lazy.get(a, b).getVertices(), loaded.get(a, b).getVertices());
+            }
+        }
+    }
+}
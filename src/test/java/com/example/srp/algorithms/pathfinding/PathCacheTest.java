@@ -1,10 +1,16 @@
 package com.example.srp.algorithms.pathfinding;
 
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
 import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -98,4 +104,89 @@ class PathCacheTest {
         assertNotNull(retrieved);
         assertEquals(0.0, retrieved.getTotalDistance(), 0.001);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDistanceLookupByIdAndIndex() {
+        cache.put("N1", "N2", new Path(Arrays.asList("N1", "N2"), 2.0));
+        cache.put("N3", "N1", new Path(Arrays.asList("N3", "N1"), 3.0));
+
+        assertEquals(3.0, cache.getDistance("N1", "N3"), 0.001);
+        assertEquals(2.0, cache.getDistance(cache.indexOf("N2"), cache.indexOf("N1")), 0.001);
+        assertTrue(Double.isNaN(cache.getDistance("N2", "N3")));
+        assertTrue(Double.isNaN(cache.getDistance("N1", "N99")));
+        assertEquals(-1, cache.indexOf("N99"));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testAsymmetricCacheKeepsDirectionsApart() {
+        PathCache asymmetric = new PathCache(false);
+        asymmetric.put("N1", "N2", new Path(Arrays.asList("N1", "N2"), 2.0));
+        asymmetric.put("N2", "N1", new Path(Arrays.asList("N2", "N3", "N1"), 5.0));
+
+        assertEquals(2.0, asymmetric.getDistance("N1", "N2"), 0.001);
+        assertEquals(5.0, asymmetric.get("N2", "N1").getTotalDistance(), 0.001);
+        assertEquals(3, asymmetric.get("N2", "N1").getVertices().size());
+        assertNull(asymmetric.get("N1", "N1"));
+    }
+
+    @Test
+    void testMatrixGrowsWithStops() {
+        for (int i = 0; i < 200; i++) {
+            cache.put("N0", "N" + i, new Path(Arrays.asList("N0", "N" + i), i));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, cache.getDistance("N" + i, "N0"), 0.001);
+        }
+        // Triangular storage: 8 bytes per unordered pair, plus growth headroom
+        assertTrue(cache.getDistances().sizeInBytes() <= 2L * 200 * 201 / 2 * Double.BYTES);
+    }
+
+    @Test
+    void testDistanceOnlyEntries() {
+        cache.putDistance("N1", "N2", 4.0);
+
+        assertEquals(4.0, cache.getDistance("N2", "N1"), 0.001);
+        assertNull(cache.get("N1", "N2"));
+    }
+
+    @Test
+    void testTreeRowsExpandPathsOnDemand() {
+        Graph grid = SyntheticMapGenerator.grid(8, 8, 10);
+        TrafficStore trafficStore = new JsonTrafficStore(grid);
+        List<Vertex> stops = Arrays.asList(grid.vertices.get("R0C0"), grid.vertices.get("R3C5"),
+                grid.vertices.get("R7C2"), grid.vertices.get("R6C7"));
+        DistanceMatrixBuilder builder = new DistanceMatrixBuilder(grid, trafficStore, 8, new Dijkstra(grid, trafficStore));
+
+        PathCache eager = builder.build(stops);
+        PathCache trees = builder.buildFromTrees(stops);
+
+        for (Vertex a : stops) {
+            for (Vertex b : stops) {
+                assertEquals(eager.getDistance(a.getId(), b.getId()), trees.getDistance(a.getId(), b.getId()), 1e-9);
+                Path path = trees.get(a.getId(), b.getId());
+                assertEquals(a.getId(), path.getVertices().get(0));
+                assertEquals(b.getId(), path.getVertices().get(path.getVertices().size() - 1));
+                assertEquals(eager.get(a.getId(), b.getId()).getVertices().size(), path.getVertices().size());
+            }
+        }
+    }
+
+    @Test
+    void testPlanMatrixHoldsOnlyDepotAndStops() {
+        Graph grid = SyntheticMapGenerator.grid(8, 8, 10);
+        TrafficStore trafficStore = new JsonTrafficStore(grid);
+        DistanceMatrixBuilder builder = new DistanceMatrixBuilder(grid, trafficStore, 8, new Dijkstra(grid, trafficStore));
+
+        PathCache plan = builder.buildForPlan("R0C0", Arrays.asList("R3C5", "R7C2", "R0C0", "R3C5"));
+
+        assertEquals(3, plan.size());
+        assertEquals("R0C0", plan.idOf(0));
+        assertEquals(-1, plan.indexOf("R4C4"));
+        Path leg = plan.get("R7C2", "R3C5");
+        assertEquals("R7C2", leg.getVertices().get(0));
+        assertEquals("R3C5", leg.getVertices().get(leg.getVertices().size() - 1));
+        assertThrows(IllegalArgumentException.class, () -> builder.buildForPlan("R0C0", Arrays.asList("NOPE")));
+    }
+}
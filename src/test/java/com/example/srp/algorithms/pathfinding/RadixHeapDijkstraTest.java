@@ -0,0 +1,134 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the radix heap and the quantized Dijkstra built on it
+ */
+class RadixHeapDijkstraTest {
+
+    private Graph grid;
+    private IndexedGraph indexed;
+    private TrafficStore trafficStore;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(20, 20, 2);
+        indexed = IndexedGraph.of(grid);
+        trafficStore = new JsonTrafficStore(grid);
+    }
+
+    @Test
+    void testRadixHeapPollsInKeyOrder() {
+        RadixHeap heap = new RadixHeap();
+        Random random = new Random(4);
+        long last = 0;
+        heap.push(0, 0);
+        int polled = 0;
+        while (!heap.isEmpty()) {
+            heap.poll();
+            assertTrue(heap.polledKey() >= last);
+            last = heap.polledKey();
+            // Monotone pushes, as Dijkstra makes them
+            if (polled++ < 2000) {
+                heap.push(polled, last + random.nextInt(1000));
+                heap.push(polled, last + random.nextInt(50));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> {
+            RadixHeap h = new RadixHeap();
+            h.push(1, 10);
+            h.poll();
+            h.push(2, 5);
+        });
+    }
+
+    @Test
+    void testDistancesWithinRoundingBound() {
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+        RadixHeapDijkstra coarse = new RadixHeapDijkstra(indexed, trafficStore, 10.0);
+        RadixHeapDijkstra fine = new RadixHeapDijkstra(indexed, trafficStore, 1e6);
+
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            String s = SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20));
+            String t = SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20));
+            int hour = random.nextInt(24);
+
+            Path expected = dijkstra.findShortestPath(s, t, hour);
+            Path approximate = coarse.findShortestPath(s, t, hour);
+            int arcs = Math.max(expected.getVertices().size(), approximate.getVertices().size());
+
+            assertTrue(approximate.getTotalDistance() >= expected.getTotalDistance() - 1e-9);
+            assertTrue(approximate.getTotalDistance() <= expected.getTotalDistance() + coarse.errorBound(arcs));
+            assertEquals(expected.getTotalDistance(), fine.findShortestPath(s, t, hour).getTotalDistance(), 1e-6);
+        }
+    }
+
+    @Test
+    void testConcurrentQueriesMatchSequentialOnes() throws Exception {
+        RadixHeapDijkstra radix = new RadixHeapDijkstra(grid, trafficStore);
+        Random random = new Random(12);
+        String[][] pairs = new String[300][];
+        double[] expected = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new String[]{SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20)),
+                    SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20))};
+            expected[i] = radix.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int offset = t;
+                results.add(pool.submit(() -> {
+                    for (int k = 0; k < pairs.length; k++) {
+                        int i = (k + offset * 40) % pairs.length;
+                        assertEquals(expected[i], radix.findShortestPath(pairs[i][0], pairs[i][1], (i % 3) * 8).getTotalDistance());
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEngineIsSelectableByProperty() {
+        String previous = System.getProperty(PathEngine.PROPERTY);
+        try {
+            System.setProperty(PathEngine.PROPERTY, "radix_heap");
+            assertEquals(PathEngine.RADIX_HEAP, PathEngine.configured());
+            assertInstanceOf(RadixHeapDijkstra.class, PathEngine.configured().create(grid, trafficStore));
+
+            System.setProperty(PathEngine.PROPERTY, "no-such-engine");
+            assertThrows(IllegalArgumentException.class, PathEngine::configured);
+        } finally {
+            if (previous == null) {
+                System.clearProperty(PathEngine.PROPERTY);
+            } else {
+                System.setProperty(PathEngine.PROPERTY, previous);
+            }
+        }
+    }
+}
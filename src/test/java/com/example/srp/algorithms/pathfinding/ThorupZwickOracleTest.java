@@ -0,0 +1,115 @@
+package com.example.srp.algorithms.pathfinding;
+
+import com.example.srp.algorithms.balancing.LoadBalancer;
+import com.example.srp.algorithms.balancing.RouteEvaluator;
+import com.example.srp.algorithms.clustering.GreedyBalancedAssigner;
+import com.example.srp.algorithms.routing.NearestNeighborTSP;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.NodeCluster;
+import com.example.srp.models.RouteInfo;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the approximate oracle and oracle-driven clustering
+ */
+class ThorupZwickOracleTest {
+
+    private Graph grid;
+    private IndexedGraph indexed;
+    private TrafficStore trafficStore;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(20, 20, 12);
+        indexed = IndexedGraph.of(grid);
+        trafficStore = new JsonTrafficStore(grid);
+    }
+
+    @Test
+    void testStretchIsBounded() {
+        ThorupZwickOracle oracle = new ThorupZwickOracle(indexed, trafficStore, 8, 1);
+        Dijkstra dijkstra = new Dijkstra(grid, trafficStore);
+
+        Random random = new Random(2);
+        for (int i = 0; i < 300; i++) {
+            String s = SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20));
+            String t = SyntheticMapGenerator.vertexId(random.nextInt(20), random.nextInt(20));
+            double exact = dijkstra.findShortestPath(s, t, 8).getTotalDistance();
+            double estimate = oracle.distance(s, t);
+
+            assertTrue(estimate >= exact - 1e-9, s + " -> " + t + ": " + estimate + " < " + exact);
+            assertTrue(estimate <= ThorupZwickOracle.STRETCH * exact + 1e-9, s + " -> " + t + ": " + estimate + " vs " + exact);
+        }
+        assertTrue(oracle.averageBunchSize() < indexed.size() / 4.0);
+    }
+
+    @Test
+    void testClusteringOnOracleNeedsOnlyIntraClusterPaths() {
+        List<String> stops = new ArrayList<>();
+        for (int r = 1; r < 20; r += 3) {
+            for (int c = 1; c < 20; c += 3) {
+                stops.add(SyntheticMapGenerator.vertexId(r, c));
+            }
+        }
+        String depot = SyntheticMapGenerator.vertexId(0, 10);
+
+        GreedyBalancedAssigner assigner = new GreedyBalancedAssigner(new ThorupZwickOracle(grid, trafficStore, 8), 0.5);
+        List<NodeCluster> clusters = assigner.assignNodes(stops, depot, 4);
+        ConcurrentPathCache cache = new DistanceMatrixBuilder(grid, trafficStore, 8).buildForClusters(clusters);
+
+        int assigned = 0;
+        for (NodeCluster cluster : clusters) {
+            assigned += cluster.getAssignedNodes().size();
+            for (String a : cluster.getAllNodes()) {
+                for (String b : cluster.getAllNodes()) {
+                    assertNotNull(cache.get(a, b), "Missing intra-cluster pair " + a + " -> " + b);
+                }
+            }
+        }
+        assertEquals(stops.size(), assigned);
+
+        assertEquals(0, cache.loadCount());
+
+        // Stops of different buses were never paired, but a moved stop still finds its new neighbours
+        String first = clusters.get(0).getAssignedNodes().get(0);
+        String other = clusters.get(1).getAssignedNodes().get(0);
+        assertEquals(new Dijkstra(grid, trafficStore).findShortestPath(first, other, 8).getTotalDistance(),
+                cache.getDistance(first, other), 1e-9);
+        assertEquals(1, cache.loadCount());
+    }
+
+    @Test
+    void testRebalancedStopsStayInTheirTours() {
+        List<String> stops = new ArrayList<>();
+        for (int r = 1; r < 20; r += 4) {
+            for (int c = 1; c < 20; c += 4) {
+                stops.add(SyntheticMapGenerator.vertexId(r, c));
+            }
+        }
+        String depot = SyntheticMapGenerator.vertexId(0, 0);
+
+        List<NodeCluster> clusters = new GreedyBalancedAssigner(new ThorupZwickOracle(grid, trafficStore, 8), 0.5)
+                .assignNodes(stops, depot, 3);
+        ConcurrentPathCache cache = new DistanceMatrixBuilder(grid, trafficStore, 8).buildForClusters(clusters);
+        LoadBalancer balancer = new LoadBalancer(cache, null, new NearestNeighborTSP(cache), new RouteEvaluator(cache), 1.0);
+
+        // Moved stops are priced against their new cluster mates instead of dropping out of the tour
+        Set<String> visited = new HashSet<>();
+        for (RouteInfo route : balancer.rebalance(clusters, depot, 8, 5)) {
+            visited.addAll(route.getTour());
+        }
+        assertTrue(visited.containsAll(stops));
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.srp.algorithms.routing;
 
+import com.example.srp.algorithms.pathfinding.ConcurrentPathCache;
 import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.algorithms.pathfinding.PathFinder;
 import com.example.srp.models.Path;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -160,4 +162,318 @@ class TSPSolverTest {
         double distance = simpleSolver.calculateTourDistance(tour);
         assertEquals(3.0, distance, 0.001);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testArrayTourReverseWrapsAroundAndKeepsPositions() {
+        ArrayTour tour = ArrayTour.identity(8);
+
+        // 6 -> 7 -> 0 -> 1 wraps past the end of the array
+        tour.reverse(6, 1);
+        assertArrayEquals(new int[]{7, 6, 2, 3, 4, 5, 1, 0}, tour.toArray());
+
+        // 2 .. 5 is longer than the rest, so the rest is reversed: same cycle, other direction
+        ArrayTour other = ArrayTour.identity(8);
+        other.reverse(1, 6);
+        assertTrue(other.next(0) == 6 || other.prev(0) == 6);
+        assertTrue(other.next(7) == 1 || other.prev(7) == 1);
+        for (int city = 0; city < 8; city++) {
+            assertEquals(city, other.city(other.position(city)));
+            assertEquals(city, other.prev(other.next(city)));
+        }
+        assertTrue(tour.between(5, 1, 0));
+        assertFalse(tour.between(5, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ArrayTour(new int[]{0, 1, 1}));
+    }
+
+    @Test
+    void testArrayTwoOptReachesLocalOptimum() {
+        List<String> stops = randomStops(300);
+        PathCache euclidean = euclideanCache(stops, 11);
+        StopMatrix matrix = StopMatrix.of(euclidean, stops);
+        ArrayTour tour = ArrayTour.identity(matrix.size());
+        double before = tour.length(matrix);
+
+        TwoOptEngine engine = new TwoOptEngine(matrix);
+        double saved = engine.improve(tour, Integer.MAX_VALUE);
+
+        assertEquals(before - saved, tour.length(matrix), 1e-6);
+        assertTrue(engine.movesApplied() > 0);
+        int n = tour.size();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 2; j < n; j++) {
+                if (i == 0 && j == n - 1) {
+                    continue;
+                }
+                double gain = engine.gain(tour.city(i), tour.city(i + 1), tour.city(j), tour.city((j + 1) % n));
+                assertTrue(gain <= 1e-6, "Improving move left at " + i + ", " + j);
+            }
+        }
+    }
+
+    @Test
+    void testTwoOptTSPImprovesLargeTour() {
+        List<String> stops = randomStops(1000);
+        PathCache euclidean = euclideanCache(stops, 5);
+        TSPSolver nn = new NearestNeighborTSP(euclidean);
+        TSPSolver solver = new TwoOptTSP(euclidean, nn);
+
+        List<String> tour = solver.solveTSP(stops, stops.get(0));
+
+        assertEquals(stops.size() + 1, tour.size());
+        assertEquals(stops.get(0), tour.get(0));
+        assertEquals(stops.get(0), tour.get(tour.size() - 1));
+        assertEquals(new java.util.HashSet<>(stops), new java.util.HashSet<>(tour));
+        assertTrue(solver.calculateTourDistance(tour) < 0.95 * nn.calculateTourDistance(nn.solveTSP(stops, stops.get(0))));
+    }
+
+    @Test
+    void testNeighborListsAreTheNearestStops() {
+        List<String> stops = randomStops(400);
+        StopMatrix matrix = StopMatrix.of(euclideanCache(stops, 3), stops);
+        double[][] points = randomPoints(stops.size(), 3);
+
+        NeighborLists fromMatrix = NeighborLists.build(matrix, 8);
+        NeighborLists fromGrid = NeighborLists.fromPoints(points[0], points[1], 8);
+
+        assertEquals(8, fromMatrix.count());
+        for (int i = 0; i < matrix.size(); i++) {
+            final int stop = i;
+            Integer[] byDistance = new Integer[matrix.size()];
+            for (int j = 0; j < byDistance.length; j++) {
+                byDistance[j] = j;
+            }
+            Arrays.sort(byDistance, java.util.Comparator.comparingDouble(j -> j == stop ? -1 : matrix.get(stop, j)));
+            for (int r = 0; r < 8; r++) {
+                assertEquals(byDistance[r + 1].intValue(), fromMatrix.get(i, r));
+                assertEquals(byDistance[r + 1].intValue(), fromGrid.get(i, r));
+            }
+        }
+        assertEquals(2, NeighborLists.build(StopMatrix.of(euclideanCache(randomStops(3), 1), randomStops(3)), 8).count());
+    }
+
+    @Test
+    void testStopMatrixRejectsOneWayCache() {
+        PathCache oneWay = new PathCache(false);
+        oneWay.put("A", "B", new Path(Arrays.asList("A", "B"), 1.0));
+        oneWay.put("B", "A", new Path(Arrays.asList("B", "C", "A"), 5.0));
+
+        assertThrows(IllegalArgumentException.class, () -> StopMatrix.of(oneWay, Arrays.asList("A", "B")));
+    }
+
+    @Test
+    void testStopMatrixOverOnDemandCache() {
+        PathFinder straight = (from, to, hour) -> new Path(Arrays.asList(from, to), 1.0);
+        List<String> stops = Arrays.asList("A", "B", "C", "D");
+
+        StopMatrix fresh = StopMatrix.of(new ConcurrentPathCache(straight, 8, true), stops);
+        ConcurrentPathCache known = new ConcurrentPathCache(straight, 8, true);
+        known.getDistance("B", "C");
+        known.getDistance("C", "D");
+        StopMatrix depotUnknown = StopMatrix.of(known, stops);
+
+        for (StopMatrix matrix : Arrays.asList(fresh, depotUnknown)) {
+            for (int i = 0; i < stops.size(); i++) {
+                for (int j = 0; j < stops.size(); j++) {
+                    assertEquals(i == j ? 0.0 : 1.0, matrix.get(i, j), "Distance " + i + " -> " + j);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDontLookBitsReachNeighborListOptimum() {
+        List<String> stops = randomStops(2000);
+        PathCache euclidean = euclideanCache(stops, 8);
+        StopMatrix matrix = StopMatrix.of(euclidean, stops);
+        NeighborLists candidates = NeighborLists.build(matrix, 10);
+
+        List<String> nnTour = new NearestNeighborTSP(euclidean).solveTSP(stops, stops.get(0));
+        int[] start = new int[matrix.size()];
+        for (int i = 0; i < start.length; i++) {
+            start[i] = matrix.indexOf(nnTour.get(i));
+        }
+
+        ArrayTour fast = new ArrayTour(start);
+        TwoOptEngine engine = new TwoOptEngine(matrix);
+        double before = fast.length(matrix);
+        double saved = engine.improve(fast, candidates);
+        assertEquals(before - saved, fast.length(matrix), 1e-6);
+
+        // Don't-look bits only skip stops whose tour edges did not change, so a fresh sweep with
+        // every stop active finds next to nothing left
+        double length = fast.length(matrix);
+        assertTrue(new TwoOptEngine(matrix).improve(fast, candidates) < 0.005 * length);
+
+        // Close to what exhaustive 2-opt reaches from the same start
+        ArrayTour full = new ArrayTour(start);
+        new TwoOptEngine(matrix).improve(full, Integer.MAX_VALUE);
+        assertTrue(fast.length(matrix) < 1.05 * full.length(matrix));
+    }
+
+    @Test
+    void testMoveSegmentRelocatesSegmentEitherWayRound() {
+        ArrayTour forward = ArrayTour.identity(10);
+        forward.moveSegment(1, 2, 3, 4, 6, 7, false);
+        assertCycle(new int[]{0, 1, 4, 5, 6, 2, 3, 7, 8, 9}, forward);
+
+        ArrayTour reversed = ArrayTour.identity(10);
+        reversed.moveSegment(1, 2, 3, 4, 6, 7, true);
+        assertCycle(new int[]{0, 1, 4, 5, 6, 3, 2, 7, 8, 9}, reversed);
+
+        // Walking the other way round: 5, [4 3], 2, ..., 8, 7 puts 4 3 between 8 and 7
+        ArrayTour backward = ArrayTour.identity(10);
+        backward.moveSegment(5, 4, 3, 2, 8, 7, false);
+        assertCycle(new int[]{0, 1, 2, 5, 6, 7, 3, 4, 8, 9}, backward);
+    }
+
+    @Test
+    void testVNDReachesLocalOptimumOfEveryMove() {
+        List<String> stops = randomStops(1000);
+        PathCache euclidean = euclideanCache(stops, 21);
+        TSPSolver nn = new NearestNeighborTSP(euclidean);
+        TSPSolver vnd = new VNDTSP(euclidean, nn);
+
+        List<String> tour = vnd.solveTSP(stops, stops.get(0));
+
+        assertEquals(stops.size() + 1, tour.size());
+        assertEquals(stops.get(0), tour.get(0));
+        assertEquals(stops.get(0), tour.get(tour.size() - 1));
+        assertEquals(new java.util.HashSet<>(stops), new java.util.HashSet<>(tour));
+        TSPSolver twoOptOnly = new TwoOptTSP(euclidean, nn);
+        assertTrue(vnd.calculateTourDistance(tour) < twoOptOnly.calculateTourDistance(twoOptOnly.solveTSP(stops, stops.get(0))));
+
+        StopMatrix matrix = StopMatrix.of(euclidean, tour);
+        NeighborLists candidates = NeighborLists.build(matrix, NeighborLists.DEFAULT_NEIGHBORS);
+        ArrayTour optimum = ArrayTour.identity(matrix.size());
+        assertEquals(0.0, new TwoOptEngine(matrix).improve(optimum, candidates));
+        assertEquals(0.0, new OrOptEngine(matrix).improve(optimum, candidates));
+        assertEquals(0.0, new ThreeOptEngine(matrix).improve(optimum, candidates));
+    }
+
+    @Test
+    void testSegmentMovesKeepLengthInStep() {
+        List<String> stops = randomStops(500);
+        StopMatrix matrix = StopMatrix.of(euclideanCache(stops, 13), stops);
+        NeighborLists candidates = NeighborLists.build(matrix, 8);
+
+        ArrayTour tour = ArrayTour.identity(matrix.size());
+        double before = tour.length(matrix);
+        OrOptEngine orOpt = new OrOptEngine(matrix);
+        double saved = orOpt.improve(tour, candidates);
+        assertTrue(orOpt.movesApplied() > 0);
+        assertEquals(before - saved, tour.length(matrix), 1e-6);
+
+        before = tour.length(matrix);
+        ThreeOptEngine threeOpt = new ThreeOptEngine(matrix);
+        saved = threeOpt.improve(tour, candidates);
+        assertTrue(threeOpt.movesApplied() > 0);
+        assertEquals(before - saved, tour.length(matrix), 1e-6);
+        assertEquals(matrix.size(), new java.util.HashSet<>(Arrays.stream(tour.toArray()).boxed().toList()).size());
+    }
+
+    @Test
+    void testLinKernighanKeepsLengthInStepAndBeatsVND() {
+        List<String> stops = randomStops(1000);
+        PathCache euclidean = euclideanCache(stops, 17);
+        StopMatrix matrix = StopMatrix.of(euclidean, stops);
+        NeighborLists candidates = NeighborLists.build(matrix, NeighborLists.DEFAULT_NEIGHBORS);
+
+        ArrayTour tour = ArrayTour.identity(matrix.size());
+        double before = tour.length(matrix);
+        LinKernighanEngine engine = new LinKernighanEngine(matrix);
+        double saved = engine.improve(tour, candidates);
+        assertTrue(engine.movesApplied() > 0);
+        assertEquals(before - saved, tour.length(matrix), 1e-6);
+        // Reversals change which t4 a chain reaches from untouched stops, so a fresh sweep may
+        // still find a little
+        double length = tour.length(matrix);
+        assertTrue(engine.improve(tour, candidates) < 0.005 * length);
+
+        TSPSolver nn = new NearestNeighborTSP(euclidean);
+        TSPSolver lk = new LinKernighanTSP(euclidean, nn, 2, 60_000);
+        TSPSolver vnd = new VNDTSP(euclidean, nn);
+        List<String> lkTour = lk.solveTSP(stops, stops.get(0));
+
+        assertEquals(stops.size() + 1, lkTour.size());
+        assertEquals(stops.get(0), lkTour.get(0));
+        assertEquals(stops.get(0), lkTour.get(lkTour.size() - 1));
+        assertEquals(new java.util.HashSet<>(stops), new java.util.HashSet<>(lkTour));
+        assertTrue(lk.calculateTourDistance(lkTour) < vnd.calculateTourDistance(vnd.solveTSP(stops, stops.get(0))));
+        assertEquals(lkTour, lk.solveTSP(stops, stops.get(0)));
+    }
+
+    @Test
+    void testLinKernighanFindsOptimumOfSmallTour() {
+        List<String> stops = randomStops(9);
+        PathCache euclidean = euclideanCache(stops, 4);
+        TSPSolver lk = new LinKernighanTSP(euclidean, new NearestNeighborTSP(euclidean));
+
+        double found = lk.calculateTourDistance(lk.solveTSP(stops, stops.get(0)));
+
+        StopMatrix matrix = StopMatrix.of(euclidean, stops);
+        int[] order = new int[matrix.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        assertEquals(shortestTour(matrix, order, 1), found, 1e-6);
+    }
+
+    // Shortest closed tour over all orders of order[k..], order[0..k-1] fixed
+    private static double shortestTour(StopMatrix matrix, int[] order, int k) {
+        if (k == order.length) {
+            return new ArrayTour(order).length(matrix);
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = k; i < order.length; i++) {
+            int swap = order[k];
+            order[k] = order[i];
+            order[i] = swap;
+            best = Math.min(best, shortestTour(matrix, order, k + 1));
+            order[i] = order[k];
+            order[k] = swap;
+        }
+        return best;
+    }
+
+    // The tour read from expected[0], in whichever direction it is currently stored
+    private static void assertCycle(int[] expected, ArrayTour tour) {
+        boolean forward = tour.next(expected[0]) == expected[1];
+        int city = expected[0];
+        for (int expectedCity : expected) {
+            assertEquals(expectedCity, city);
+            city = forward ? tour.next(city) : tour.prev(city);
+        }
+        assertEquals(expected[0], city);
+    }
+
+    static List<String> randomStops(int n) {
+        List<String> stops = new java.util.ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            stops.add("S" + i);
+        }
+        return stops;
+    }
+
+    // Stops scattered uniformly on a 1000 x 1000 square: {xs, ys}
+    static double[][] randomPoints(int n, long seed) {
+        java.util.Random random = new java.util.Random(seed);
+        double[][] points = new double[2][n];
+        for (int i = 0; i < n; i++) {
+            points[0][i] = random.nextDouble() * 1000;
+            points[1][i] = random.nextDouble() * 1000;
+        }
+        return points;
+    }
+
+    static PathCache euclideanCache(List<String> stops, long seed) {
+        double[][] points = randomPoints(stops.size(), seed);
+        PathCache cache = new PathCache();
+        for (int i = 0; i < stops.size(); i++) {
+            for (int j = 0; j <= i; j++) {
+                cache.putDistance(stops.get(i), stops.get(j),
+                        Math.hypot(points[0][i] - points[0][j], points[1][i] - points[1][j]));
+            }
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.srp.benchmark;
+
+import com.example.srp.algorithms.arcflags.ArcFlagPathFinder;
+import com.example.srp.algorithms.hierarchy.CHPathFinder;
+import com.example.srp.algorithms.landmarks.ALTPathFinder;
+import com.example.srp.algorithms.overlay.CRPPathFinder;
+import com.example.srp.algorithms.pathfinding.BidirectionalDijkstra;
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.PathFinder;
+import com.example.srp.algorithms.pathfinding.RadixHeapDijkstra;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Times the point-to-point engines on a synthetic grid.
+ * Usage: EngineBenchmark [gridSize] [queries]
+ */
+public class EngineBenchmark {
+    private static final int HOUR = 8;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Graph graph = SyntheticMapGenerator.grid(size, size, 1);
+        IndexedGraph indexed = IndexedGraph.of(graph);
+        TrafficStore ts = new JsonTrafficStore(graph);
+        System.out.println("Grid " + size + "x" + size + ": " + indexed.size() + " vertices, "
+                + indexed.arcCount() + " arcs, " + queries + " queries at hour " + HOUR);
+
+        Map<String, Supplier<PathFinder>> engines = new LinkedHashMap<>();
+        engines.put("Dijkstra", () -> new Dijkstra(graph, ts));
+        engines.put("BidirectionalDijkstra", () -> new BidirectionalDijkstra(graph, ts));
+        engines.put("RadixHeapDijkstra", () -> new RadixHeapDijkstra(indexed, ts, RadixHeapDijkstra.DEFAULT_SCALE));
+        engines.put("ArcFlags", () -> new ArcFlagPathFinder(indexed, ts));
+        engines.put("ALT", () -> new ALTPathFinder(indexed, ts, ALTPathFinder.DEFAULT_LANDMARKS, true, null));
+        engines.put("CH", () -> new CHPathFinder(indexed, ts));
+        engines.put("CRP", () -> new CRPPathFinder(indexed, ts));
+
+        double baseline = 0.0;
+        for (Map.Entry<String, Supplier<PathFinder>> engine : engines.entrySet()) {
+            PathFinder finder = engine.getValue().get();
+
+            // The first query pays for any per-hour preprocessing
+            long start = System.nanoTime();
+            finder.findShortestPath(SyntheticMapGenerator.vertexId(0, 0), SyntheticMapGenerator.vertexId(0, 0), HOUR);
+            double preprocessMs = (System.nanoTime() - start) / 1e6;
+
+            Random random = new Random(7);
+            double checksum = 0.0;
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                String s = SyntheticMapGenerator.vertexId(random.nextInt(size), random.nextInt(size));
+                String t = SyntheticMapGenerator.vertexId(random.nextInt(size), random.nextInt(size));
+                checksum += finder.findShortestPath(s, t, HOUR).getTotalDistance();
+            }
+            double queryMs = (System.nanoTime() - start) / 1e6 / queries;
+            if (baseline == 0.0) {
+                baseline = queryMs;
+            }
+            System.out.printf("%-22s preprocess %9.1f ms   query %8.3f ms   speedup %7.1fx   checksum %.3f%n",
+                    engine.getKey(), preprocessMs, queryMs, baseline / queryMs, checksum);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.srp.benchmark;
+
+import com.example.srp.algorithms.matrix.FloydWarshall;
+import com.example.srp.algorithms.pathfinding.IndexedGraph;
+import com.example.srp.algorithms.pathfinding.IndexedMinHeap;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.JsonTrafficStore;
+
+import java.util.Arrays;
+
+/**
+ * All-pairs distances on growing grids: Floyd-Warshall (scalar and SIMD) against one
+ * Dijkstra per source, to find the crossover size.
+ * Run with --add-modules jdk.incubator.vector, otherwise the SIMD column repeats the scalar one.
+ */
+public class MinPlusBenchmark {
+
+    public static void main(String[] args) {
+        System.out.println("Vector API available: " + FloydWarshall.isVectorized());
+        System.out.printf("%8s %14s %14s %14s%n", "vertices", "FW scalar ms", "FW SIMD ms", "n x Dijkstra ms");
+        for (int side : new int[]{6, 10, 14, 18, 22, 26, 32, 40}) {
+            Graph graph = SyntheticMapGenerator.grid(side, side, 1);
+            IndexedGraph indexed = IndexedGraph.of(graph);
+            double[] weights = indexed.weights(new JsonTrafficStore(graph), 8);
+            int n = indexed.size();
+
+            double scalar = best(() -> FloydWarshall.close(FloydWarshall.seed(indexed, weights), n, false));
+            double simd = best(() -> FloydWarshall.close(FloydWarshall.seed(indexed, weights), n, true));
+            double dijkstra = best(() -> allPairsDijkstra(indexed, weights));
+            System.out.printf("%8d %14.2f %14.2f %14.2f%n", n, scalar, simd, dijkstra);
+        }
+    }
+
+    // Best of several runs after warm-up, in milliseconds
+    private static double best(Runnable run) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < 8; i++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+
+    private static double[] allPairsDijkstra(IndexedGraph graph, double[] weights) {
+        int n = graph.size();
+        double[] d = new double[n * n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        for (int s = 0; s < n; s++) {
+            int row = s * n;
+            Arrays.fill(d, row, row + n, Double.POSITIVE_INFINITY);
+            d[row + s] = 0.0;
+            heap.update(s, 0.0);
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                for (int a = graph.firstOut(u); a < graph.endOut(u); a++) {
+                    int v = graph.head(a);
+                    double candidate = d[row + u] + weights[a];
+                    if (candidate < d[row + v]) {
+                        d[row + v] = candidate;
+                        heap.update(v, candidate);
+                    }
+                }
+            }
+        }
+        return d;
+    }
+}
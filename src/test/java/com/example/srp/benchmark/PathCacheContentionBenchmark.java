@@ -0,0 +1,89 @@
+package com.example.srp.benchmark;
+
+import com.example.srp.algorithms.pathfinding.ConcurrentPathCache;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.models.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distance lookups per second from many reader threads: ConcurrentPathCache against a plain
+ * PathCache behind one lock, which is what sharing the old cache between requests would need.
+ * Usage: PathCacheContentionBenchmark [stops] [millisPerRun]
+ */
+public class PathCacheContentionBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int stops = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+
+        PathCache locked = new PathCache();
+        ConcurrentPathCache concurrent = new ConcurrentPathCache(true);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < stops; i++) {
+            ids.add("S" + i);
+        }
+        for (int i = 0; i < stops; i++) {
+            for (int j = i; j < stops; j++) {
+                Path path = new Path(Arrays.asList(ids.get(i), ids.get(j)), i + j);
+                locked.put(ids.get(i), ids.get(j), path);
+                concurrent.put(ids.get(i), ids.get(j), path);
+            }
+        }
+
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %20s %20s%n", "threads", "locked Mlookups/s", "concurrent Mlookups/s");
+        for (int threads : new int[]{1, 4, 16, 32, 64}) {
+            double lockedRate = run(threads, millis, ids, (a, b) -> {
+                synchronized (locked) {
+                    return locked.getDistance(a, b);
+                }
+            });
+            double concurrentRate = run(threads, millis, ids, concurrent::getDistance);
+            System.out.printf("%8d %20.2f %20.2f%n", threads, lockedRate, concurrentRate);
+        }
+    }
+
+    interface Lookup {
+        double distance(String from, String to);
+    }
+
+    private static double run(int threads, long millis, List<String> ids, Lookup lookup) throws InterruptedException {
+        LongAdder count = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                double sink = 0;
+                long done = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < deadline[0]) {
+                    for (int k = 0; k < 1000; k++) {
+                        sink += lookup.distance(ids.get(random.nextInt(ids.size())), ids.get(random.nextInt(ids.size())));
+                    }
+                    done += 1000;
+                }
+                count.add(done + (sink < 0 ? 1 : 0));
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        deadline[0] = System.nanoTime() + millis * 1_000_000;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return count.sum() / (millis / 1000.0) / 1e6;
+    }
+}
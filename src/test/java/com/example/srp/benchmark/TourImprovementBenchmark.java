@@ -0,0 +1,111 @@
+package com.example.srp.benchmark;
+
+import com.example.srp.algorithms.matrix.DistanceMatrix;
+import com.example.srp.algorithms.matrix.SymmetricDistanceMatrix;
+import com.example.srp.algorithms.routing.ArrayTour;
+import com.example.srp.algorithms.routing.LinKernighanEngine;
+import com.example.srp.algorithms.routing.LinKernighanTSP;
+import com.example.srp.algorithms.routing.NeighborLists;
+import com.example.srp.algorithms.routing.TwoOptEngine;
+import com.example.srp.algorithms.routing.VNDTSP;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tour improvement on random Euclidean stops, starting from a nearest-neighbour tour: exhaustive
+ * O(n^2)-per-pass 2-opt against neighbour-list 2-opt with don't-look bits, and the 2-opt / Or-opt /
+ * 3-opt descent of VNDTSP, and Lin-Kernighan with and without Or-opt kicks.
+ * Usage: TourImprovementBenchmark [stops...]
+ */
+public class TourImprovementBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[]{1000, 5000};
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        System.out.printf("%7s %-28s %12s %14s%n", "stops", "method", "millis", "length");
+        for (int n : sizes) {
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            DistanceMatrix matrix = randomMatrix(n, 42, xs, ys);
+            int[] start = nearestNeighbor(matrix);
+            System.out.printf("%7d %-28s %12s %14.0f%n", n, "nearest neighbour", "-", new ArrayTour(start).length(matrix));
+
+            long t0 = System.nanoTime();
+            NeighborLists fromMatrix = NeighborLists.build(matrix, NeighborLists.DEFAULT_NEIGHBORS);
+            long t1 = System.nanoTime();
+            NeighborLists fromPoints = NeighborLists.fromPoints(xs, ys, NeighborLists.DEFAULT_NEIGHBORS);
+            long t2 = System.nanoTime();
+            System.out.printf("%7d %-28s %12.1f %14s%n", n, "lists from matrix", (t1 - t0) / 1e6, "-");
+            System.out.printf("%7d %-28s %12.1f %14s%n", n, "lists from grid index", (t2 - t1) / 1e6, "-");
+
+            for (int rep = 0; rep < 3; rep++) {
+                ArrayTour tour = new ArrayTour(start);
+                long s = System.nanoTime();
+                new TwoOptEngine(matrix).improve(tour, fromPoints);
+                System.out.printf("%7d %-28s %12.1f %14.0f%n", n, "2-opt, lists + don't-look", (System.nanoTime() - s) / 1e6, tour.length(matrix));
+            }
+            for (int rep = 0; rep < 3; rep++) {
+                ArrayTour tour = new ArrayTour(start);
+                long s = System.nanoTime();
+                VNDTSP.descend(matrix, tour, fromPoints);
+                System.out.printf("%7d %-28s %12.1f %14.0f%n", n, "2-opt / Or-opt / 3-opt VND", (System.nanoTime() - s) / 1e6, tour.length(matrix));
+            }
+            for (int rep = 0; rep < 3; rep++) {
+                ArrayTour tour = new ArrayTour(start);
+                long s = System.nanoTime();
+                new LinKernighanEngine(matrix).improve(tour, fromPoints);
+                System.out.printf("%7d %-28s %12.1f %14.0f%n", n, "Lin-Kernighan", (System.nanoTime() - s) / 1e6, tour.length(matrix));
+            }
+            for (int rep = 0; rep < 3; rep++) {
+                ArrayTour tour = new ArrayTour(start);
+                long s = System.nanoTime();
+                LinKernighanTSP.optimize(matrix, tour, fromPoints, (long) LinKernighanTSP.DEFAULT_KICKS_PER_STOP * n,
+                        s + TimeUnit.MILLISECONDS.toNanos(LinKernighanTSP.DEFAULT_TIME_LIMIT_MILLIS), new Random(1));
+                System.out.printf("%7d %-28s %12.1f %14.0f%n", n, "Lin-Kernighan + kicks", (System.nanoTime() - s) / 1e6, tour.length(matrix));
+            }
+            // Random uniform tours approach 0.7124 sqrt(n A), a little above that for small n
+            System.out.printf("%7d %-28s %12s %14.0f%n", n, "0.7124 sqrt(n A)", "-", 0.7124 * Math.sqrt(n * 1e6));
+            ArrayTour tour = new ArrayTour(start);
+            long s = System.nanoTime();
+            new TwoOptEngine(matrix).improve(tour, Integer.MAX_VALUE);
+            System.out.printf("%7d %-28s %12.1f %14.0f%n", n, "2-opt, exhaustive", (System.nanoTime() - s) / 1e6, tour.length(matrix));
+        }
+    }
+
+    static DistanceMatrix randomMatrix(int n, long seed, double[] xs, double[] ys) {
+        Random random = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextDouble() * 1000;
+            ys[i] = random.nextDouble() * 1000;
+        }
+        SymmetricDistanceMatrix matrix = new SymmetricDistanceMatrix(n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                matrix.set(i, j, Math.hypot(xs[i] - xs[j], ys[i] - ys[j]));
+            }
+        }
+        return matrix;
+    }
+
+    static int[] nearestNeighbor(DistanceMatrix matrix) {
+        int n = matrix.size();
+        boolean[] visited = new boolean[n];
+        int[] order = new int[n];
+        visited[0] = true;
+        for (int k = 1; k < n; k++) {
+            int current = order[k - 1];
+            int best = -1;
+            for (int j = 0; j < n; j++) {
+                if (!visited[j] && (best < 0 || matrix.get(current, j) < matrix.get(current, best))) {
+                    best = j;
+                }
+            }
+            order[k] = best;
+            visited[best] = true;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.srp.io;
+
+import com.example.srp.models.Graph;
+import com.example.srp.models.Vertex;
+
+import java.util.Random;
+
+/**
+ * Generates road-like grid maps for tests and benchmarks.
+ * Vertices are named "R{row}C{col}" and laid out 100 units apart, like the bundled maps.
+ */
+public class SyntheticMapGenerator {
+
+    /**
+     * Builds a rows x cols grid with jittered distances, a few diagonal shortcuts
+     * and random 24-hour traffic multipliers. The same seed always yields the same map.
+     */
+    public static Graph grid(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph();
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Vertex v = new Vertex();
+                v.setId(vertexId(r, c));
+                v.setX(c * 100);
+                v.setY(r * 100);
+                graph.addVertex(v);
+            }
+        }
+
+        int edgeCount = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (c + 1 < cols) {
+                    graph.addEdge("E" + edgeCount++, vertexId(r, c), vertexId(r, c + 1),
+                            1.0 + random.nextDouble(), randomTraffic(random));
+                }
+                if (r + 1 < rows) {
+                    graph.addEdge("E" + edgeCount++, vertexId(r, c), vertexId(r + 1, c),
+                            1.0 + random.nextDouble(), randomTraffic(random));
+                }
+                // Occasional diagonal arterial
+                if (r + 1 < rows && c + 1 < cols && random.nextDouble() < 0.1) {
+                    graph.addEdge("E" + edgeCount++, vertexId(r, c), vertexId(r + 1, c + 1),
+                            1.5 + random.nextDouble(), randomTraffic(random));
+                }
+            }
+        }
+        return graph;
+    }
+
+    public static String vertexId(int row, int col) {
+        return "R" + row + "C" + col;
+    }
+
+    private static double[] randomTraffic(Random random) {
+        double[] traffic = new double[24];
+        for (int h = 0; h < 24; h++) {
+            traffic[h] = 1.0 + random.nextDouble() * 1.5;
+        }
+        return traffic;
+    }
+}
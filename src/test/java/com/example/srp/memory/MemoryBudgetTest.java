@@ -0,0 +1,168 @@
+package com.example.srp.memory;
+
+import com.example.srp.algorithms.hierarchy.CHPathFinder;
+import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.LazyPathCache;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.models.Path;
+import com.example.srp.models.Vertex;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryBudgetTest {
+
+    private Graph grid;
+    private TrafficStore trafficStore;
+    private List<Vertex> stops;
+
+    @BeforeEach
+    void setUp() {
+        grid = SyntheticMapGenerator.grid(10, 10, 4);
+        trafficStore = new JsonTrafficStore(grid);
+        stops = new ArrayList<>();
+        for (int r = 0; r < 10; r += 3) {
+            for (int c = 0; c < 10; c += 3) {
+                stops.add(grid.vertices.get("R" + r + "C" + c));
+            }
+        }
+    }
+
+    @Test
+    void testUsageIsReportedPerCache() {
+        MemoryBudget budget = new MemoryBudget(1L << 30);
+        DistanceMatrixBuilder builder = new DistanceMatrixBuilder(grid, trafficStore, 8, new Dijkstra(grid, trafficStore));
+        PathCache eager = builder.build(stops);
+        LazyPathCache lazy = builder.buildLazy(stops, LazyPathCache.DEFAULT_MAX_BYTES);
+
+        eager.attachTo(budget, "paths");
+        lazy.attachTo(budget, "paths");
+        lazy.getDistance(stops.get(0).getId(), stops.get(5).getId());
+
+        Map<String, Long> usage = budget.usage();
+        assertEquals(Arrays.asList("paths", "paths#2"), new ArrayList<>(usage.keySet()));
+        assertEquals(eager.usedBytes(), usage.get("paths"));
+        assertEquals(lazy.usedBytes(), usage.get("paths#2"));
+        assertTrue(eager.usedBytes() > 0 && lazy.usedBytes() > 0);
+        assertEquals(eager.usedBytes() + lazy.usedBytes(), budget.usedBytes());
+        assertEquals(0, budget.enforce());
+    }
+
+    @Test
+    void testCheapestConsumerIsReleasedFirst() {
+        FixedConsumer cheap = new FixedConsumer(600, 1.0);
+        FixedConsumer expensive = new FixedConsumer(600, 100.0);
+        FixedConsumer pinned = new FixedConsumer(600, Double.POSITIVE_INFINITY);
+        MemoryBudget budget = new MemoryBudget(1500);
+        budget.register("expensive", expensive);
+        budget.register("pinned", pinned);
+        budget.register("cheap", cheap);
+
+        assertEquals(300, budget.enforce());
+        assertEquals(300, cheap.usedBytes());
+        assertEquals(600, expensive.usedBytes());
+
+        // Over by more than the cheap one holds: it is emptied, then the expensive one pays the rest
+        MemoryBudget tight = new MemoryBudget(500);
+        tight.register("expensive", expensive);
+        tight.register("pinned", pinned);
+        tight.register("cheap", cheap);
+        tight.enforce();
+        assertEquals(0, cheap.usedBytes());
+        assertEquals(0, expensive.usedBytes());
+        assertEquals(600, pinned.usedBytes());
+    }
+
+    @Test
+    void testLazyRowsAreReleasedAndReloaded() {
+        DistanceMatrixBuilder builder = new DistanceMatrixBuilder(grid, trafficStore, 8, new Dijkstra(grid, trafficStore));
+        LazyPathCache lazy = builder.buildLazy(stops, LazyPathCache.DEFAULT_MAX_BYTES);
+        PathCache eager = builder.build(stops);
+        for (Vertex v : stops) {
+            lazy.getDistance(v.getId(), stops.get(0).getId());
+        }
+        long full = lazy.usedBytes();
+
+        MemoryBudget budget = new MemoryBudget(full / 2);
+        lazy.attachTo(budget, "lazy");
+        assertTrue(budget.enforce() >= full / 2);
+        assertTrue(lazy.usedBytes() <= full / 2);
+        assertTrue(lazy.reloadCostPerByte() > 0);
+
+        for (Vertex a : stops) {
+            Path path = lazy.get(a.getId(), stops.get(3).getId());
+            assertEquals(eager.getDistance(a.getId(), stops.get(3).getId()), path.getTotalDistance(), 1e-9);
+        }
+    }
+
+    @Test
+    void testHierarchyHoursAreReleasedLeastRecentlyUsedFirst() {
+        CHPathFinder ch = new CHPathFinder(grid, trafficStore);
+        Path before = ch.findShortestPath("R0C0", "R9C9", 8);
+        long oneHour = ch.usedBytes();
+        ch.findShortestPath("R0C0", "R9C9", 17);
+        assertEquals(2 * oneHour, ch.usedBytes(), oneHour / 10.0);
+
+        MemoryBudget budget = new MemoryBudget(oneHour + oneHour / 2);
+        ch.attachTo(budget, "ch");
+        budget.enforce();
+        assertEquals(1, budget.releaseCount());
+        assertTrue(ch.usedBytes() <= oneHour + oneHour / 10);
+
+        // Hour 8 was evicted and is contracted again on demand
+        assertEquals(before.getTotalDistance(), ch.findShortestPath("R0C0", "R9C9", 8).getTotalDistance(), 1e-9);
+    }
+
+    @Test
+    void testPlainPathCacheIsNeverReleased() {
+        PathCache cache = new PathCache();
+        cache.put("A", "B", new Path(Arrays.asList("A", "X", "B"), 2.0));
+        MemoryBudget budget = new MemoryBudget(1);
+        cache.attachTo(budget, "plain");
+
+        assertEquals(0, budget.enforce());
+        assertNotNull(cache.get("A", "B"));
+        assertThrows(IllegalArgumentException.class, () -> new MemoryBudget(0));
+    }
+
+    private static class FixedConsumer implements MemoryConsumer {
+        private long used;
+        private final double cost;
+
+        FixedConsumer(long used, double cost) {
+            this.used = used;
+            this.cost = cost;
+        }
+
+        @Override
+        public synchronized long usedBytes() {
+            return used;
+        }
+
+        @Override
+        public synchronized long release(long bytes) {
+            if (cost == Double.POSITIVE_INFINITY) {
+                return 0;
+            }
+            long freed = Math.min(bytes, used);
+            used -= freed;
+            return freed;
+        }
+
+        @Override
+        public double reloadCostPerByte() {
+            return cost;
+        }
+    }
+}
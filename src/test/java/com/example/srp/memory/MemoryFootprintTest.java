@@ -0,0 +1,71 @@
+package com.example.srp.memory;
+
+import com.example.srp.algorithms.pathfinding.Dijkstra;
+import com.example.srp.algorithms.pathfinding.DistanceMatrixBuilder;
+import com.example.srp.algorithms.pathfinding.PathCache;
+import com.example.srp.io.MapParser;
+import com.example.srp.io.SyntheticMapGenerator;
+import com.example.srp.models.Graph;
+import com.example.srp.traffic.JsonTrafficStore;
+import com.example.srp.traffic.TrafficStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryFootprintTest {
+
+    @Test
+    void testEstimateMatchesMeasurementOfLoadedGrid() {
+        Graph grid = SyntheticMapGenerator.grid(30, 30, 3);
+        TrafficStore trafficStore = new JsonTrafficStore(grid);
+        List<String> stops = new ArrayList<>();
+        for (int r = 0; r < 30; r += 6) {
+            for (int c = 0; c < 30; c += 6) {
+                stops.add(SyntheticMapGenerator.vertexId(r, c));
+            }
+        }
+        PathCache cache = new DistanceMatrixBuilder(grid, trafficStore, 8, new Dijkstra(grid, trafficStore))
+                .buildForPlan(stops.get(0), stops.subList(1, stops.size()));
+
+        MemoryReport measured = MemoryFootprint.measure(grid, cache);
+
+        for (String component : new String[]{MemoryFootprint.GRAPH, MemoryFootprint.TRAFFIC, MemoryFootprint.PATH_CACHE}) {
+            long estimated = measured.getEstimated(component);
+            long actual = measured.getMeasured(component);
+            assertTrue(actual > 0, component);
+            assertEquals(actual, estimated, actual * 0.15, component);
+        }
+        assertEquals(MemoryReport.NOT_MEASURED, measured.getMeasured(MemoryFootprint.SEARCH));
+    }
+
+    @Test
+    void testEstimateBeforeLoadingScalesWithMapAndStops() {
+        MemoryReport small = MemoryFootprint.estimate(1_000, 2_000, 50);
+        MemoryReport large = MemoryFootprint.estimate(100_000, 200_000, 50);
+
+        assertEquals(100.0, (double) large.getEstimated(MemoryFootprint.TRAFFIC) / small.getEstimated(MemoryFootprint.TRAFFIC), 1e-9);
+        // One predecessor row per stop grows with the map, the matrix itself does not
+        assertTrue(large.getEstimated(MemoryFootprint.PATH_CACHE) > 50 * small.getEstimated(MemoryFootprint.PATH_CACHE));
+        assertEquals(MemoryReport.NOT_MEASURED, small.getMeasured(MemoryFootprint.GRAPH));
+        assertEquals(small.totalEstimated(), small.totalMeasured());
+    }
+
+    @Test
+    void testReportListsEveryComponent() throws Exception {
+        Graph graph = new MapParser().parse("map-1");
+
+        MemoryReport report = MemoryFootprint.measure(graph, null);
+        String text = report.toString();
+
+        assertEquals(6, report.getComponents().size());
+        for (String component : report.getComponents()) {
+            assertTrue(text.contains(component), component);
+        }
+        assertTrue(text.contains("Total"));
+        assertTrue(report.getMeasured(MemoryFootprint.GRAPH) > 0);
+        assertThrows(IllegalArgumentException.class, () -> report.getEstimated("heap"));
+    }
+}